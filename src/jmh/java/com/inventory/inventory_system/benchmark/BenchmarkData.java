@@ -0,0 +1,70 @@
+package com.inventory.inventory_system.benchmark;
+
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.entity.Sale;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic fixtures for the benchmarks. The same seed always produces
+ * the same rows, so runs on different machines measure the same work.
+ */
+public final class BenchmarkData {
+
+    public static final long SEED = 42L;
+
+    private static final String[] CATEGORIES = {"Electronics", "Clothing", "Books", "Home & Garden", "Sports",
+            "Beauty", "Toys", "Automotive", "Furniture", "Stationery", "Kitchen"};
+    private static final String[] PAYMENT_METHODS = {"Cash", "Credit Card", "Debit Card", "Bank Transfer"};
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private BenchmarkData() {}
+
+    public static List<Product> products(int count) {
+        Random random = new Random(SEED);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product(
+                "Product " + i,
+                "Benchmark product number " + i,
+                "SKU-" + i,
+                BigDecimal.valueOf(100 + random.nextInt(100_000), 2),
+                random.nextInt(200),
+                CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            product.setId((long) i + 1);
+            product.setReorderLevel(5 + random.nextInt(10));
+            product.setCreatedAt(EPOCH);
+            product.setUpdatedAt(EPOCH);
+            products.add(product);
+        }
+        return products;
+    }
+
+    public static List<Sale> sales(int count, List<Product> products) {
+        List<Sale> sales = new ArrayList<>(count);
+        forEachSale(count, products, sales::add);
+        return sales;
+    }
+
+    // Same rows as sales(), without holding them all - for seeding large tables
+    public static void forEachSale(int count, List<Product> products, Consumer<Sale> consumer) {
+        Random random = new Random(SEED + 1);
+        for (int i = 0; i < count; i++) {
+            Product product = products.get(random.nextInt(products.size()));
+            Sale sale = new Sale(product.getId(), product.getName(), 1 + random.nextInt(5),
+                product.getPrice(), "Customer " + random.nextInt(1000));
+            sale.setId((long) i + 1);
+            sale.setProductSku(product.getSku());
+            sale.setProductCategory(product.getCategory());
+            sale.setPaymentMethod(PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)]);
+            sale.setSaleDate(EPOCH.plusMinutes(random.nextInt(60 * 24 * 365)));
+            sale.setCreatedAt(sale.getSaleDate());
+            consumer.accept(sale);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.inventory.inventory_system.benchmark;
+
+import com.inventory.inventory_system.InventorySystemApplication;
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.entity.Sale;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application without a web server against its own H2 database and
+ * seeds it from {@link BenchmarkData}: {@code sales} sales rows over one
+ * product per ten sales. Rows go in through JDBC batches, so seeding 1M sales
+ * takes seconds and never holds more than one batch of them.
+ */
+public final class BenchmarkDatabase {
+
+    private static final int INSERT_BATCH = 10_000;
+
+    private BenchmarkDatabase() {}
+
+    public static ConfigurableApplicationContext start(int sales) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InventorySystemApplication.class)
+            .web(WebApplicationType.NONE)
+            // As arguments, not properties(): those are defaults and application.properties would win
+            .run("--spring.datasource.url=jdbc:h2:mem:benchmark",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--inventory.sample-data.enabled=false",
+                "--inventory.sql-stats.enabled=false",
+                // Devtools is on the test classpath; its shutdown hook races the pool on close
+                "--spring.autoconfigure.exclude="
+                    + "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration");
+        seed(context.getBean(JdbcTemplate.class), Math.max(1, sales / 10), sales);
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int productCount, int saleCount) {
+        List<Product> products = BenchmarkData.products(productCount);
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+        for (Product product : products) {
+            rows.add(new Object[] {product.getId(), product.getName(), product.getDescription(), product.getSku(),
+                product.getPrice(), product.getQuantity(), product.getCategory(), product.getReorderLevel(),
+                Timestamp.valueOf(product.getCreatedAt()), Timestamp.valueOf(product.getUpdatedAt())});
+            if (rows.size() == INSERT_BATCH) {
+                insertProducts(jdbcTemplate, rows);
+            }
+        }
+        insertProducts(jdbcTemplate, rows);
+
+        BenchmarkData.forEachSale(saleCount, products, sale -> {
+            rows.add(saleRow(sale));
+            if (rows.size() == INSERT_BATCH) {
+                insertSales(jdbcTemplate, rows);
+            }
+        });
+        insertSales(jdbcTemplate, rows);
+    }
+
+    private static Object[] saleRow(Sale sale) {
+        return new Object[] {sale.getId(), sale.getProductId(), sale.getProductName(), sale.getProductSku(),
+            sale.getProductCategory(), sale.getQuantity(), sale.getUnitPrice(), sale.getTotalAmount(),
+            Timestamp.valueOf(sale.getSaleDate()), sale.getCustomerName(), sale.getPaymentMethod(),
+            Timestamp.valueOf(sale.getCreatedAt())};
+    }
+
+    private static void insertProducts(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, description, sku, price, quantity, category, "
+            + "reorder_level, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    private static void insertSales(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO sales (id, product_id, product_name, product_sku, product_category, "
+            + "quantity, unit_price, total_amount, sale_date, customer_name, payment_method, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+}
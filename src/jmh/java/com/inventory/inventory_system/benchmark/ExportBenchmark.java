@@ -0,0 +1,56 @@
+package com.inventory.inventory_system.benchmark;
+
+import com.inventory.inventory_system.controller.ExportController;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ExportController workbook builders end to end: load, build the XSSF
+ * workbook, serialize it. One call takes seconds, so each iteration is a
+ * single shot. XSSF keeps every cell on the heap, so the 1M case is mostly a
+ * measure of how far that goes before the 4 GB heap runs out.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ExportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ExportController exportController;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkDatabase.start(rows);
+        exportController = context.getBean(ExportController.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<InputStreamResource> exportProductsToExcel() {
+        return exportController.exportProductsToExcel();
+    }
+
+    @Benchmark
+    public ResponseEntity<InputStreamResource> exportSalesToExcel() {
+        return exportController.exportSalesToExcel();
+    }
+
+    @Benchmark
+    public ResponseEntity<InputStreamResource> exportReportsToExcel() {
+        return exportController.exportReportsToExcel();
+    }
+}
@@ -0,0 +1,107 @@
+package com.inventory.inventory_system.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.inventory.inventory_system.entity.Product;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Before/after for the hot-path logging in ProductService.getProductById.
+ * Four request threads log the same line through a synchronized PrintStream
+ * (what System.out.println did) and through SLF4J with the async appender,
+ * both writing to the same kind of file sink.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private Product product;
+    private PrintStream console;
+    private Logger asyncInfo;
+    private Logger asyncDisabledDebug;
+    private AsyncAppender asyncAppender;
+    private Path consoleFile;
+    private Path asyncFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        product = BenchmarkData.products(1).get(0);
+
+        consoleFile = Files.createTempFile("console", ".log");
+        console = new PrintStream(new FileOutputStream(consoleFile.toFile()), true);
+
+        asyncFile = Files.createTempFile("async", ".log");
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %5level [%thread] %logger{39} : %msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> file = new OutputStreamAppender<>();
+        file.setContext(context);
+        file.setEncoder(encoder);
+        file.setOutputStream(new FileOutputStream(asyncFile.toFile()));
+        file.start();
+        asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(file);
+        asyncAppender.start();
+
+        ch.qos.logback.classic.Logger info = context.getLogger("benchmark.async");
+        info.setAdditive(false);
+        info.setLevel(Level.INFO);
+        info.addAppender(asyncAppender);
+        asyncInfo = info;
+
+        ch.qos.logback.classic.Logger quiet = context.getLogger("benchmark.quiet");
+        quiet.setAdditive(false);
+        quiet.setLevel(Level.INFO);
+        quiet.addAppender(asyncAppender);
+        asyncDisabledDebug = quiet;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        asyncAppender.stop();
+        console.close();
+        Files.deleteIfExists(consoleFile);
+        Files.deleteIfExists(asyncFile);
+    }
+
+    // Before: full entity toString through a synchronized, autoflushing stream
+    @Benchmark
+    public void systemOutPrintln() {
+        console.println("Retrieved product by ID " + product.getId() + ": " + product.toString());
+    }
+
+    // After, at INFO: parameterized message, the caller only enqueues the event
+    @Benchmark
+    public void slf4jAsyncInfo() {
+        asyncInfo.info("Retrieved product by ID {}: {}", product.getId(), "found");
+    }
+
+    // After, as shipped: the message is DEBUG and the level is INFO, so nothing is formatted
+    @Benchmark
+    public void slf4jDisabledDebug() {
+        asyncDisabledDebug.debug("Retrieved product by ID {}: {}", product.getId(), "found");
+    }
+}
@@ -0,0 +1,55 @@
+package com.inventory.inventory_system.benchmark;
+
+import com.inventory.inventory_system.dto.Money;
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.entity.Sale;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revenue by category over loaded sales, the loop behind the dashboard charts:
+ * BigDecimal.add per row (before) against a long-cents Money.Total per
+ * category (after). Run with -prof gc to see the per-row allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyAggregationBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private List<Sale> sales;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = BenchmarkData.products(1000);
+        sales = BenchmarkData.sales(rows, products);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> bigDecimalMerge() {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (Sale sale : sales) {
+            totals.merge(sale.getProductCategory(), sale.getTotalAmount(), BigDecimal::add);
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<String, Money.Total> moneyTotal() {
+        Map<String, Money.Total> totals = new HashMap<>();
+        for (Sale sale : sales) {
+            totals.computeIfAbsent(sale.getProductCategory(), key -> new Money.Total()).add(sale.getTotalAmount());
+        }
+        return totals;
+    }
+}
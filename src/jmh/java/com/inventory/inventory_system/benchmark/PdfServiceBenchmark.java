@@ -0,0 +1,53 @@
+package com.inventory.inventory_system.benchmark;
+
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.entity.Sale;
+import com.inventory.inventory_system.service.PdfService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Documents per second for each PdfService renderer.
+ * Run with -prof gc to get the allocation per document (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfServiceBenchmark {
+
+    @Param({"100", "1000"})
+    private int listSize;
+
+    private PdfService pdfService;
+    private Product product;
+    private Sale sale;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        pdfService = new PdfService();
+        products = BenchmarkData.products(listSize);
+        product = products.get(0);
+        sale = BenchmarkData.sales(1, products).get(0);
+    }
+
+    @Benchmark
+    public byte[] generateProductPdf() {
+        return pdfService.generateProductPdf(product);
+    }
+
+    @Benchmark
+    public byte[] generateSalesPdf() {
+        return pdfService.generateSalesPdf(sale);
+    }
+
+    @Benchmark
+    public byte[] generateProductListPdf() {
+        return pdfService.generateProductListPdf(products);
+    }
+}
@@ -0,0 +1,77 @@
+package com.inventory.inventory_system.benchmark;
+
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.service.ProductService;
+import com.inventory.inventory_system.service.SaleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths against a seeded H2 database, query plus Java-side
+ * aggregation. {@code rows} is the sales count, products are a tenth of it.
+ * Run with -prof gc for gc.alloc.rate.norm (bytes per call); the 1M case
+ * needs the 4 GB heap the fork is given.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private SaleService saleService;
+    private ProductService productService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkDatabase.start(rows);
+        saleService = context.getBean(SaleService.class);
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> getTopSellingProducts() {
+        return saleService.getTopSellingProducts(5);
+    }
+
+    @Benchmark
+    public Map<String, Object> getDashboardChartData() {
+        return saleService.getDashboardChartData();
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> getSalesByCategory() {
+        return saleService.getSalesByCategory();
+    }
+
+    @Benchmark
+    public BigDecimal getTotalInventoryValue() {
+        return productService.getTotalInventoryValue();
+    }
+
+    // Matches "Product 42", "Product 420".. - about 1% of the products
+    @Benchmark
+    public List<Product> searchProducts() {
+        return productService.searchProducts("product 42");
+    }
+
+    @Benchmark
+    public String generateSku() {
+        return productService.generateSku("Benchmark Widget");
+    }
+}
@@ -0,0 +1,110 @@
+package com.inventory.inventory_system.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One logged-in browser: its own cookie jar, form login and the session's CSRF token.
+ */
+final class AppSession {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private final URI base;
+    private final HttpClient client;
+    private String csrf;
+
+    private AppSession(URI base) {
+        this.base = base;
+        this.client = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    static AppSession login(URI base, String username, String password) throws IOException, InterruptedException {
+        AppSession session = new AppSession(base);
+        session.csrf = session.csrfFrom(session.getText("/login"));
+        HttpResponse<Void> response = session.postForm("/login", Map.of("username", username, "password", password));
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || location.contains("error")) {
+            throw new IllegalStateException("Login failed for " + username + ": " + response.statusCode() + " " + location);
+        }
+        // Spring Security issues a new token with the authenticated session
+        session.csrf = session.csrfFrom(session.getText("/sales/new"));
+        return session;
+    }
+
+    String getText(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofString());
+        check(path, response.statusCode());
+        return response.body();
+    }
+
+    byte[] getBytes(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        check(path, response.statusCode());
+        return response.body();
+    }
+
+    // Reads and drops the body, returns its size - for downloads nobody needs to look at
+    long drain(String path) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = client.send(request(path).GET().build(),
+            HttpResponse.BodyHandlers.ofInputStream());
+        long size = 0;
+        try (InputStream body = response.body()) {
+            byte[] buffer = new byte[16384];
+            for (int read; (read = body.read(buffer)) != -1; ) {
+                size += read;
+            }
+        }
+        check(path, response.statusCode());
+        return size;
+    }
+
+    HttpResponse<Void> postForm(String path, Map<String, String> fields) throws IOException, InterruptedException {
+        StringJoiner form = new StringJoiner("&");
+        form.add("_csrf=" + encode(csrf));
+        fields.forEach((name, value) -> form.add(encode(name) + "=" + encode(value)));
+        HttpRequest request = request(path)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(form.toString()))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(Duration.ofMinutes(5));
+    }
+
+    private String csrfFrom(String html) {
+        Matcher matcher = CSRF.matcher(html);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No CSRF token in page");
+        }
+        return matcher.group(1);
+    }
+
+    private static void check(String path, int status) {
+        if (status != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + status);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
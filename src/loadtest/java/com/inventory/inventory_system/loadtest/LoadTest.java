@@ -0,0 +1,289 @@
+package com.inventory.inventory_system.loadtest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Closed-loop HTTP load driver against a running application.
+ *
+ * Every virtual user logs in through the form login, then loops over a
+ * weighted mix of scenarios: checkouts on a few hot products, dashboard and
+ * chart polling, product searches and downloads. Latencies go into one
+ * HdrHistogram per scenario. Afterwards the stock is read back and checked:
+ * nothing negative, every hot product went down by exactly what was sold,
+ * and the server's committed-sales counter matches the successful checkouts.
+ * Assumes the driver is the only client writing during the run.
+ *
+ *   mvn -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="--users=32 --duration=60"
+ *
+ * Options (defaults): --base-url=http://localhost:8080 --users=16 --duration=60 --warmup=10
+ * --hot-skus=3 --think-ms=0 --seed=42 --username=admin --password=123456
+ * --mix=checkout:40,dashboard:10,charts:20,search:25,export:5
+ */
+public final class LoadTest {
+
+    private static final String[] SEARCH_TERMS = {"laptop", "mouse", "chair", "desk", "pro", "lamp", "widget",
+            "smart", "notebook", "premium", "kettle", "42"};
+    private static final String[] PAYMENT_METHODS = {"Cash", "Credit Card", "Debit Card", "Bank Transfer"};
+
+    private enum Scenario { CHECKOUT, DASHBOARD, CHARTS, SEARCH, EXPORT }
+
+    private final Map<String, String> options;
+    private final URI base;
+    private final Map<Scenario, Histogram> latencies = new HashMap<>();
+    private final Map<Scenario, LongAdder> errors = new HashMap<>();
+    private final LongAdder rejectedCheckouts = new LongAdder();
+    private final Map<Long, AtomicLong> soldByProduct = new ConcurrentHashMap<>();
+    private final AtomicLong successfulCheckouts = new AtomicLong();
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.base = URI.create(option("base-url", "http://localhost:8080"));
+        for (Scenario scenario : Scenario.values()) {
+            latencies.put(scenario, new ConcurrentHistogram(3));
+            errors.put(scenario, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // No logback config on this classpath, keep POI's debug output out of the report
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        System.exit(new LoadTest(options).run() ? 0 : 2);
+    }
+
+    private boolean run() throws Exception {
+        int users = Integer.parseInt(option("users", "16"));
+        int duration = Integer.parseInt(option("duration", "60"));
+        int warmup = Integer.parseInt(option("warmup", "10"));
+        long seed = Long.parseLong(option("seed", "42"));
+        Scenario[] mix = parseMix(option("mix", "checkout:40,dashboard:10,charts:20,search:25,export:5"));
+
+        AppSession admin = login();
+        StockSnapshot before = StockSnapshot.take(admin);
+        List<Long> hotProducts = hotProducts(before, Integer.parseInt(option("hot-skus", "3")));
+        List<Long> allProducts = new ArrayList<>(before.quantities.keySet());
+        System.out.printf("Hot products %s, stock %s%n", hotProducts,
+            hotProducts.stream().map(before.quantities::get).collect(Collectors.toList()));
+
+        List<AppSession> sessions = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            sessions.add(login());
+        }
+
+        CountDownLatch done = new CountDownLatch(users);
+        for (int i = 0; i < users; i++) {
+            AppSession session = sessions.get(i);
+            Random random = new Random(seed + i);
+            Thread user = new Thread(() -> {
+                try {
+                    userLoop(session, random, mix, hotProducts, allProducts);
+                } finally {
+                    done.countDown();
+                }
+            }, "vu-" + i);
+            user.setDaemon(true);
+            user.start();
+        }
+
+        System.out.printf("%d users, %d s warmup, %d s measured%n", users, warmup, duration);
+        TimeUnit.SECONDS.sleep(warmup);
+        measuring = true;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(duration);
+        measuring = false;
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        running = false;
+        done.await();
+
+        report(elapsed);
+        return checkInvariants(before, StockSnapshot.take(admin), hotProducts);
+    }
+
+    private void userLoop(AppSession session, Random random, Scenario[] mix, List<Long> hotProducts,
+                          List<Long> allProducts) {
+        long thinkMillis = Long.parseLong(option("think-ms", "0"));
+        while (running) {
+            Scenario scenario = mix[random.nextInt(mix.length)];
+            boolean record = measuring;
+            long start = System.nanoTime();
+            try {
+                execute(session, random, scenario, hotProducts, allProducts);
+            } catch (Exception e) {
+                if (record) {
+                    errors.get(scenario).increment();
+                }
+            }
+            if (record) {
+                latencies.get(scenario).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void execute(AppSession session, Random random, Scenario scenario, List<Long> hotProducts,
+                         List<Long> allProducts) throws Exception {
+        switch (scenario) {
+            case CHECKOUT:
+                Long productId = hotProducts.get(random.nextInt(hotProducts.size()));
+                HttpResponse<Void> response = session.postForm("/sales", Map.of(
+                    "productId", String.valueOf(productId),
+                    "quantity", "1",
+                    "customerName", "Load Test " + random.nextInt(1000),
+                    "paymentMethod", PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)]));
+                String location = response.headers().firstValue("Location").orElse("");
+                if (response.statusCode() == 302 && location.contains("success")) {
+                    // Counted whether or not we are measuring: the invariants cover the whole run
+                    soldByProduct.computeIfAbsent(productId, id -> new AtomicLong()).incrementAndGet();
+                    successfulCheckouts.incrementAndGet();
+                } else if (response.statusCode() == 200) {
+                    // The form is rendered again with an error, usually insufficient stock
+                    if (measuring) {
+                        rejectedCheckouts.increment();
+                    }
+                } else {
+                    throw new IllegalStateException("POST /sales returned " + response.statusCode());
+                }
+                break;
+            case DASHBOARD:
+                session.drain("/dashboard");
+                break;
+            case CHARTS:
+                session.drain("/api/dashboard/charts");
+                break;
+            case SEARCH:
+                session.drain("/products?search=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]);
+                break;
+            case EXPORT:
+                if (random.nextInt(4) == 0) {
+                    session.drain("/export/products/excel");
+                } else {
+                    session.drain("/products/" + allProducts.get(random.nextInt(allProducts.size())) + "/pdf");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(scenario.name());
+        }
+    }
+
+    private void report(double elapsed) {
+        System.out.println();
+        System.out.printf("%-10s %8s %7s %8s %9s %9s %9s %9s %9s %9s%n", "scenario", "count", "errors",
+            "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "mean ms");
+        long total = 0;
+        for (Scenario scenario : Scenario.values()) {
+            Histogram histogram = latencies.get(scenario);
+            long count = histogram.getTotalCount();
+            total += count;
+            if (count == 0) {
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%-10s %8d %7d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                scenario.name().toLowerCase(), count, errors.get(scenario).sum(), count / elapsed,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()), histogram.getMean() / 1000);
+        }
+        System.out.printf(Locale.ROOT, "total      %8d %7s %8.1f%n", total, "", total / elapsed);
+        System.out.printf("checkouts rejected by the application (measured window): %d%n", rejectedCheckouts.sum());
+    }
+
+    private boolean checkInvariants(StockSnapshot before, StockSnapshot after, List<Long> hotProducts) {
+        System.out.println();
+        boolean ok = true;
+
+        List<Long> negative = after.quantities.entrySet().stream()
+            .filter(entry -> entry.getValue() < 0)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+        ok &= verdict(negative.isEmpty(), "no negative stock", "negative stock on products " + negative);
+
+        for (Long productId : hotProducts) {
+            long sold = soldByProduct.getOrDefault(productId, new AtomicLong()).get();
+            long delta = before.quantities.get(productId) - after.quantities.get(productId);
+            ok &= verdict(sold == delta, "product " + productId + ": stock down by " + delta + " = " + sold + " sold",
+                "product " + productId + ": stock down by " + delta + " but " + sold + " sold ("
+                    + (sold - delta) + " lost updates)");
+        }
+
+        if (before.salesCommitted >= 0 && after.salesCommitted >= 0) {
+            long committed = after.salesCommitted - before.salesCommitted;
+            ok &= verdict(committed == successfulCheckouts.get(),
+                "server committed " + committed + " sales = " + successfulCheckouts.get() + " successful checkouts",
+                "server committed " + committed + " sales but " + successfulCheckouts.get() + " checkouts succeeded");
+        }
+        return ok;
+    }
+
+    private static boolean verdict(boolean passed, String pass, String fail) {
+        System.out.println((passed ? "PASS  " : "FAIL  ") + (passed ? pass : fail));
+        return passed;
+    }
+
+    // The products with the most stock, so checkouts succeed for the whole run
+    private static List<Long> hotProducts(StockSnapshot snapshot, int count) {
+        return snapshot.quantities.entrySet().stream()
+            .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()))
+            .limit(count)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
+    // Expands "checkout:40,search:60" into a 100-slot table to draw scenarios from
+    private static Scenario[] parseMix(String mix) {
+        List<Scenario> slots = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] weight = part.split(":");
+            Scenario scenario = Scenario.valueOf(weight[0].trim().toUpperCase());
+            for (int i = 0; i < Integer.parseInt(weight[1].trim()); i++) {
+                slots.add(scenario);
+            }
+        }
+        return slots.toArray(new Scenario[0]);
+    }
+
+    private AppSession login() throws Exception {
+        return AppSession.login(base, option("username", "admin"), option("password", "123456"));
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
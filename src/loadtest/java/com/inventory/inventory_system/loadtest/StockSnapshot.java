@@ -0,0 +1,74 @@
+package com.inventory.inventory_system.loadtest;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stock per product as the application reports it, read from the products
+ * Excel export (columns ID and Quantity), plus the committed-sales counter
+ * from the Prometheus endpoint. It first waits for journaled sales to be
+ * applied and for the stock ledger to flush, so the stock is final.
+ */
+final class StockSnapshot {
+
+    private static final int ID_COLUMN = 0;
+    private static final int QUANTITY_COLUMN = 5;
+    private static final Pattern SALES_COMMITTED =
+        Pattern.compile("(?m)^inventory_sales_committed_total\\{[^}]*} ([0-9.eE+]+)");
+    private static final Pattern PENDING_WRITES =
+        Pattern.compile("(?m)^inventory_(?:journal_unapplied|stock_unflushed)\\{[^}]*} ([0-9.eE+]+)");
+    private static final long SETTLE_WAIT_MILLIS = 30_000;
+
+    final Map<Long, Integer> quantities;
+    final long salesCommitted;
+
+    private StockSnapshot(Map<Long, Integer> quantities, long salesCommitted) {
+        this.quantities = quantities;
+        this.salesCommitted = salesCommitted;
+    }
+
+    static StockSnapshot take(AppSession session) throws IOException, InterruptedException {
+        awaitPendingWrites(session);
+        Map<Long, Integer> quantities = new HashMap<>();
+        byte[] workbookBytes = session.getBytes("/export/products/excel");
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(workbookBytes))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                if (row.getRowNum() == 0) {
+                    continue;
+                }
+                String id = row.getCell(ID_COLUMN).getStringCellValue();
+                if (!"N/A".equals(id)) {
+                    quantities.put(Long.valueOf(id), (int) row.getCell(QUANTITY_COLUMN).getNumericCellValue());
+                }
+            }
+        }
+        Matcher matcher = SALES_COMMITTED.matcher(session.getText("/actuator/prometheus"));
+        long committed = matcher.find() ? (long) Double.parseDouble(matcher.group(1)) : -1;
+        return new StockSnapshot(quantities, committed);
+    }
+
+    private static void awaitPendingWrites(AppSession session) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + SETTLE_WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Matcher matcher = PENDING_WRITES.matcher(session.getText("/actuator/prometheus"));
+            boolean pending = false;
+            while (matcher.find()) {
+                pending |= Double.parseDouble(matcher.group(1)) != 0;
+            }
+            if (!pending) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+    }
+}
@@ -6,7 +6,10 @@ import com.inventory.inventory_system.entity.Supplier;
 import com.inventory.inventory_system.repository.ProductRepository;
 import com.inventory.inventory_system.repository.SaleRepository;
 import com.inventory.inventory_system.repository.SupplierRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -14,9 +17,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Random;
 
+// Turned off when something else provides the data, e.g. benchmarks seeding their own rows
 @Component
+@ConditionalOnProperty(name = "inventory.sample-data.enabled", havingValue = "true", matchIfMissing = true)
 public class DataLoader implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
+
     private final ProductRepository productRepository;
     private final SupplierRepository supplierRepository;
     private final SaleRepository saleRepository;
@@ -29,18 +36,18 @@ public class DataLoader implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
-        System.out.println("🚀 Starting Inventory Management System...");
+        log.info("🚀 Starting Inventory Management System...");
         
         // Load sample data
         loadSampleData();
         
-        System.out.println("✅ Application started successfully!");
-        System.out.println("🌐 Access your application at: http://localhost:8080");
-        System.out.println("📊 Products page: http://localhost:8080/products");
-        System.out.println("📈 Reports page: http://localhost:8080/products/reports");
-        System.out.println("📋 Dashboard: http://localhost:8080/dashboard");
-        System.out.println("❤️ Health check: http://localhost:8080/health");
-        System.out.println("🗄️ H2 Console: http://localhost:8080/h2-console");
+        log.info("✅ Application started successfully!");
+        log.info("🌐 Access your application at: http://localhost:8080");
+        log.info("📊 Products page: http://localhost:8080/products");
+        log.info("📈 Reports page: http://localhost:8080/products/reports");
+        log.info("📋 Dashboard: http://localhost:8080/dashboard");
+        log.info("❤️ Health check: http://localhost:8080/health");
+        log.info("🗄️ H2 Console: http://localhost:8080/h2-console");
     }
 
     private void loadSampleData() {
@@ -90,14 +97,14 @@ public class DataLoader implements CommandLineRunner {
         // Save products first
         List<Product> savedProducts = productRepository.saveAll(List.of(laptop, mouse, notebook, pen, chair, keyboard));
 
-        System.out.println("✅ Sample data loaded: 6 products, 2 suppliers");
+        log.info("✅ Sample data loaded: 6 products, 2 suppliers");
 
         // Create dummy sales data
         createDummySales(savedProducts);
     }
 
     private void createDummySales(List<Product> products) {
-        System.out.println("🛒 Creating dummy sales data...");
+        log.info("🛒 Creating dummy sales data...");
         
         Random random = new Random();
         String[] customers = {"John Smith", "Emma Wilson", "Michael Brown", "Sarah Johnson", "David Lee", 
@@ -176,7 +183,7 @@ public class DataLoader implements CommandLineRunner {
         // Update product quantities based on sales (simulate stock reduction)
         updateProductQuantities(products);
         
-        System.out.println("✅ Dummy sales data created: " + saleRepository.count() + " sales records");
+        log.info("✅ Dummy sales data created: {} sales records", saleRepository.count());
     }
 
     private void updateProductQuantities(List<Product> products) {
@@ -193,6 +200,6 @@ public class DataLoader implements CommandLineRunner {
             productRepository.save(product);
         }
         
-        System.out.println("📦 Updated product quantities based on sales");
+        log.info("📦 Updated product quantities based on sales");
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.inventory.inventory_system.config;
+
+import com.inventory.inventory_system.service.PdfCache;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Micrometer wiring. Services annotated with {@code @Timed} get a latency
+ * histogram per method; the Hikari pool, JVM and HTTP metrics come from
+ * Actuator's auto-configuration. Everything is scraped at /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder pdfCacheMetrics(PdfCache pdfCache) {
+        return registry -> {
+            FunctionCounter.builder("inventory.pdf.cache.requests", pdfCache, PdfCache::getHitCount)
+                .tag("result", "hit")
+                .description("Rendered PDF cache lookups")
+                .register(registry);
+            FunctionCounter.builder("inventory.pdf.cache.requests", pdfCache, PdfCache::getMissCount)
+                .tag("result", "miss")
+                .description("Rendered PDF cache lookups")
+                .register(registry);
+            Gauge.builder("inventory.pdf.cache.hit.ratio", pdfCache, MetricsConfig::hitRatio)
+                .description("Share of PDF requests served without rendering, since startup")
+                .register(registry);
+            Gauge.builder("inventory.pdf.cache.size", pdfCache, PdfCache::getMemoryBytes)
+                .tag("tier", "memory")
+                .baseUnit("bytes")
+                .register(registry);
+            Gauge.builder("inventory.pdf.cache.size", pdfCache, PdfCache::getDiskBytes)
+                .tag("tier", "disk")
+                .baseUnit("bytes")
+                .register(registry);
+        };
+    }
+
+    private static double hitRatio(PdfCache pdfCache) {
+        long hits = pdfCache.getHitCount();
+        long total = hits + pdfCache.getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
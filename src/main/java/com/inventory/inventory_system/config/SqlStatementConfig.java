@@ -0,0 +1,45 @@
+package com.inventory.inventory_system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL statement counting, only with inventory.sql-stats.enabled=true
+ * (the dev profile and the statement budget tests): it proxies every connection
+ * and statement and tells clients the query counts in X-Sql-* headers.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.sql-stats.enabled", havingValue = "true")
+public class SqlStatementConfig {
+
+    // Static so the DataSource is wrapped before anything else asks for it
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof SqlStatementCountingDataSource)) {
+                    return new SqlStatementCountingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementFilter> sqlStatementFilter(
+            @Value("${inventory.sql-stats.repeat-threshold:5}") int repeatThreshold) {
+        FilterRegistrationBean<SqlStatementFilter> registration =
+            new FilterRegistrationBean<>(new SqlStatementFilter(repeatThreshold));
+        // Outside Spring Security so redirects and error pages are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,105 @@
+package com.inventory.inventory_system.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource wrapper that times every statement execution and every
+ * connection checkout, recording both in {@link SqlStatementStats}. Sits below Hibernate and JdbcTemplate alike, so
+ * both ORM and native queries are counted. unwrap() still reaches the pool.
+ */
+public class SqlStatementCountingDataSource extends DelegatingDataSource {
+
+    public SqlStatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private static Connection connection(Connection target) {
+        SqlStatementStats.connectionAcquired();
+        long acquired = System.nanoTime();
+        boolean[] closed = new boolean[1];
+        return proxy(Connection.class, (proxy, method, args) -> {
+            String name = method.getName();
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("close".equals(name) && !closed[0]) {
+                closed[0] = true;
+                SqlStatementStats.connectionReleased(System.nanoTime() - acquired);
+            }
+            Object result = invoke(target, method, args);
+            if (result instanceof CallableStatement) {
+                return statement(CallableStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement) {
+                return statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (result instanceof Statement && "createStatement".equals(name)) {
+                return statement(Statement.class, (Statement) result, null);
+            }
+            return result;
+        });
+    }
+
+    // preparedSql is null for plain statements, which pass their SQL to execute()/addBatch()
+    private static <T extends Statement> T statement(Class<T> type, Statement target, String preparedSql) {
+        StringBuilder batch = new StringBuilder();
+        return proxy(type, (proxy, method, args) -> {
+            String name = method.getName();
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if (!name.startsWith("execute")) {
+                if ("addBatch".equals(name) && args != null && batch.length() == 0) {
+                    batch.append((String) args[0]);
+                }
+                return invoke(target, method, args);
+            }
+            String sql = preparedSql;
+            if (sql == null) {
+                sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : batch.toString();
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                SqlStatementStats.record(sql, System.nanoTime() - start);
+                batch.setLength(0);
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatementCountingDataSource.class.getClassLoader(),
+            new Class<?>[] {type}, handler);
+    }
+}
@@ -0,0 +1,94 @@
+package com.inventory.inventory_system.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reports the SQL statements each request executed: X-Sql-Statements,
+ * X-Sql-Time-Ms and X-Sql-Connections (pool checkouts) headers and a log line
+ * that also has how long the connections were held, with a warning for statement
+ * shapes repeated often enough to look like N+1 selects.
+ * Headers are written when the response commits, so a streamed download
+ * reports the statements run before its first byte; the log line has them all.
+ */
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-Sql-Statements";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+    public static final String CONNECTIONS_HEADER = "X-Sql-Connections";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    private final int repeatThreshold;
+
+    public SqlStatementFilter(int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.start();
+        StatsResponse wrapped = new StatsResponse(response, stats);
+        try {
+            chain.doFilter(request, wrapped);
+            wrapped.writeHeaders();
+        } finally {
+            SqlStatementStats.stop();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementStats stats) {
+        if (stats.getCount() == 0) {
+            return;
+        }
+        String uri = request.getMethod() + " " + request.getRequestURI();
+        log.debug("{}: {} SQL statements in {} ms on {} connections held {} ms", uri, stats.getCount(),
+            format(stats.getMillis()), stats.getConnections(), format(stats.getConnectionMillis()));
+        Map<String, Integer> repeated = stats.getRepeatedShapes(repeatThreshold);
+        for (Map.Entry<String, Integer> entry : repeated.entrySet()) {
+            log.warn("⚠️ Possible N+1 on {}: {} executions of: {}", uri, entry.getValue(), entry.getKey());
+        }
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.2f", millis);
+    }
+
+    private static class StatsResponse extends OnCommittedResponseWrapper {
+
+        private final SqlStatementStats stats;
+        private boolean written;
+
+        StatsResponse(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(COUNT_HEADER, String.valueOf(stats.getCount()));
+            setHeader(TIME_HEADER, format(stats.getMillis()));
+            setHeader(CONNECTIONS_HEADER, String.valueOf(stats.getConnections()));
+        }
+    }
+}
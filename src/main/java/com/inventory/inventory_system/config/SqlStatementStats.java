@@ -0,0 +1,114 @@
+package com.inventory.inventory_system.config;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements executed, and connections borrowed from the pool, by the
+ * current thread while a request is being served. Filled in by {@link SqlStatementCountingDataSource}, started and
+ * reported by {@link SqlStatementFilter}.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Raw SQL text -> executions, shapes are only worked out when asked for
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int count;
+    private long nanos;
+    private int connections;
+    private long connectionNanos;
+
+    private SqlStatementStats() {}
+
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static void record(String sql, long elapsedNanos) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.count++;
+            stats.nanos += elapsedNanos;
+            if (sql != null) {
+                stats.statements.merge(sql, 1, Integer::sum);
+            }
+        }
+    }
+
+    static void connectionAcquired() {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.connections++;
+        }
+    }
+
+    static void connectionReleased(long heldNanos) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.connectionNanos += heldNanos;
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    // Time connections were checked out of the pool, released ones only
+    public double getConnectionMillis() {
+        return connectionNanos / 1_000_000.0;
+    }
+
+    /**
+     * Statement shapes (literals and IN lists collapsed) executed at least
+     * {@code threshold} times - the usual signature of an N+1 select.
+     */
+    public Map<String, Integer> getRepeatedShapes(int threshold) {
+        Map<String, Integer> shapes = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : statements.entrySet()) {
+            shapes.merge(shape(entry.getKey()), entry.getValue(), Integer::sum);
+        }
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+            .filter(entry -> entry.getValue() >= threshold)
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase();
+    }
+}
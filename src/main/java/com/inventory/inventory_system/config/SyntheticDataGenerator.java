@@ -0,0 +1,334 @@
+package com.inventory.inventory_system.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Large synthetic dataset for load and benchmark runs, enabled with the
+ * {@code synthetic} profile, e.g.
+ * {@code --spring.profiles.active=synthetic --inventory.synthetic.sales=10000000}.
+ *
+ * Products sell with Zipf popularity, sale dates follow a yearly season, a
+ * weekly cycle and a growth trend, and both lines per basket and quantity per
+ * line are heavy-tailed (Pareto). Rows are written by JDBC batches in fixed
+ * size chunks on a thread pool; every chunk draws from its own random stream
+ * derived from the seed, so the data is identical whatever the thread count.
+ */
+@Component
+@Profile("synthetic")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String[] CATEGORIES = {"Electronics", "Clothing", "Books", "Home & Garden", "Sports",
+            "Beauty", "Toys", "Automotive", "Furniture", "Stationery", "Kitchen"};
+    // Price range per category, in dollars, drawn log-uniformly
+    private static final double[][] PRICE_RANGES = {{20, 2500}, {5, 300}, {5, 80}, {3, 900}, {5, 600},
+            {3, 150}, {2, 250}, {5, 1200}, {40, 3000}, {1, 60}, {3, 400}};
+    private static final String[] ADJECTIVES = {"Classic", "Premium", "Compact", "Deluxe", "Eco", "Smart",
+            "Portable", "Pro", "Ultra", "Basic", "Vintage", "Modern"};
+    private static final String[] NOUNS = {"Widget", "Lamp", "Chair", "Charger", "Notebook", "Jacket", "Bottle",
+            "Speaker", "Backpack", "Kettle", "Blender", "Monitor", "Helmet", "Puzzle", "Brush"};
+    private static final String[] PAYMENT_METHODS = {"Cash", "Credit Card", "Debit Card", "Bank Transfer"};
+    private static final String[] CITIES = {"New York", "San Francisco", "Chicago", "Austin", "Seattle", "Boston"};
+
+    // Random stream ids, mixed with the seed and chunk number
+    private static final long SUPPLIER_STREAM = 1;
+    private static final long PRODUCT_STREAM = 2;
+    private static final long SALE_STREAM = 3;
+    private static final long CATALOG_STREAM = 4;
+
+    private static final int MAX_BASKET_LINES = 25;
+    private static final int MAX_LINE_QUANTITY = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int supplierCount;
+    private final int productCount;
+    private final long saleCount;
+    private final long seed;
+    private final int chunkSize;
+    private final int threads;
+    private final double zipfExponent;
+    private final int days;
+    private final LocalDate endDate;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  @Value("${inventory.synthetic.suppliers:50}") int supplierCount,
+                                  @Value("${inventory.synthetic.products:10000}") int productCount,
+                                  @Value("${inventory.synthetic.sales:1000000}") long saleCount,
+                                  @Value("${inventory.synthetic.seed:42}") long seed,
+                                  @Value("${inventory.synthetic.chunk-size:5000}") int chunkSize,
+                                  @Value("${inventory.synthetic.threads:0}") int threads,
+                                  @Value("${inventory.synthetic.zipf-exponent:1.07}") double zipfExponent,
+                                  @Value("${inventory.synthetic.days:730}") int days,
+                                  @Value("${inventory.synthetic.end-date:}") String endDate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.supplierCount = Math.max(1, supplierCount);
+        this.productCount = Math.max(1, productCount);
+        this.saleCount = saleCount;
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.zipfExponent = zipfExponent;
+        this.days = days;
+        // Pin the end date as well for byte-identical data across days; by default history ends today
+        this.endDate = endDate.isEmpty() ? LocalDate.now() : LocalDate.parse(endDate);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class);
+        if (existing != null && existing > 0) {
+            log.warn("⚠️ Synthetic data skipped, products table already has {} rows", existing);
+            return;
+        }
+
+        log.info("🎲 Generating {} suppliers, {} products, {} sales (seed {}, {} threads)",
+            supplierCount, productCount, saleCount, seed, threads);
+        long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            runChunks(executor, "suppliers", supplierCount, this::insertSuppliers);
+            Catalog catalog = new Catalog(productCount);
+            runChunks(executor, "products", productCount, (from, to) -> insertProducts(catalog, from, to));
+            SaleSampler sampler = new SaleSampler(catalog);
+            runChunks(executor, "sales", saleCount, (from, to) -> insertSales(sampler, from, to));
+        } finally {
+            executor.shutdownNow();
+        }
+        restartIdentity("suppliers", supplierCount);
+        restartIdentity("products", productCount);
+        restartIdentity("sales", saleCount);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("✅ Synthetic data ready in {} s ({} sales/s)", Math.round(seconds),
+            Math.round(saleCount / Math.max(seconds, 0.001)));
+    }
+
+    // Splits [0, total) into chunks, each written in its own transaction
+    private void runChunks(ExecutorService executor, String table, long total, ChunkWriter writer)
+            throws InterruptedException, ExecutionException {
+        AtomicLong written = new AtomicLong();
+        long step = Math.max(1, total / 10);
+        List<Future<?>> futures = new ArrayList<>();
+        for (long from = 0; from < total; from += chunkSize) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(total, from + chunkSize);
+            futures.add(executor.submit(() -> {
+                transactionTemplate.executeWithoutResult(status -> writer.write(chunkFrom, chunkTo));
+                long done = written.addAndGet(chunkTo - chunkFrom);
+                if (done / step != (done - (chunkTo - chunkFrom)) / step) {
+                    log.info("📦 {}: {} / {}", table, done, total);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private void insertSuppliers(long from, long to) {
+        SplittableRandom random = random(SUPPLIER_STREAM, from);
+        LocalDateTime createdAt = endDate.minusDays(days).atStartOfDay();
+        List<Object[]> rows = new ArrayList<>();
+        for (long i = from; i < to; i++) {
+            long id = i + 1;
+            rows.add(new Object[] {id, "Supplier " + id, "Contact " + id, "supplier" + id + "@example.com",
+                String.format("555-%04d", random.nextInt(10_000)), id + " Market Street",
+                CITIES[random.nextInt(CITIES.length)], "USA", String.format("SUP%05d", id), true,
+                Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO suppliers (id, name, contact_person, email, phone, address, city, "
+            + "country, supplier_code, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            rows);
+    }
+
+    private void insertProducts(Catalog catalog, long from, long to) {
+        SplittableRandom random = random(PRODUCT_STREAM, from);
+        LocalDateTime firstDay = endDate.minusDays(days).atStartOfDay();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = (int) from; i < to; i++) {
+            int category = random.nextInt(CATEGORIES.length);
+            double low = PRICE_RANGES[category][0];
+            double high = PRICE_RANGES[category][1];
+            BigDecimal price = BigDecimal.valueOf(Math.round(low * Math.pow(high / low, random.nextDouble()) * 100), 2);
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+                + " " + (i + 1);
+            String sku = String.format("SYN-%07d", i + 1);
+            // A few percent out of stock, the rest spread up to 500
+            int quantity = random.nextInt(100) < 3 ? 0 : 1 + random.nextInt(500);
+            LocalDateTime createdAt = firstDay.plusMinutes(random.nextInt(Math.max(1, days) * 24 * 60));
+
+            catalog.names[i] = name;
+            catalog.skus[i] = sku;
+            catalog.categories[i] = CATEGORIES[category];
+            catalog.prices[i] = price;
+
+            rows.add(new Object[] {(long) i + 1, name, "Synthetic " + CATEGORIES[category].toLowerCase() + " item",
+                sku, price, quantity, CATEGORIES[category], 5 + random.nextInt(20),
+                String.valueOf(1 + random.nextInt(supplierCount)), Timestamp.valueOf(createdAt),
+                Timestamp.valueOf(createdAt)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, description, sku, price, quantity, category, "
+            + "reorder_level, supplier_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertSales(SaleSampler sampler, long from, long to) {
+        SplittableRandom random = random(SALE_STREAM, from);
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        long id = from;
+        while (id < to) {
+            // One basket: same customer, time and payment, several lines
+            int lines = pareto(random, 1.6, MAX_BASKET_LINES);
+            LocalDateTime saleDate = sampler.saleDate(random);
+            int customer = random.nextInt(50_000);
+            String paymentMethod = PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)];
+            for (int line = 0; line < lines && id < to; line++) {
+                int product = sampler.product(random);
+                int quantity = pareto(random, 2.2, MAX_LINE_QUANTITY);
+                BigDecimal unitPrice = sampler.catalog.prices[product];
+                rows.add(new Object[] {++id, (long) product + 1, sampler.catalog.names[product],
+                    sampler.catalog.skus[product], sampler.catalog.categories[product], quantity, unitPrice,
+                    unitPrice.multiply(BigDecimal.valueOf(quantity)), Timestamp.valueOf(saleDate),
+                    "Customer " + customer, "customer" + customer + "@example.com", paymentMethod,
+                    Timestamp.valueOf(saleDate)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sales (id, product_id, product_name, product_sku, product_category, "
+            + "quantity, unit_price, total_amount, sale_date, customer_name, customer_email, payment_method, "
+            + "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // Rows carry explicit ids, move the identity past them so the application can insert again
+    private void restartIdentity(String table, long count) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (count + 1));
+    }
+
+    private SplittableRandom random(long stream, long chunkStart) {
+        long mixed = seed * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L + chunkStart * 0x94D049BB133111EBL;
+        return new SplittableRandom(mixed);
+    }
+
+    // Discrete Pareto with minimum 1: P(x >= k) = k^-alpha
+    private static int pareto(SplittableRandom random, double alpha, int max) {
+        double value = Math.pow(1 - random.nextDouble(), -1.0 / alpha);
+        return (int) Math.min(max, Math.floor(value));
+    }
+
+    private static int sample(double[] cdf, double u) {
+        int index = Arrays.binarySearch(cdf, u);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cdf.length - 1);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(long from, long to);
+    }
+
+    // Product columns the sale rows copy, filled in by the product chunks
+    private static class Catalog {
+        private final String[] names;
+        private final String[] skus;
+        private final String[] categories;
+        private final BigDecimal[] prices;
+
+        Catalog(int size) {
+            names = new String[size];
+            skus = new String[size];
+            categories = new String[size];
+            prices = new BigDecimal[size];
+        }
+    }
+
+    // Precomputed CDFs for product popularity and sale day, shared read-only by the sale chunks
+    private class SaleSampler {
+        private final Catalog catalog;
+        private final double[] popularity;
+        private final int[] productByRank;
+        private final double[] season;
+        private final LocalDate firstDay;
+
+        SaleSampler(Catalog catalog) {
+            this.catalog = catalog;
+
+            // Zipf over popularity rank; ranks are shuffled so hot products are spread over ids
+            popularity = new double[productCount];
+            double total = 0;
+            for (int rank = 0; rank < productCount; rank++) {
+                total += 1 / Math.pow(rank + 1, zipfExponent);
+                popularity[rank] = total;
+            }
+            for (int rank = 0; rank < productCount; rank++) {
+                popularity[rank] /= total;
+            }
+            productByRank = new int[productCount];
+            for (int i = 0; i < productCount; i++) {
+                productByRank[i] = i;
+            }
+            SplittableRandom shuffle = random(CATALOG_STREAM, 0);
+            for (int i = productCount - 1; i > 0; i--) {
+                int j = shuffle.nextInt(i + 1);
+                int swap = productByRank[i];
+                productByRank[i] = productByRank[j];
+                productByRank[j] = swap;
+            }
+
+            // Day weight: December peak and summer lull, busier weekends, 50% growth over the period
+            int span = Math.max(1, days);
+            firstDay = endDate.minusDays(span - 1);
+            season = new double[span];
+            total = 0;
+            for (int day = 0; day < span; day++) {
+                LocalDate date = firstDay.plusDays(day);
+                double yearly = 1 + 0.35 * Math.cos(2 * Math.PI * (date.getDayOfYear() - 350) / 365.25);
+                double weekly = date.getDayOfWeek() == DayOfWeek.SATURDAY
+                    || date.getDayOfWeek() == DayOfWeek.SUNDAY ? 1.35 : 1.0;
+                double trend = 1 + 0.5 * day / span;
+                total += yearly * weekly * trend;
+                season[day] = total;
+            }
+            for (int day = 0; day < span; day++) {
+                season[day] /= total;
+            }
+        }
+
+        int product(SplittableRandom random) {
+            return productByRank[sample(popularity, random.nextDouble())];
+        }
+
+        // Trading hours 9:00-21:00, peaking mid-afternoon
+        LocalDateTime saleDate(SplittableRandom random) {
+            LocalDate date = firstDay.plusDays(sample(season, random.nextDouble()));
+            int minuteOfDay = 9 * 60 + (int) (12 * 60 * (random.nextDouble() + random.nextDouble()) / 2);
+            return date.atStartOfDay().plusMinutes(minuteOfDay).plusSeconds(random.nextInt(60));
+        }
+    }
+}
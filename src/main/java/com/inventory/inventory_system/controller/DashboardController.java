@@ -1,11 +1,17 @@
 package com.inventory.inventory_system.controller;
 
+import com.inventory.inventory_system.dto.Money;
 import com.inventory.inventory_system.entity.Sale;
+import com.inventory.inventory_system.jfr.DashboardBuildEvent;
+import com.inventory.inventory_system.outbox.SalesRollup;
 import com.inventory.inventory_system.service.ProductService;
 import com.inventory.inventory_system.service.SaleService;
 import com.inventory.inventory_system.service.SupplierService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -13,11 +19,14 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 @Controller
 public class DashboardController {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardController.class);
     
     @Autowired
     private ProductService productService;
@@ -28,10 +37,19 @@ public class DashboardController {
     @Autowired
     private SupplierService supplierService;
     
+    @Autowired
+    private SalesRollup salesRollup;
+    
+    // Page handlers run all their queries in one read-only transaction (one pooled
+    // connection), which ends before the view renders since open-in-view is off
     @GetMapping("/dashboard")
+    @Transactional(readOnly = true)
     public String showDashboard(Model model) {
+        DashboardBuildEvent event = new DashboardBuildEvent();
+        event.begin();
+        event.view = "dashboard";
         try {
-            System.out.println("📊 Loading dashboard data...");
+            log.debug("📊 Loading dashboard data...");
             
             // Basic statistics
             long totalProducts = productService.getTotalProductsCount();
@@ -43,34 +61,24 @@ public class DashboardController {
             long totalSuppliers = supplierService.getTotalSuppliersCount();
             
             // Get REAL chart data from database
-            Map<String, BigDecimal> salesByCategory = getRealSalesByCategory();
-            Map<String, BigDecimal> monthlySalesData = getRealMonthlySalesData();
+            Map<String, Money.Total> salesByCategory = getRealSalesByCategory();
+            Map<String, Money.Total> monthlySalesData = getRealMonthlySalesData();
             List<Map<String, Object>> topSellingProducts = saleService.getTopSellingProducts(5);
             
             // Debug: Print the actual data structure
-            System.out.println("=== DEBUG: Monthly Sales Data Structure ===");
-            monthlySalesData.forEach((key, value) -> {
-                System.out.println("Key: '" + key + "', Value: " + value + ", Type: " + value.getClass().getSimpleName());
-            });
+            log.trace("Monthly sales data: {}", monthlySalesData);
+            log.trace("Category sales data: {}", salesByCategory);
             
-            System.out.println("=== DEBUG: Category Sales Data Structure ===");
-            salesByCategory.forEach((key, value) -> {
-                System.out.println("Key: '" + key + "', Value: " + value + ", Type: " + value.getClass().getSimpleName());
-            });
-            
-            // Convert BigDecimal to Double for JavaScript compatibility
+            // Numbers for the charts' JavaScript, straight from the totals in cents
             Map<String, Double> monthlySalesDouble = new LinkedHashMap<>();
-            monthlySalesData.forEach((key, value) -> {
-                monthlySalesDouble.put(key, value != null ? value.doubleValue() : 0.0);
-            });
+            monthlySalesData.forEach((key, value) -> monthlySalesDouble.put(key, value.doubleValue()));
             
             Map<String, Double> categorySalesDouble = new HashMap<>();
-            salesByCategory.forEach((key, value) -> {
-                categorySalesDouble.put(key, value != null ? value.doubleValue() : 0.0);
-            });
+            salesByCategory.forEach((key, value) -> categorySalesDouble.put(key, value.doubleValue()));
             
             // Add data to model
-            model.addAttribute("totalSalesCount", saleService.getAllSales().size());
+            long totalSalesCount = salesRollup.isReady() ? salesRollup.getSaleCount() : saleService.getAllSales().size();
+            model.addAttribute("totalSalesCount", totalSalesCount);
             model.addAttribute("hasMonthlyData", !monthlySalesData.isEmpty());
             model.addAttribute("hasCategoryData", !salesByCategory.isEmpty());
             
@@ -88,67 +96,91 @@ public class DashboardController {
             model.addAttribute("topSellingProducts", topSellingProducts);
             model.addAttribute("title", "Dashboard");
             
-            System.out.println("✅ Dashboard data loaded successfully");
+            log.debug("✅ Dashboard data loaded successfully");
+            event.sales = (int) totalSalesCount;
+            event.categories = salesByCategory.size();
+            event.succeeded = true;
             
             return "dashboard";
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("❌ Error loading dashboard", e);
             model.addAttribute("error", "Error loading dashboard: " + e.getMessage());
             return "error";
+        } finally {
+            event.commit();
         }
     }
     
-    // Get REAL sales by category from database
-    private Map<String, BigDecimal> getRealSalesByCategory() {
+    // Get REAL sales by category, from the outbox-fed rollup once it has loaded
+    private Map<String, Money.Total> getRealSalesByCategory() {
         try {
-            // Get all sales from database
-            List<Sale> allSales = saleService.getAllSales();
-            System.out.println("📊 Processing " + allSales.size() + " sales for category analysis");
-            
-            Map<String, BigDecimal> salesByCategory = new HashMap<>();
-            
-            for (Sale sale : allSales) {
-                String category = sale.getProductCategory();
-                BigDecimal amount = sale.getTotalAmount();
-                
-                if (amount != null) {
-                    // Handle null or empty categories
-                    String categoryKey = (category == null || category.trim().isEmpty()) ? "Uncategorized" : category;
-                    
-                    // Add to category total
-                    salesByCategory.merge(categoryKey, amount, BigDecimal::add);
-                }
+            Map<String, Money.Total> salesByCategory;
+            if (salesRollup.isReady()) {
+                salesByCategory = salesRollup.getSalesByCategory();
+            } else {
+                salesByCategory = sumLoadedSalesByCategory();
             }
             
             // If no sales data, create sample structure from products
             if (salesByCategory.isEmpty()) {
-                System.out.println("🔄 No sales data found, creating category structure from products...");
+                log.debug("🔄 No sales data found, creating category structure from products...");
                 var products = productService.getAllProducts();
                 for (var product : products) {
                     String category = product.getCategory();
                     String categoryKey = (category == null || category.trim().isEmpty()) ? "Uncategorized" : category;
-                    salesByCategory.putIfAbsent(categoryKey, BigDecimal.ZERO);
+                    salesByCategory.computeIfAbsent(categoryKey, key -> new Money.Total());
                 }
             }
             
-            System.out.println("✅ Final category sales data: " + salesByCategory);
+            log.debug("✅ Final category sales data: {}", salesByCategory);
             return salesByCategory;
             
         } catch (Exception e) {
-            System.err.println("❌ Error getting real sales by category: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Error getting real sales by category", e);
             return new HashMap<>();
         }
     }
     
-    // Get REAL monthly sales data from database
-    private Map<String, BigDecimal> getRealMonthlySalesData() {
+    // Before the rollup has loaded: every sale from the database
+    private Map<String, Money.Total> sumLoadedSalesByCategory() {
+        List<Sale> allSales = saleService.getAllSales();
+        log.debug("📊 Processing {} sales for category analysis", allSales.size());
+        
+        Map<String, Money.Total> salesByCategory = new HashMap<>();
+        for (Sale sale : allSales) {
+            String category = sale.getProductCategory();
+            BigDecimal amount = sale.getTotalAmount();
+            
+            if (amount != null) {
+                // Handle null or empty categories
+                String categoryKey = (category == null || category.trim().isEmpty()) ? "Uncategorized" : category;
+                
+                // Add to category total
+                salesByCategory.computeIfAbsent(categoryKey, key -> new Money.Total()).add(amount);
+            }
+        }
+        return salesByCategory;
+    }
+    
+    // Get REAL monthly sales data, from the outbox-fed rollup once it has loaded
+    private Map<String, Money.Total> getRealMonthlySalesData() {
         try {
+            if (salesRollup.isReady()) {
+                Map<String, Money.Total> monthlySales = new LinkedHashMap<>();
+                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM yyyy");
+                YearMonth thisMonth = YearMonth.now();
+                for (int i = 5; i >= 0; i--) {
+                    YearMonth month = thisMonth.minusMonths(i);
+                    monthlySales.put(month.format(formatter), salesRollup.getMonthTotal(month));
+                }
+                return monthlySales;
+            }
+            
             // Get all sales from database
             List<Sale> allSales = saleService.getAllSales();
-            System.out.println("📈 Processing " + allSales.size() + " sales for monthly analysis");
+            log.debug("📈 Processing {} sales for monthly analysis", allSales.size());
             
-            Map<String, BigDecimal> monthlySales = new LinkedHashMap<>();
+            Map<String, Money.Total> monthlySales = new LinkedHashMap<>();
             
             // Initialize last 6 months with zeros
             LocalDate now = LocalDate.now();
@@ -157,10 +189,10 @@ public class DashboardController {
             for (int i = 5; i >= 0; i--) {
                 LocalDate monthDate = now.minusMonths(i);
                 String monthKey = monthDate.format(formatter);
-                monthlySales.put(monthKey, BigDecimal.ZERO);
+                monthlySales.put(monthKey, new Money.Total());
             }
             
-            System.out.println("📅 Initialized months: " + monthlySales.keySet());
+            log.trace("📅 Initialized months: {}", monthlySales.keySet());
             
             // Fill with actual data
             int salesWithDates = 0;
@@ -169,35 +201,32 @@ public class DashboardController {
                 BigDecimal saleAmount = sale.getTotalAmount();
                 
                 if (saleDate != null && saleAmount != null) {
-                    String monthKey = saleDate.format(formatter);
-                    
-                    if (monthlySales.containsKey(monthKey)) {
-                        BigDecimal currentTotal = monthlySales.get(monthKey);
-                        monthlySales.put(monthKey, currentTotal.add(saleAmount));
+                    Money.Total monthTotal = monthlySales.get(saleDate.format(formatter));
+                    if (monthTotal != null) {
+                        monthTotal.add(saleAmount);
                         salesWithDates++;
                     }
                 }
             }
             
-            System.out.println("📊 Processed " + salesWithDates + " sales with valid dates");
-            System.out.println("✅ Final monthly sales data: " + monthlySales);
+            log.debug("📊 Processed {} sales with valid dates, final monthly sales data: {}", salesWithDates, monthlySales);
             
             return monthlySales;
             
         } catch (Exception e) {
-            System.err.println("❌ Error getting real monthly sales data: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Error getting real monthly sales data", e);
             return new LinkedHashMap<>();
         }
     }
     
     // Debug endpoint to check sales data
     @GetMapping("/debug/sales")
+    @Transactional(readOnly = true)
     public String debugSales(Model model) {
         try {
             List<Sale> allSales = saleService.getAllSales();
-            Map<String, BigDecimal> monthlyData = getRealMonthlySalesData();
-            Map<String, BigDecimal> categoryData = getRealSalesByCategory();
+            Map<String, Money.Total> monthlyData = getRealMonthlySalesData();
+            Map<String, Money.Total> categoryData = getRealSalesByCategory();
             
             // Prepare detailed sales info for debugging
             List<Map<String, Object>> salesDetails = new ArrayList<>();
@@ -227,14 +256,18 @@ public class DashboardController {
     // API endpoint for chart data
     @GetMapping("/api/dashboard/charts")
     @ResponseBody
+    @Transactional(readOnly = true)
     public Map<String, Object> getChartData() {
         Map<String, Object> chartData = new HashMap<>();
+        DashboardBuildEvent event = new DashboardBuildEvent();
+        event.begin();
+        event.view = "charts";
         
         try {
-            Map<String, BigDecimal> monthlySalesData = getRealMonthlySalesData();
-            Map<String, BigDecimal> salesByCategory = getRealSalesByCategory();
+            Map<String, Money.Total> monthlySalesData = getRealMonthlySalesData();
+            Map<String, Money.Total> salesByCategory = getRealSalesByCategory();
             
-            // Convert to Double for JSON
+            // Doubles for JSON, straight from the totals in cents
             Map<String, Double> monthlyDouble = new LinkedHashMap<>();
             monthlySalesData.forEach((k, v) -> monthlyDouble.put(k, v.doubleValue()));
             
@@ -244,10 +277,14 @@ public class DashboardController {
             chartData.put("monthlySales", monthlyDouble);
             chartData.put("salesByCategory", categoryDouble);
             chartData.put("success", true);
+            event.categories = salesByCategory.size();
+            event.succeeded = true;
             
         } catch (Exception e) {
             chartData.put("success", false);
             chartData.put("error", e.getMessage());
+        } finally {
+            event.commit();
         }
         
         return chartData;
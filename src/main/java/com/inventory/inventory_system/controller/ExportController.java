@@ -1,7 +1,10 @@
 package com.inventory.inventory_system.controller;
 
+import com.inventory.inventory_system.dto.Money;
 import com.inventory.inventory_system.entity.Product;
 import com.inventory.inventory_system.entity.Sale;
+import com.inventory.inventory_system.jfr.WorkbookExportEvent;
+import com.inventory.inventory_system.service.InventoryMetrics;
 import com.inventory.inventory_system.service.ProductService;
 import com.inventory.inventory_system.service.SaleService;
 import org.apache.poi.ss.usermodel.*;
@@ -18,7 +21,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -33,10 +35,17 @@ public class ExportController {
     @Autowired
     private SaleService saleService;
 
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
     @GetMapping("/products/excel")
     public ResponseEntity<InputStreamResource> exportProductsToExcel() {
+        WorkbookExportEvent event = new WorkbookExportEvent();
+        event.begin();
+        event.export = "products";
         try {
             List<Product> products = productService.getAllProducts();
+            event.rows = products.size();
 
             Workbook workbook = new XSSFWorkbook();
             Sheet sheet = workbook.createSheet("Products");
@@ -82,6 +91,7 @@ public class ExportController {
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
             workbook.close();
+            event.bytes = outputStream.size();
 
             ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
 
@@ -89,6 +99,7 @@ public class ExportController {
             responseHeaders.add("Content-Disposition", "attachment; filename=products_" + 
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx");
 
+            inventoryMetrics.exported("products", "excel");
             return ResponseEntity.ok()
                     .headers(responseHeaders)
                     .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
@@ -96,13 +107,19 @@ public class ExportController {
 
         } catch (IOException e) {
             throw new RuntimeException("Error generating Excel file: " + e.getMessage());
+        } finally {
+            event.commit();
         }
     }
 
     @GetMapping("/sales/excel")
     public ResponseEntity<InputStreamResource> exportSalesToExcel() {
+        WorkbookExportEvent event = new WorkbookExportEvent();
+        event.begin();
+        event.export = "sales";
         try {
             List<Sale> sales = saleService.getAllSales();
+            event.rows = sales.size();
 
             Workbook workbook = new XSSFWorkbook();
             Sheet sheet = workbook.createSheet("Sales");
@@ -147,11 +164,7 @@ public class ExportController {
             // Add summary row
             Row summaryRow = sheet.createRow(rowNum + 1);
             summaryRow.createCell(0).setCellValue("TOTAL SALES:");
-            BigDecimal totalSales = sales.stream()
-                .filter(s -> s.getTotalAmount() != null)
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            summaryRow.createCell(6).setCellValue(totalSales.doubleValue());
+            summaryRow.createCell(6).setCellValue(totalAmount(sales).doubleValue());
 
             CellStyle summaryStyle = workbook.createCellStyle();
             Font summaryFont = workbook.createFont();
@@ -163,6 +176,7 @@ public class ExportController {
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
             workbook.close();
+            event.bytes = outputStream.size();
 
             ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
 
@@ -170,6 +184,7 @@ public class ExportController {
             responseHeaders.add("Content-Disposition", "attachment; filename=sales_" + 
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx");
 
+            inventoryMetrics.exported("sales", "excel");
             return ResponseEntity.ok()
                     .headers(responseHeaders)
                     .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
@@ -177,14 +192,20 @@ public class ExportController {
 
         } catch (IOException e) {
             throw new RuntimeException("Error generating Excel file: " + e.getMessage());
+        } finally {
+            event.commit();
         }
     }
 
     @GetMapping("/reports/excel")
     public ResponseEntity<InputStreamResource> exportReportsToExcel() {
+        WorkbookExportEvent event = new WorkbookExportEvent();
+        event.begin();
+        event.export = "reports";
         try {
             List<Product> products = productService.getAllProducts();
             List<Sale> sales = saleService.getAllSales();
+            event.rows = products.size() + sales.size();
 
             Workbook workbook = new XSSFWorkbook();
             
@@ -203,6 +224,7 @@ public class ExportController {
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
             workbook.close();
+            event.bytes = outputStream.size();
 
             ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
 
@@ -210,6 +232,7 @@ public class ExportController {
             responseHeaders.add("Content-Disposition", "attachment; filename=inventory_report_" + 
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx");
 
+            inventoryMetrics.exported("reports", "excel");
             return ResponseEntity.ok()
                     .headers(responseHeaders)
                     .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
@@ -217,6 +240,8 @@ public class ExportController {
 
         } catch (IOException e) {
             throw new RuntimeException("Error generating Excel report: " + e.getMessage());
+        } finally {
+            event.commit();
         }
     }
 
@@ -234,7 +259,7 @@ public class ExportController {
         Row statsRow2 = sheet.createRow(3);
         statsRow2.createCell(0).setCellValue("In Stock: " + inStock);
         
-        long lowStock = products.stream().filter(p -> p.getQuantity() != null && p.getQuantity() > 0 && p.getQuantity() <= 5).count();
+        long lowStock = products.stream().filter(Product::isLowStock).count();
         Row statsRow3 = sheet.createRow(4);
         statsRow3.createCell(0).setCellValue("Low Stock: " + lowStock);
         
@@ -251,12 +276,16 @@ public class ExportController {
         Row statsRow1 = sheet.createRow(2);
         statsRow1.createCell(0).setCellValue("Total Sales: " + sales.size());
         
-        BigDecimal totalRevenue = sales.stream()
-            .filter(s -> s.getTotalAmount() != null)
-            .map(Sale::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
         Row statsRow2 = sheet.createRow(3);
-        statsRow2.createCell(0).setCellValue("Total Revenue: $" + totalRevenue);
+        statsRow2.createCell(0).setCellValue("Total Revenue: $" + totalAmount(sales));
+    }
+
+    private static Money.Total totalAmount(List<Sale> sales) {
+        Money.Total total = new Money.Total();
+        for (Sale sale : sales) {
+            total.add(sale.getTotalAmount());
+        }
+        return total;
     }
 
     private void createSummarySheet(Sheet sheet, List<Product> products, List<Sale> sales) {
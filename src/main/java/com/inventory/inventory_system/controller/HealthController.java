@@ -1,14 +1,32 @@
 package com.inventory.inventory_system.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Collections;
+import java.util.Map;
+
 @RestController
 public class HealthController {
 
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    @Autowired
+    private HttpCodeStatusMapper statusMapper;
+
+    // Kept for load balancers already pointed at /health: same status and HTTP code as
+    // /actuator/health/readiness, without the details (those need an admin login there)
     @GetMapping("/health")
-    public String health() {
-        return "✅ Inventory Management System is running!";
+    public ResponseEntity<Map<String, String>> health() {
+        HealthComponent readiness = healthEndpoint.healthForPath("readiness");
+        return ResponseEntity.status(statusMapper.getStatusCode(readiness.getStatus()))
+                .body(Collections.singletonMap("status", readiness.getStatus().getCode()));
     }
 
     @GetMapping("/api")
@@ -16,7 +34,7 @@ public class HealthController {
         return "🚀 Inventory Management System API is running! " +
                "<br/>📊 Products: /products" +
                "<br/>📈 Reports: /products/reports" +
-               "<br/>❤️ Health: /health" +
+               "<br/>❤️ Health: /health (details: /actuator/health/readiness, /actuator/health/liveness)" +
                "<br/>🗄️ H2 Console: /h2-console";
     }
 }
\ No newline at end of file
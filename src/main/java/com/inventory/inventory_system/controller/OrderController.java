@@ -0,0 +1,164 @@
+package com.inventory.inventory_system.controller;
+
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.entity.Sale;
+import com.inventory.inventory_system.entity.SaleOrder;
+import com.inventory.inventory_system.service.InventoryMetrics;
+import com.inventory.inventory_system.service.OrderService;
+import com.inventory.inventory_system.service.PdfCache;
+import com.inventory.inventory_system.service.PdfService;
+import com.inventory.inventory_system.service.ProductService;
+import com.inventory.inventory_system.service.StockLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Baskets of several products checked out with one request, see OrderService
+@Controller
+@RequestMapping("/orders")
+public class OrderController {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private PdfService pdfService;
+
+    @Autowired
+    private PdfCache pdfCache;
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @GetMapping("/new")
+    @Transactional(readOnly = true)
+    public String showOrderForm(Model model) {
+        try {
+            model.addAttribute("order", new SaleOrder());
+            model.addAttribute("lines", Collections.singletonList(new Sale()));
+            addFormAttributes(model);
+            model.addAttribute("title", "New Order");
+            return "orders/form";
+        } catch (Exception e) {
+            log.error("❌ Error loading order form", e);
+            model.addAttribute("error", "Error loading order form: " + e.getMessage());
+            model.addAttribute("products", Collections.emptyList());
+            return "orders/form";
+        }
+    }
+
+    // Lines come in as parallel productId/quantity fields, one pair per basket row
+    @PostMapping
+    public String placeOrder(@ModelAttribute("order") SaleOrder order,
+                             @RequestParam(value = "productId", required = false) List<Long> productIds,
+                             @RequestParam(value = "quantity", required = false) List<Integer> quantities,
+                             Model model) {
+        List<Sale> lines = new ArrayList<>();
+        try {
+            if (productIds == null || quantities == null || productIds.size() != quantities.size()) {
+                throw new RuntimeException("Every item needs a product and a quantity");
+            }
+            for (int i = 0; i < productIds.size(); i++) {
+                // Rows left empty in the form are skipped
+                if (productIds.get(i) == null && quantities.get(i) == null) {
+                    continue;
+                }
+                Sale line = new Sale();
+                line.setProductId(productIds.get(i));
+                line.setQuantity(quantities.get(i));
+                lines.add(line);
+            }
+            SaleOrder saved = orderService.placeOrder(order, lines);
+            return "redirect:/sales?success=Order+" + saved.getId() + "+recorded+with+" + saved.getLineCount() + "+items";
+        } catch (Exception e) {
+            log.warn("⚠️ Could not place order: {}", e.getMessage());
+            model.addAttribute("error", e.getMessage());
+            // The basket as entered, so it can be corrected rather than typed again
+            model.addAttribute("lines", lines.isEmpty() ? Collections.singletonList(new Sale()) : lines);
+            addFormAttributes(model);
+            return "orders/form";
+        }
+    }
+
+    // One receipt for the whole order; like sale receipts it never changes once committed
+    @GetMapping("/{id}/pdf")
+    public ResponseEntity<byte[]> generateOrderPdf(@PathVariable Long id, WebRequest request) {
+        try {
+            SaleOrder order = orderService.getOrderById(id)
+                    .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
+
+            String etag = PdfCache.key("order", order.getId(), order.getCreatedAt());
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+
+            byte[] pdfBytes = pdfCache.getOrRender(etag,
+                () -> pdfService.generateOrderPdf(order, orderService.getOrderLines(id)));
+            inventoryMetrics.exported("order", "pdf");
+
+            String filename = "order-" + id + "-" +
+                             LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".pdf";
+
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
+                    .body(pdfBytes);
+
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating PDF: " + e.getMessage());
+        }
+    }
+
+    private void addFormAttributes(Model model) {
+        List<Product> products = productService.getInStockProducts();
+
+        // Handle null products
+        if (products == null) {
+            products = Collections.emptyList();
+        }
+
+        // Add statistics for the sidebar
+        long totalProducts = productService.getTotalProductsCount();
+        long inStockProducts = productService.getInStockProductsCount();
+        long lowStockProducts = productService.getLowStockProductsCount();
+        long outOfStockProducts = productService.getOutOfStockProductsCount();
+        BigDecimal totalInventoryValue = productService.getTotalInventoryValue();
+
+        model.addAttribute("products", products);
+        model.addAttribute("locations", stockLedger.getLocations());
+        model.addAttribute("maxLines", OrderService.MAX_LINES);
+
+        // Sidebar statistics
+        model.addAttribute("totalProducts", totalProducts);
+        model.addAttribute("inStockProducts", inStockProducts);
+        model.addAttribute("lowStockProducts", lowStockProducts);
+        model.addAttribute("outOfStockProducts", outOfStockProducts);
+        model.addAttribute("totalInventoryValue", totalInventoryValue != null ? totalInventoryValue : BigDecimal.ZERO);
+    }
+}
@@ -1,21 +1,35 @@
 package com.inventory.inventory_system.controller;
 
+import com.inventory.inventory_system.dto.Money;
+import com.inventory.inventory_system.dto.ProductListItem;
+import com.inventory.inventory_system.dto.ProductStockSummary;
 import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.service.InventoryMetrics;
+import com.inventory.inventory_system.service.PdfCache;
 import com.inventory.inventory_system.service.PdfService;
 import com.inventory.inventory_system.service.ProductService;
+import com.inventory.inventory_system.service.ReorderSuggestionService;
+import com.inventory.inventory_system.service.StockMovementService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import javax.servlet.http.HttpServletResponse;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,31 +37,52 @@ import java.util.stream.Collectors;
 @RequestMapping("/products")
 public class ProductController {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductController.class);
+
     @Autowired
     private ProductService productService;
 
     @Autowired
     private PdfService pdfService;
 
+    @Autowired
+    private PdfCache pdfCache;
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+    
+    @Autowired
+    private ReorderSuggestionService reorderSuggestionService;
+
+    // Rows fetched and flushed to the PDF per round trip
+    private static final int PDF_BATCH_SIZE = 500;
+
+    // Most urgent reorder suggestions shown on the reports page
+    private static final int REPORT_SUGGESTION_LIMIT = 50;
+
     // MAIN PRODUCTS LIST PAGE
     @GetMapping
+    @Transactional(readOnly = true)
     public String listProducts(Model model,
             @RequestParam(value = "search", required = false) String search,
             @RequestParam(value = "category", required = false) String category) {
 
         try {
-            List<Product> products;
+            List<ProductListItem> products;
             String searchTerm = (search != null) ? search.trim() : "";
             String selectedCategory = (category != null) ? category.trim() : "";
 
             if (!searchTerm.isEmpty()) {
-                products = productService.searchProducts(searchTerm);
+                products = productService.searchProductListItems(searchTerm);
                 model.addAttribute("searchTerm", searchTerm);
             } else if (!selectedCategory.isEmpty()) {
-                products = productService.getProductsByCategory(selectedCategory);
+                products = productService.getProductListItemsByCategory(selectedCategory);
                 model.addAttribute("selectedCategory", selectedCategory);
             } else {
-                products = productService.getAllProducts();
+                products = productService.getProductListItems();
             }
 
             // Handle null products
@@ -75,7 +110,7 @@ public class ProductController {
 
             return "products/list";
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("❌ Error loading products", e);
             // Provide safe fallback values
             model.addAttribute("products", Collections.emptyList());
             model.addAttribute("totalProducts", 0);
@@ -91,6 +126,7 @@ public class ProductController {
     }
 
     @GetMapping("/new")
+    @Transactional(readOnly = true)
     public String showAddForm(Model model) {
         try {
             Product product = new Product();
@@ -129,6 +165,7 @@ public class ProductController {
     }
 
     @GetMapping("/edit/{id}")
+    @Transactional(readOnly = true)
     public String showEditForm(@PathVariable Long id, Model model) {
         try {
             Product product = productService.getProductById(id)
@@ -158,6 +195,7 @@ public class ProductController {
     }
 
     @GetMapping("/low-stock")
+    @Transactional(readOnly = true)
     public String showLowStock(Model model) {
         try {
             List<Product> lowStockProducts = productService.getLowStockProducts();
@@ -183,7 +221,7 @@ public class ProductController {
             model.addAttribute("title", "Low Stock Alert");
             return "products/low-stock";
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("❌ Error loading low stock products", e);
             model.addAttribute("products", Collections.emptyList());
             model.addAttribute("error", "Error loading low stock products: " + e.getMessage());
             return "products/low-stock";
@@ -191,6 +229,7 @@ public class ProductController {
     }
 
     @GetMapping("/out-of-stock")
+    @Transactional(readOnly = true)
     public String showOutOfStock(Model model) {
         try {
             List<Product> outOfStockProducts = productService.getOutOfStockProducts();
@@ -216,7 +255,7 @@ public class ProductController {
             model.addAttribute("title", "Out of Stock");
             return "products/out-of-stock";
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("❌ Error loading out of stock products", e);
             model.addAttribute("products", Collections.emptyList());
             model.addAttribute("error", "Error loading out of stock products: " + e.getMessage());
             return "products/out-of-stock";
@@ -224,6 +263,7 @@ public class ProductController {
     }
 
     @GetMapping("/view/{id}")
+    @Transactional(readOnly = true)
     public String viewProduct(@PathVariable Long id, Model model) {
         try {
             Product product = productService.getProductById(id)
@@ -237,6 +277,7 @@ public class ProductController {
             BigDecimal totalInventoryValue = productService.getTotalInventoryValue();
 
             model.addAttribute("product", product);
+            model.addAttribute("movements", stockMovementService.getRecentMovements(id));
             model.addAttribute("totalProducts", totalProducts);
             model.addAttribute("inStockProducts", inStockProducts);
             model.addAttribute("lowStockProducts", lowStockProducts);
@@ -253,13 +294,20 @@ public class ProductController {
     }
 
     // PDF Generation Endpoints
+    // Product documents are cached per updatedAt, an unchanged product is served from cache or as 304
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<byte[]> generateProductPdf(@PathVariable Long id) {
+    public ResponseEntity<byte[]> generateProductPdf(@PathVariable Long id, WebRequest request) {
         try {
             Product product = productService.getProductById(id)
                     .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
             
-            byte[] pdfBytes = pdfService.generateProductPdf(product);
+            String etag = PdfCache.key("product", product.getId(), product.getUpdatedAt());
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            
+            byte[] pdfBytes = pdfCache.getOrRender(etag, () -> pdfService.generateProductPdf(product));
+            inventoryMetrics.exported("product", "pdf");
             
             String filename = "product-" + product.getSku() + "-" + 
                              LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".pdf";
@@ -267,6 +315,8 @@ public class ProductController {
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                     .contentType(MediaType.APPLICATION_PDF)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
                     .body(pdfBytes);
                     
         } catch (Exception e) {
@@ -275,22 +325,35 @@ public class ProductController {
     }
 
     @GetMapping("/pdf/all")
-    public ResponseEntity<byte[]> generateAllProductsPdf() {
+    public void generateAllProductsPdf(HttpServletResponse response) {
+        PdfService.ProductListWriter writer = null;
         try {
-            List<Product> products = productService.getAllProducts();
-            
-            byte[] pdfBytes = pdfService.generateProductListPdf(products);
+            // Summary comes from one aggregate query, rows are streamed in batches
+            ProductStockSummary summary = productService.getStockSummary();
             
             String filename = "all-products-" + 
                              LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".pdf";
             
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(pdfBytes);
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            
+            writer = pdfService.openProductListPdf(response.getOutputStream(), summary);
+            productService.forEachProductBatch(PDF_BATCH_SIZE, writer::addProducts);
+            writer.close();
+            inventoryMetrics.exported("products", "pdf");
                     
         } catch (Exception e) {
-            throw new RuntimeException("Error generating PDF: " + e.getMessage());
+            if (writer != null) {
+                writer.abort();
+            }
+            if (!response.isCommitted()) {
+                throw new RuntimeException("Error generating PDF: " + e.getMessage());
+            }
+            // Part of the PDF is already out, so no error page can replace it. Rethrown on a
+            // committed response, the container drops the connection without ending the
+            // chunked body, and the client sees a failed download rather than a short report
+            log.error("❌ Product list PDF failed part way, aborting the download: {}", e.getMessage());
+            throw new RuntimeException("Error generating PDF: " + e.getMessage(), e);
         }
     }
 
@@ -300,6 +363,7 @@ public class ProductController {
             List<Product> lowStockProducts = productService.getLowStockProducts();
             
             byte[] pdfBytes = pdfService.generateProductListPdf(lowStockProducts);
+            inventoryMetrics.exported("low-stock", "pdf");
             
             String filename = "low-stock-products-" + 
                              LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".pdf";
@@ -315,16 +379,17 @@ public class ProductController {
     }
 
     @GetMapping("/reports")
+    @Transactional(readOnly = true)
     public String showReports(Model model) {
         try {
-            System.out.println("📊 Loading reports page...");
+            log.debug("📊 Loading reports page...");
 
             // Get all products with error handling
             List<Product> products;
             try {
                 products = productService.getAllProducts();
             } catch (Exception e) {
-                System.err.println("⚠️ Could not load products for reports: " + e.getMessage());
+                log.warn("⚠️ Could not load products for reports: {}", e.getMessage());
                 products = Collections.emptyList();
             }
 
@@ -339,32 +404,31 @@ public class ProductController {
                     .filter(p -> p != null && p.getQuantity() != null && p.getQuantity() > 0)
                     .count();
             long lowStockCount = products.stream()
-                    .filter(p -> p != null && p.getQuantity() != null && p.getQuantity() > 0 && p.getQuantity() <= 5)
+                    .filter(p -> p != null && p.isLowStock())
                     .count();
             long outOfStockCount = products.stream()
                     .filter(p -> p != null && (p.getQuantity() == null || p.getQuantity() == 0))
                     .count();
 
-            // Calculate total inventory value with null safety
-            double totalInventoryValueDouble = products.stream()
-                    .filter(p -> p != null && p.getPrice() != null && p.getQuantity() != null)
-                    .mapToDouble(p -> p.getPrice().doubleValue() * p.getQuantity())
-                    .sum();
+            // Calculate total inventory value with null safety, exact in cents
+            Money.Total totalInventoryValue = new Money.Total();
+            for (Product p : products) {
+                if (p != null && p.getPrice() != null && p.getQuantity() != null) {
+                    totalInventoryValue.add(p.getPrice(), p.getQuantity());
+                }
+            }
 
             // Get Top Products by Inventory Value (sorted by price * quantity)
             List<Product> topProductsByValue = products.stream()
                     .filter(p -> p != null && p.getPrice() != null && p.getQuantity() != null)
-                    .sorted((p1, p2) -> {
-                        BigDecimal value1 = p1.getPrice().multiply(BigDecimal.valueOf(p1.getQuantity()));
-                        BigDecimal value2 = p2.getPrice().multiply(BigDecimal.valueOf(p2.getQuantity()));
-                        return value2.compareTo(value1); // Descending order
-                    })
+                    .sorted(Comparator.comparingLong((Product p) -> Money.toCents(p.getPrice()) * p.getQuantity())
+                            .reversed()) // Descending order
                     .limit(10) // Top 10 products
                     .collect(Collectors.toList());
 
-            // Get Low Stock Products (quantity <= 5 and > 0)
+            // Get Low Stock Products (at or below their reorder level, not out)
             List<Product> lowStockProductsList = products.stream()
-                    .filter(p -> p != null && p.getQuantity() != null && p.getQuantity() > 0 && p.getQuantity() <= 5)
+                    .filter(p -> p != null && p.isLowStock())
                     .sorted((p1, p2) -> p1.getQuantity().compareTo(p2.getQuantity())) // Sort by quantity ascending
                     .collect(Collectors.toList());
 
@@ -373,27 +437,29 @@ public class ProductController {
             model.addAttribute("inStockCount", inStockCount);
             model.addAttribute("lowStockCount", lowStockCount);
             model.addAttribute("outOfStockCount", outOfStockCount);
-            model.addAttribute("totalInventoryValueDouble", totalInventoryValueDouble);
+            model.addAttribute("totalInventoryValueDouble", totalInventoryValue.doubleValue());
             model.addAttribute("topProductsByValue", topProductsByValue);
             model.addAttribute("lowStockProductsList", lowStockProductsList);
+            // Precomputed by the forecast batch, only read here
+            model.addAttribute("reorderSuggestions",
+                    reorderSuggestionService.getSuggestionsBySupplier(REPORT_SUGGESTION_LIMIT));
 
             // Sidebar statistics
             model.addAttribute("totalProducts", totalProductsCount);
             model.addAttribute("inStockProducts", inStockCount);
             model.addAttribute("lowStockProducts", lowStockCount);
             model.addAttribute("outOfStockProducts", outOfStockCount);
-            model.addAttribute("totalInventoryValue", BigDecimal.valueOf(totalInventoryValueDouble));
+            model.addAttribute("totalInventoryValue", totalInventoryValue.toBigDecimal());
 
             model.addAttribute("title", "Reports & Analytics");
 
-            System.out.println("✅ Reports data loaded successfully");
-            System.out.println("📈 Top Products: " + topProductsByValue.size());
-            System.out.println("⚠️ Low Stock Items: " + lowStockProductsList.size());
+            log.debug("✅ Reports data loaded: {} top products, {} low stock items",
+                    topProductsByValue.size(), lowStockProductsList.size());
 
             return "products/reports";
 
         } catch (Exception e) {
-            System.err.println("❌ Error in reports: " + e.getMessage());
+            log.error("❌ Error in reports", e);
 
             // Provide safe fallback values
             model.addAttribute("totalProductsReport", 0);
@@ -403,6 +469,7 @@ public class ProductController {
             model.addAttribute("totalInventoryValueDouble", 0.0);
             model.addAttribute("topProductsByValue", Collections.emptyList());
             model.addAttribute("lowStockProductsList", Collections.emptyList());
+            model.addAttribute("reorderSuggestions", Collections.emptyMap());
 
             model.addAttribute("error", "Reports are temporarily unavailable. Please try again later.");
             model.addAttribute("title", "Reports & Analytics");
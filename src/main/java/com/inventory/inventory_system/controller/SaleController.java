@@ -1,28 +1,50 @@
 package com.inventory.inventory_system.controller;
 
+import com.inventory.inventory_system.dto.Money;
+import com.inventory.inventory_system.dto.SaleListItem;
 import com.inventory.inventory_system.entity.Product;
 import com.inventory.inventory_system.entity.Sale;
+import com.inventory.inventory_system.journal.SaleJournal;
+import com.inventory.inventory_system.service.IdempotencyKeys;
+import com.inventory.inventory_system.service.InventoryMetrics;
+import com.inventory.inventory_system.service.PdfCache;
 import com.inventory.inventory_system.service.PdfService;
 import com.inventory.inventory_system.service.ProductService;
+import com.inventory.inventory_system.service.ReceiptArchiveService;
 import com.inventory.inventory_system.service.SaleService;
+import com.inventory.inventory_system.service.StockLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 @RequestMapping("/sales")
 public class SaleController {
+
+    private static final Logger log = LoggerFactory.getLogger(SaleController.class);
     
     @Autowired
     private SaleService saleService;
@@ -33,6 +55,25 @@ public class SaleController {
     @Autowired
     private PdfService pdfService;
 
+    @Autowired
+    private PdfCache pdfCache;
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
+    @Autowired
+    private ReceiptArchiveService receiptArchiveService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private IdempotencyKeys idempotencyKeys;
+    
+    // Only present with inventory.journal.enabled=true
+    @Autowired(required = false)
+    private SaleJournal saleJournal;
+
     // Add this to your existing SaleController class
     @PostMapping("/create-sample")
     @ResponseBody
@@ -46,12 +87,13 @@ public class SaleController {
     }
     
     @GetMapping
+    @Transactional(readOnly = true)
     public String listSales(Model model,
                           @RequestParam(value = "search", required = false) String search,
                           @RequestParam(value = "startDate", required = false) String startDate,
                           @RequestParam(value = "endDate", required = false) String endDate) {
         try {
-            List<Sale> sales = saleService.getAllSales();
+            List<SaleListItem> sales = saleService.getSaleListItems();
             
             // Handle null sales list
             if (sales == null) {
@@ -65,16 +107,19 @@ public class SaleController {
             BigDecimal averageSale = BigDecimal.ZERO;
             
             if (!sales.isEmpty()) {
-                totalRevenue = sales.stream()
-                    .filter(sale -> sale != null && sale.getTotalAmount() != null)
-                    .map(Sale::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+                Money.Total revenue = new Money.Total();
+                for (SaleListItem sale : sales) {
+                    if (sale != null) {
+                        revenue.add(sale.getTotalAmount());
+                    }
+                }
+                totalRevenue = revenue.toBigDecimal();
                 
                 totalSalesCount = sales.size();
                 
                 totalItemsSold = sales.stream()
                     .filter(sale -> sale != null && sale.getQuantity() != null)
-                    .mapToLong(Sale::getQuantity)
+                    .mapToLong(SaleListItem::getQuantity)
                     .sum();
                 
                 averageSale = totalSalesCount > 0 ? 
@@ -110,7 +155,7 @@ public class SaleController {
             
             return "sales/list";
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("❌ Error loading sales", e);
             // Provide safe fallback values
             model.addAttribute("sales", Collections.emptyList());
             model.addAttribute("totalRevenue", BigDecimal.ZERO);
@@ -123,6 +168,7 @@ public class SaleController {
     }
     
     @GetMapping("/new")
+    @Transactional(readOnly = true)
     public String showSaleForm(Model model) {
         try {
             List<Product> products = productService.getInStockProducts();
@@ -141,6 +187,9 @@ public class SaleController {
 
             model.addAttribute("sale", new Sale());
             model.addAttribute("products", products);
+            model.addAttribute("locations", stockLedger.getLocations());
+            // Sent back with the form, so a resubmitted form is recognised as the same sale
+            model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
             
             // Sidebar statistics
             model.addAttribute("totalProducts", totalProducts);
@@ -152,7 +201,7 @@ public class SaleController {
             model.addAttribute("title", "New Sale");
             return "sales/form";
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("❌ Error loading sale form", e);
             model.addAttribute("error", "Error loading sale form: " + e.getMessage());
             model.addAttribute("products", Collections.emptyList());
             return "sales/form";
@@ -162,61 +211,18 @@ public class SaleController {
     @PostMapping
     public String saveSale(@ModelAttribute Sale sale, 
                           @RequestParam Long productId,
+                          @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyHeader,
+                          @RequestParam(value = "idempotencyKey", required = false) String idempotencyField,
                           Model model) {
+        String idempotencyKey = null;
         try {
-            if (productId == null) {
-                throw new RuntimeException("Product ID is required");
-            }
-            
-            Optional<Product> product = productService.getProductById(productId);
-            if (product.isPresent()) {
-                Product productEntity = product.get();
-                
-                // Validate stock
-                if (productEntity.getQuantity() == null || productEntity.getQuantity() < sale.getQuantity()) {
-                    throw new RuntimeException("Insufficient stock for product: " + productEntity.getName() + 
-                                             ". Available: " + productEntity.getQuantity());
-                }
-                
-                // Set product information in the sale
-                sale.setProductId(productId);
-                sale.setProductName(productEntity.getName());
-                sale.setProductSku(productEntity.getSku());
-                sale.setProductCategory(productEntity.getCategory());
-                
-                // Set unit price from product if not provided
-                if (sale.getUnitPrice() == null) {
-                    sale.setUnitPrice(productEntity.getPrice());
-                }
-                
-                // Validate unit price
-                if (sale.getUnitPrice() == null) {
-                    throw new RuntimeException("Unit price is required");
-                }
-                
-                // Validate quantity
-                if (sale.getQuantity() == null || sale.getQuantity() <= 0) {
-                    throw new RuntimeException("Quantity must be greater than 0");
-                }
-                
-                // Calculate total amount
-                sale.setTotalAmount(sale.getUnitPrice().multiply(BigDecimal.valueOf(sale.getQuantity())));
-                
-                // Set timestamps
-                if (sale.getSaleDate() == null) {
-                    sale.setSaleDate(LocalDateTime.now());
-                }
-                if (sale.getCreatedAt() == null) {
-                    sale.setCreatedAt(LocalDateTime.now());
-                }
-                
-                saleService.saveSale(sale);
-                return "redirect:/sales?success=Sale+recorded+successfully";
-            } else {
-                throw new RuntimeException("Product not found with ID: " + productId);
-            }
+            idempotencyKey = IdempotencyKeys.normalize(idempotencyHeader != null ? idempotencyHeader : idempotencyField);
+            String key = idempotencyKey;
+            // A retried submission gets the original sale back instead of selling again
+            idempotencyKeys.execute(key, () -> recordSale(sale, productId, key));
+            return "redirect:/sales?success=Sale+recorded+successfully";
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("⚠️ Could not record sale: {}", e.getMessage());
             model.addAttribute("error", e.getMessage());
             List<Product> products = productService.getInStockProducts();
             
@@ -233,6 +239,9 @@ public class SaleController {
             BigDecimal totalInventoryValue = productService.getTotalInventoryValue();
 
             model.addAttribute("products", products);
+            model.addAttribute("locations", stockLedger.getLocations());
+            // Nothing was recorded, so correcting the form and sending it again keeps the same key
+            model.addAttribute("idempotencyKey", idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString());
             
             // Sidebar statistics
             model.addAttribute("totalProducts", totalProducts);
@@ -245,27 +254,93 @@ public class SaleController {
         }
     }
     
+    // Validates and records the sale, returning its id (null while it is only in the journal)
+    private Long recordSale(Sale sale, Long productId, String idempotencyKey) {
+        if (productId == null) {
+            throw new RuntimeException("Product ID is required");
+        }
+        
+        Optional<Product> product = productService.getProductById(productId);
+        if (product.isPresent()) {
+            Product productEntity = product.get();
+            
+            // Validate stock
+            if (productEntity.getQuantity() == null || productEntity.getQuantity() < sale.getQuantity()) {
+                throw new RuntimeException("Insufficient stock for product: " + productEntity.getName() + 
+                                         ". Available: " + productEntity.getQuantity());
+            }
+            
+            // Set product information in the sale
+            sale.setProductId(productId);
+            sale.setProductName(productEntity.getName());
+            sale.setProductSku(productEntity.getSku());
+            sale.setProductCategory(productEntity.getCategory());
+            
+            // Set unit price from product if not provided
+            if (sale.getUnitPrice() == null) {
+                sale.setUnitPrice(productEntity.getPrice());
+            }
+            
+            // Validate unit price
+            if (sale.getUnitPrice() == null) {
+                throw new RuntimeException("Unit price is required");
+            }
+            // Whole cents, like the stored column; a third decimal would otherwise fail the sale
+            sale.setUnitPrice(Money.round(sale.getUnitPrice()));
+            
+            // Validate quantity
+            if (sale.getQuantity() == null || sale.getQuantity() <= 0) {
+                throw new RuntimeException("Quantity must be greater than 0");
+            }
+            
+            // Calculate total amount
+            sale.setTotalAmount(sale.getUnitPrice().multiply(BigDecimal.valueOf(sale.getQuantity())));
+            
+            // Set timestamps
+            if (sale.getSaleDate() == null) {
+                sale.setSaleDate(LocalDateTime.now());
+            }
+            if (sale.getCreatedAt() == null) {
+                sale.setCreatedAt(LocalDateTime.now());
+            }
+            
+            // In journal mode the sale is on disk now and reaches the database shortly after
+            if (saleJournal != null) {
+                saleJournal.record(sale, idempotencyKey);
+                return null;
+            }
+            return saleService.saveSale(sale, idempotencyKey).getId();
+        } else {
+            throw new RuntimeException("Product not found with ID: " + productId);
+        }
+    }
+    
     @GetMapping("/delete/{id}")
     public String deleteSale(@PathVariable Long id) {
         try {
             saleService.deleteSale(id);
             return "redirect:/sales?success=Sale+deleted+successfully";
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("⚠️ Could not delete sale {}: {}", id, e.getMessage());
             return "redirect:/sales?error=" + e.getMessage();
         }
     }
 
     // PDF Generation Endpoint for Sales
+    // Receipts never change once committed, so the rendered document is cached and served with an ETag
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<byte[]> generateSalePdf(@PathVariable Long id) {
+    public ResponseEntity<byte[]> generateSalePdf(@PathVariable Long id, WebRequest request) {
         try {
-            Sale sale = saleService.getAllSales().stream()
-                    .filter(s -> s.getId().equals(id))
-                    .findFirst()
+            Sale sale = saleService.getSaleById(id)
                     .orElseThrow(() -> new RuntimeException("Sale not found with id: " + id));
             
-            byte[] pdfBytes = pdfService.generateSalesPdf(sale);
+            String etag = PdfCache.key("sale", sale.getId(), sale.getCreatedAt());
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            
+            byte[] pdfBytes = pdfCache.getOrRender(etag, () -> pdfService.generateSalesPdf(sale));
+            inventoryMetrics.exported("sale", "pdf");
             
             String filename = "sale-" + id + "-" + 
                              LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".pdf";
@@ -273,10 +348,43 @@ public class SaleController {
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                     .contentType(MediaType.APPLICATION_PDF)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
                     .body(pdfBytes);
                     
         } catch (Exception e) {
             throw new RuntimeException("Error generating PDF: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Bulk receipts for accounting: every receipt in the date range, streamed as one ZIP
+    @GetMapping("/receipts/zip")
+    public void downloadReceiptsZip(@RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                    @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                                    HttpServletResponse response) throws IOException {
+        try {
+            if (endDate.isBefore(startDate)) {
+                throw new RuntimeException("End date must not be before start date");
+            }
+            
+            String filename = "receipts-" + startDate + "-to-" + endDate + ".zip";
+            response.setContentType("application/zip");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            
+            receiptArchiveService.writeReceiptsZip(startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX),
+                    response.getOutputStream());
+            inventoryMetrics.exported("receipts", "zip");
+        } catch (RejectedExecutionException e) {
+            if (response.isCommitted()) {
+                throw new RuntimeException("Error generating receipts: " + e.getMessage());
+            }
+            // Turned away before the first byte, the response can still become an error
+            log.warn("⚠️ Receipt export rejected: {}", e.getMessage());
+            response.reset();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "30");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating receipts: " + e.getMessage());
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.inventory.inventory_system.controller;
 
-import com.inventory.inventory_system.dto.SupplierDTO;
+import com.inventory.inventory_system.dto.SupplierListItem;
 import com.inventory.inventory_system.entity.Supplier;
 import com.inventory.inventory_system.service.ProductService;
 import com.inventory.inventory_system.service.SupplierService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +20,8 @@ import java.util.stream.Collectors;
 @Controller
 @RequestMapping("/suppliers")
 public class SupplierController {
+
+    private static final Logger log = LoggerFactory.getLogger(SupplierController.class);
     
     @Autowired
     private SupplierService supplierService;
@@ -25,39 +30,40 @@ public class SupplierController {
     private ProductService productService;
     
     @GetMapping
+    @Transactional(readOnly = true)
     public String listSuppliers(Model model,
                                @RequestParam(value = "search", required = false) String search,
                                @RequestParam(value = "status", required = false) String status,
                                @RequestParam(value = "country", required = false) String country) {
         try {
-            List<SupplierDTO> supplierDTOs;
+            List<SupplierListItem> suppliers;
             String searchTerm = (search != null) ? search.trim() : "";
             String selectedStatus = (status != null) ? status.trim() : "";
             String selectedCountry = (country != null) ? country.trim() : "";
             
-            // Get all suppliers as DTOs first
+            // Get the supplier rows first
             if (!searchTerm.isEmpty()) {
-                supplierDTOs = supplierService.searchSupplierDTOs(searchTerm);
+                suppliers = supplierService.searchSupplierListItems(searchTerm);
                 model.addAttribute("searchTerm", searchTerm);
             } else {
-                supplierDTOs = supplierService.getAllSupplierDTOs();
+                suppliers = supplierService.getSupplierListItems();
             }
             
             // Apply filters
             if (!selectedStatus.isEmpty()) {
                 if ("active".equals(selectedStatus)) {
-                    supplierDTOs = supplierDTOs.stream()
+                    suppliers = suppliers.stream()
                         .filter(s -> s.getIsActive() != null && s.getIsActive())
                         .collect(Collectors.toList());
                 } else if ("inactive".equals(selectedStatus)) {
-                    supplierDTOs = supplierDTOs.stream()
+                    suppliers = suppliers.stream()
                         .filter(s -> s.getIsActive() != null && !s.getIsActive())
                         .collect(Collectors.toList());
                 }
             }
             
             if (!selectedCountry.isEmpty()) {
-                supplierDTOs = supplierDTOs.stream()
+                suppliers = suppliers.stream()
                     .filter(s -> s.getCountry() != null && s.getCountry().equalsIgnoreCase(selectedCountry))
                     .collect(Collectors.toList());
             }
@@ -66,11 +72,8 @@ public class SupplierController {
             long totalSuppliers = supplierService.getTotalSuppliersCount();
             long activeSuppliers = supplierService.getActiveSuppliersCount();
             
-            // Get unique countries for filter dropdown from original entities
-            List<String> countries = supplierService.getAllSuppliers().stream()
-                .filter(s -> s.getCountry() != null && !s.getCountry().trim().isEmpty())
-                .map(Supplier::getCountry)
-                .distinct()
+            // Unique countries for the filter dropdown
+            List<String> countries = supplierService.getCountries().stream()
                 .limit(20)
                 .collect(Collectors.toList());
 
@@ -82,7 +85,7 @@ public class SupplierController {
             BigDecimal totalInventoryValue = productService.getTotalInventoryValue();
             
             // Add all required attributes to model
-            model.addAttribute("suppliers", supplierDTOs);
+            model.addAttribute("suppliers", suppliers);
             model.addAttribute("totalSuppliers", totalSuppliers);
             model.addAttribute("activeSuppliers", activeSuppliers);
             model.addAttribute("pendingOrders", 0);
@@ -103,13 +106,14 @@ public class SupplierController {
             
             return "suppliers/list";
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("❌ Error loading suppliers", e);
             model.addAttribute("error", "Error loading suppliers: " + e.getMessage());
             return "error";
         }
     }
     
     @GetMapping("/new")
+    @Transactional(readOnly = true)
     public String showSupplierForm(Model model) {
         try {
             // Add statistics for the sidebar
@@ -165,6 +169,7 @@ public class SupplierController {
     }
     
     @GetMapping("/edit/{id}")
+    @Transactional(readOnly = true)
     public String showEditForm(@PathVariable Long id, Model model) {
         try {
             Supplier supplier = supplierService.getSupplierById(id)
@@ -206,6 +211,7 @@ public class SupplierController {
     }
 
     @GetMapping("/view/{id}")
+    @Transactional(readOnly = true)
     public String viewSupplier(@PathVariable Long id, Model model) {
         try {
             Supplier supplier = supplierService.getSupplierById(id)
@@ -0,0 +1,22 @@
+package com.inventory.inventory_system.dto;
+
+import java.time.LocalDate;
+
+public class DailySales {
+    private final long productId;
+    private final LocalDate day;
+    private final int quantity;
+
+    // Used by the JPQL constructor expression in SaleRepository, SUM() of an int column is a Long
+    public DailySales(Long productId, Integer year, Integer month, Integer day, Long quantity) {
+        this.productId = productId;
+        this.day = LocalDate.of(year, month, day);
+        this.quantity = quantity != null ? Math.toIntExact(quantity) : 0;
+    }
+
+    public long getProductId() { return productId; }
+
+    public LocalDate getDay() { return day; }
+
+    public int getQuantity() { return quantity; }
+}
@@ -0,0 +1,138 @@
+package com.inventory.inventory_system.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount held as a long count of cents, for totals and charts.
+ * Prices and sale amounts are stored as DECIMAL(10,2), so converting them to
+ * cents is exact; anything with a third decimal place is refused rather than
+ * rounded. Aggregation loops add into a {@link Total} and only turn the result
+ * back into a BigDecimal (or a double for the charts) once at the end.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final double EXACT_DOUBLE_LIMIT = (1L << 50) / 100.0;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    public static Money of(BigDecimal amount) {
+        return ofCents(toCents(amount));
+    }
+
+    /**
+     * Exact cents of a stored amount, 0 for null. Throws ArithmeticException
+     * if the amount has more than two decimals or doesn't fit in a long.
+     */
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        // Fast path without allocating: doubleValue() is correctly rounded, and below
+        // 2^50 cents the error of value * 100 is far under half a cent, so rounding
+        // gives back the exact count. DECIMAL(10,2) tops out around 2^33 cents
+        if (amount.scale() >= 0 && amount.scale() <= SCALE) {
+            double value = amount.doubleValue();
+            if (Math.abs(value) < EXACT_DOUBLE_LIMIT) {
+                return Math.round(value * 100);
+            }
+        }
+        return amount.setScale(SCALE).unscaledValue().longValueExact();
+    }
+
+    /**
+     * A price as entered, brought to two decimals (half up) so it can be stored
+     * and turned into cents. Null stays null.
+     */
+    public static BigDecimal round(BigDecimal amount) {
+        return amount != null && amount.scale() != SCALE ? amount.setScale(SCALE, RoundingMode.HALF_UP) : amount;
+    }
+
+    public long getCents() { return cents; }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money times(long quantity) {
+        return ofCents(Math.multiplyExact(cents, quantity));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    // Nearest double, same as toBigDecimal().doubleValue()
+    public double doubleValue() {
+        return cents / 100.0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && ((Money) o).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    /**
+     * Mutable running total for aggregation loops: one per group, each row
+     * only adds to a primitive long.
+     */
+    public static final class Total {
+
+        private long cents;
+
+        public Total add(BigDecimal amount) {
+            cents = Math.addExact(cents, toCents(amount));
+            return this;
+        }
+
+        public Total addCents(long amount) {
+            cents = Math.addExact(cents, amount);
+            return this;
+        }
+
+        // unitPrice x quantity without building the product as a BigDecimal
+        public Total add(BigDecimal unitPrice, long quantity) {
+            cents = Math.addExact(cents, Math.multiplyExact(toCents(unitPrice), quantity));
+            return this;
+        }
+
+        public long getCents() { return cents; }
+
+        public Money toMoney() { return ofCents(cents); }
+
+        public BigDecimal toBigDecimal() { return BigDecimal.valueOf(cents, SCALE); }
+
+        public double doubleValue() { return cents / 100.0; }
+
+        @Override
+        public String toString() {
+            return toBigDecimal().toPlainString();
+        }
+    }
+}
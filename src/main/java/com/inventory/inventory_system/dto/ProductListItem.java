@@ -0,0 +1,59 @@
+package com.inventory.inventory_system.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Row of the product list page: only the columns the template shows, with the
+ * description cut to a short preview. See ProductRepository.LIST_ITEM.
+ */
+public class ProductListItem {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final String sku;
+    private final String category;
+    private final BigDecimal price;
+    private final Integer quantity;
+    private final Integer reorderLevel;
+
+    // Used by the JPQL constructor expression in ProductRepository
+    public ProductListItem(Long id, String name, String description, String sku, String category,
+                           BigDecimal price, Integer quantity, Integer reorderLevel) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.sku = sku;
+        this.category = category;
+        this.price = price;
+        this.quantity = quantity;
+        this.reorderLevel = reorderLevel;
+    }
+
+    public Long getId() { return id; }
+
+    public String getName() { return name; }
+
+    public String getDescription() { return description; }
+
+    public String getSku() { return sku; }
+
+    public String getCategory() { return category; }
+
+    public BigDecimal getPrice() { return price; }
+
+    public Integer getQuantity() { return quantity; }
+
+    public Integer getReorderLevel() { return reorderLevel; }
+
+    // Same rules as Product.getStockStatus()
+    public String getStockStatus() {
+        int threshold = reorderLevel != null ? reorderLevel : 10;
+        if (quantity == null || quantity == 0) {
+            return "OUT_OF_STOCK";
+        } else if (quantity > 0 && quantity <= threshold) {
+            return "LOW_STOCK";
+        } else {
+            return "IN_STOCK";
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.inventory.inventory_system.dto;
+
+public class ProductStockSummary {
+    private final long totalProducts;
+    private final long inStockCount;
+    private final long lowStockCount;
+    private final long outOfStockCount;
+
+    // Used by the JPQL constructor expression in ProductRepository, SUM() is null on an empty table
+    public ProductStockSummary(Long totalProducts, Long inStockCount, Long lowStockCount, Long outOfStockCount) {
+        this.totalProducts = totalProducts != null ? totalProducts : 0;
+        this.inStockCount = inStockCount != null ? inStockCount : 0;
+        this.lowStockCount = lowStockCount != null ? lowStockCount : 0;
+        this.outOfStockCount = outOfStockCount != null ? outOfStockCount : 0;
+    }
+
+    public long getTotalProducts() { return totalProducts; }
+
+    public long getInStockCount() { return inStockCount; }
+
+    public long getLowStockCount() { return lowStockCount; }
+
+    public long getOutOfStockCount() { return outOfStockCount; }
+}
@@ -0,0 +1,34 @@
+package com.inventory.inventory_system.dto;
+
+public class ReorderCandidate {
+    private final long productId;
+    private final String name;
+    private final String sku;
+    private final String supplierId;
+    private final int quantity;
+    private final Integer reorderLevel;
+
+    // Used by the JPQL constructor expression in ProductRepository
+    public ReorderCandidate(Long productId, String name, String sku, String supplierId, Integer quantity,
+                            Integer reorderLevel) {
+        this.productId = productId;
+        this.name = name;
+        this.sku = sku;
+        this.supplierId = supplierId;
+        this.quantity = quantity != null ? quantity : 0;
+        this.reorderLevel = reorderLevel;
+    }
+
+    public long getProductId() { return productId; }
+
+    public String getName() { return name; }
+
+    public String getSku() { return sku; }
+
+    public String getSupplierId() { return supplierId; }
+
+    public int getQuantity() { return quantity; }
+
+    // Null when the product has none, Product.DEFAULT_REORDER_LEVEL applies then
+    public Integer getReorderLevel() { return reorderLevel; }
+}
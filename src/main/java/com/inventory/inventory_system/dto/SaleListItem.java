@@ -0,0 +1,60 @@
+package com.inventory.inventory_system.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Row of the sales history page, see SaleRepository.findListItems().
+ */
+public class SaleListItem {
+    private final Long id;
+    private final String productName;
+    private final String productSku;
+    private final Integer quantity;
+    private final BigDecimal unitPrice;
+    private final BigDecimal totalAmount;
+    private final LocalDateTime saleDate;
+    private final String customerName;
+    private final String customerEmail;
+    private final String paymentMethod;
+    private final Long orderId;
+
+    // Used by the JPQL constructor expression in SaleRepository
+    public SaleListItem(Long id, String productName, String productSku, Integer quantity, BigDecimal unitPrice,
+                        BigDecimal totalAmount, LocalDateTime saleDate, String customerName, String customerEmail,
+                        String paymentMethod, Long orderId) {
+        this.id = id;
+        this.productName = productName;
+        this.productSku = productSku;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.totalAmount = totalAmount;
+        this.saleDate = saleDate;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.paymentMethod = paymentMethod;
+        this.orderId = orderId;
+    }
+
+    public Long getId() { return id; }
+
+    public String getProductName() { return productName; }
+
+    public String getProductSku() { return productSku; }
+
+    public Integer getQuantity() { return quantity; }
+
+    public BigDecimal getUnitPrice() { return unitPrice; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+
+    public LocalDateTime getSaleDate() { return saleDate; }
+
+    public String getCustomerName() { return customerName; }
+
+    public String getCustomerEmail() { return customerEmail; }
+
+    public String getPaymentMethod() { return paymentMethod; }
+
+    public Long getOrderId() { return orderId; }
+}
@@ -0,0 +1,39 @@
+package com.inventory.inventory_system.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Sale count and amount for one category or one month, see SaleRepository.sumByCategory()
+ * and sumByMonth(). The amount is kept in cents and is null when every sale in the group
+ * has no amount.
+ */
+public class SalesTotal {
+    private final String category;
+    private final YearMonth month;
+    private final long count;
+    private final Long cents;
+
+    // Used by the JPQL constructor expressions in SaleRepository
+    public SalesTotal(String category, Long count, BigDecimal amount) {
+        this.category = category;
+        this.month = null;
+        this.count = count;
+        this.cents = amount != null ? Money.toCents(amount) : null;
+    }
+
+    public SalesTotal(Integer year, Integer month, Long count, BigDecimal amount) {
+        this.category = null;
+        this.month = YearMonth.of(year, month);
+        this.count = count;
+        this.cents = amount != null ? Money.toCents(amount) : null;
+    }
+
+    public String getCategory() { return category; }
+
+    public YearMonth getMonth() { return month; }
+
+    public long getCount() { return count; }
+
+    public Long getCents() { return cents; }
+}
@@ -0,0 +1,33 @@
+package com.inventory.inventory_system.dto;
+
+public class StockLevel {
+    private final long productId;
+    private final String location;
+    private final int quantity;
+
+    // Used by the JPQL constructor expressions in ProductRepository and StockSnapshotRepository
+    public StockLevel(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.location = null;
+        this.quantity = quantity != null ? quantity : 0;
+    }
+
+    // Sums of movement quantities in StockMovementRepository
+    public StockLevel(Long productId, Long quantity) {
+        this(productId, null, quantity);
+    }
+
+    // Used by the JPQL constructor expression in SaleRepository, SUM() of an int column is a Long
+    public StockLevel(Long productId, String location, Long quantity) {
+        this.productId = productId;
+        this.location = location;
+        this.quantity = quantity != null ? Math.toIntExact(quantity) : 0;
+    }
+
+    public long getProductId() { return productId; }
+
+    // Stock bin, null for product totals and for sales from before bins existed
+    public String getLocation() { return location; }
+
+    public int getQuantity() { return quantity; }
+}
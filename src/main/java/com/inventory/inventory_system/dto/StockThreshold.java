@@ -0,0 +1,21 @@
+package com.inventory.inventory_system.dto;
+
+public class StockThreshold {
+    private final long productId;
+    private final int quantity;
+    private final Integer reorderLevel;
+
+    // Used by the JPQL constructor expression in ProductRepository
+    public StockThreshold(Long productId, Integer quantity, Integer reorderLevel) {
+        this.productId = productId;
+        this.quantity = quantity != null ? quantity : 0;
+        this.reorderLevel = reorderLevel;
+    }
+
+    public long getProductId() { return productId; }
+
+    public int getQuantity() { return quantity; }
+
+    // Null when the product has none, Product.DEFAULT_REORDER_LEVEL applies then
+    public Integer getReorderLevel() { return reorderLevel; }
+}
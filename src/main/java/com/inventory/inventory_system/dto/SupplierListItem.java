@@ -0,0 +1,48 @@
+package com.inventory.inventory_system.dto;
+
+/**
+ * Row of the supplier list page, see SupplierRepository.LIST_ITEM.
+ */
+public class SupplierListItem {
+    private final Long id;
+    private final String name;
+    private final String contactPerson;
+    private final String email;
+    private final String phone;
+    private final String city;
+    private final String country;
+    private final String supplierCode;
+    private final Boolean isActive;
+
+    // Used by the JPQL constructor expression in SupplierRepository
+    public SupplierListItem(Long id, String name, String contactPerson, String email, String phone,
+                            String city, String country, String supplierCode, Boolean isActive) {
+        this.id = id;
+        this.name = name;
+        this.contactPerson = contactPerson;
+        this.email = email;
+        this.phone = phone;
+        this.city = city;
+        this.country = country;
+        this.supplierCode = supplierCode;
+        this.isActive = isActive;
+    }
+
+    public Long getId() { return id; }
+
+    public String getName() { return name; }
+
+    public String getContactPerson() { return contactPerson; }
+
+    public String getEmail() { return email; }
+
+    public String getPhone() { return phone; }
+
+    public String getCity() { return city; }
+
+    public String getCountry() { return country; }
+
+    public String getSupplierCode() { return supplierCode; }
+
+    public Boolean getIsActive() { return isActive; }
+}
@@ -0,0 +1,31 @@
+package com.inventory.inventory_system.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Idempotency key a client sent with a sale, inserted in the same transaction as the sale so a
+// retried submission finds the original instead of selling again
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created", columnList = "created_at"))
+public class IdempotencyKey {
+    
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+    
+    @Column(name = "sale_id", nullable = false, updatable = false)
+    private Long saleId;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Getters and Setters
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+    
+    public Long getSaleId() { return saleId; }
+    public void setSaleId(Long saleId) { this.saleId = saleId; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,40 @@
+package com.inventory.inventory_system.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// How far a relay has delivered the outbox: every event up to lastEventId has been handled
+@Entity
+@Table(name = "outbox_cursors")
+public class OutboxCursor {
+    
+    @Id
+    private String name;
+    
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId = 0L;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public OutboxCursor() {}
+    
+    public OutboxCursor(String name) {
+        this.name = name;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public Long getLastEventId() { return lastEventId; }
+    public void setLastEventId(Long lastEventId) { 
+        this.lastEventId = lastEventId; 
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
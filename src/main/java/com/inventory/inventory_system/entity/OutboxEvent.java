@@ -0,0 +1,80 @@
+package com.inventory.inventory_system.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// A change to a sale, product or stock level, inserted in the same transaction as the change itself and
+// delivered to in-process subscribers by the OutboxRelay in id order
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    
+    public static final String SALE_CREATED = "SALE_CREATED";
+    public static final String SALE_DELETED = "SALE_DELETED";
+    public static final String PRODUCT_SAVED = "PRODUCT_SAVED";
+    public static final String PRODUCT_DELETED = "PRODUCT_DELETED";
+    // A product went in or out of low stock / out of stock, see LowStockMonitor
+    public static final String STOCK_LEVEL_CHANGED = "STOCK_LEVEL_CHANGED";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "event_type", nullable = false, updatable = false)
+    private String eventType;
+    
+    // The sale or product id
+    @Column(name = "aggregate_id", nullable = false, updatable = false)
+    private Long aggregateId;
+    
+    // JSON with the fields subscribers need, so a deleted row can still be described
+    @Column(length = 2000, updatable = false)
+    private String payload;
+    
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Set when the relay gave up on the event after it failed every attempt (dead letter)
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+    
+    private Integer attempts;
+    
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+    
+    // Constructors
+    public OutboxEvent() {}
+    
+    public OutboxEvent(String eventType, Long aggregateId, String payload) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+    
+    public Long getAggregateId() { return aggregateId; }
+    public void setAggregateId(Long aggregateId) { this.aggregateId = aggregateId; }
+    
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getFailedAt() { return failedAt; }
+    public void setFailedAt(LocalDateTime failedAt) { this.failedAt = failedAt; }
+    
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+    
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
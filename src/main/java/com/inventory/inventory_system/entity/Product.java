@@ -1,13 +1,21 @@
 package com.inventory.inventory_system.entity;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_low_stock", columnList = "low_stock"))
+@DynamicUpdate
 public class Product {
     
+    public static final int DEFAULT_REORDER_LEVEL = 10;
+    public static final String IN_STOCK = "IN_STOCK";
+    public static final String LOW_STOCK = "LOW_STOCK";
+    public static final String OUT_OF_STOCK = "OUT_OF_STOCK";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -30,7 +38,11 @@ public class Product {
     private String category;
     
     @Column(name = "reorder_level")
-    private Integer reorderLevel = 10;
+    private Integer reorderLevel = DEFAULT_REORDER_LEVEL;
+    
+    // Same as isLowStock(), kept up to date by the LowStockMonitor so the low stock pages don't scan
+    @Column(name = "low_stock")
+    private Boolean lowStockFlag;
     
     @Column(name = "supplier_id")
     private String supplierId;
@@ -115,9 +127,12 @@ public class Product {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public Boolean getLowStockFlag() { return lowStockFlag; }
+    public void setLowStockFlag(Boolean lowStockFlag) { this.lowStockFlag = lowStockFlag; }
+    
     // Helper methods
     public boolean isLowStock() {
-        return quantity != null && quantity > 0 && quantity <= (reorderLevel != null ? reorderLevel : 10);
+        return LOW_STOCK.equals(stockStatus(quantity, reorderLevel));
     }
     
     public boolean isOutOfStock() {
@@ -125,20 +140,22 @@ public class Product {
     }
     
     public boolean isInStock() {
-        return quantity != null && quantity > (reorderLevel != null ? reorderLevel : 10);
+        return quantity != null && quantity > (reorderLevel != null ? reorderLevel : DEFAULT_REORDER_LEVEL);
     }
     
     public String getStockStatus() {
-        if (quantity == null) {
-            return "OUT_OF_STOCK";
+        return stockStatus(quantity, reorderLevel);
+    }
+    
+    // Low stock is at or below the product's own reorder level, but not yet out
+    public static String stockStatus(Integer quantity, Integer reorderLevel) {
+        if (quantity == null || quantity == 0) {
+            return OUT_OF_STOCK;
         }
-        if (isOutOfStock()) {
-            return "OUT_OF_STOCK";
-        } else if (isLowStock()) {
-            return "LOW_STOCK";
-        } else {
-            return "IN_STOCK";
+        if (quantity > 0 && quantity <= (reorderLevel != null ? reorderLevel : DEFAULT_REORDER_LEVEL)) {
+            return LOW_STOCK;
         }
+        return IN_STOCK;
     }
     
     public boolean isValid() {
@@ -0,0 +1,79 @@
+package com.inventory.inventory_system.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// A purchase suggestion for one product from the last forecast run (see ReorderSuggestionService).
+// The rows of each id range are replaced together every run
+@Entity
+@Table(name = "reorder_suggestions", indexes = {
+    @Index(name = "idx_reorder_suggestions_product", columnList = "product_id"),
+    @Index(name = "idx_reorder_suggestions_cover", columnList = "days_of_cover")
+})
+public class ReorderSuggestion {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(name = "product_name")
+    private String productName;
+    
+    @Column(name = "product_sku")
+    private String productSku;
+    
+    @Column(name = "supplier_id")
+    private String supplierId;
+    
+    // Stock when the forecast ran
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    // Forecast units per day over the lead time and cover period
+    @Column(name = "daily_demand", nullable = false)
+    private Double dailyDemand;
+    
+    // Null when nothing is forecast to sell
+    @Column(name = "days_of_cover")
+    private Double daysOfCover;
+    
+    @Column(name = "suggested_quantity", nullable = false)
+    private Integer suggestedQuantity;
+    
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+    
+    public String getProductSku() { return productSku; }
+    public void setProductSku(String productSku) { this.productSku = productSku; }
+    
+    public String getSupplierId() { return supplierId; }
+    public void setSupplierId(String supplierId) { this.supplierId = supplierId; }
+    
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    
+    public Double getDailyDemand() { return dailyDemand; }
+    public void setDailyDemand(Double dailyDemand) { this.dailyDemand = dailyDemand; }
+    
+    public Double getDaysOfCover() { return daysOfCover; }
+    public void setDaysOfCover(Double daysOfCover) { this.daysOfCover = daysOfCover; }
+    
+    public Integer getSuggestedQuantity() { return suggestedQuantity; }
+    public void setSuggestedQuantity(Integer suggestedQuantity) { this.suggestedQuantity = suggestedQuantity; }
+    
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
@@ -5,7 +5,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sales")
+@Table(name = "sales", indexes = {
+    @Index(name = "idx_sales_order", columnList = "order_id"),
+    @Index(name = "idx_sales_product_date", columnList = "product_id, sale_date")
+})
 public class Sale {
     
     @Id
@@ -45,9 +48,24 @@ public class Sale {
     @Column(name = "payment_method")
     private String paymentMethod;
     
+    // Stock bin the sale was taken from
+    private String location;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // Position in the sale journal for sales that went through it, null otherwise
+    @Column(name = "journal_sequence", unique = true)
+    private Long journalSequence;
+    
+    // The order this sale is a line of, null for a single-product sale
+    @Column(name = "order_id")
+    private Long orderId;
+    
+    // Sold through the StockLedger and not yet taken off products.quantity
+    @Column(name = "stock_pending")
+    private Boolean stockPending;
+    
     // Constructors
     public Sale() {}
     
@@ -111,4 +129,16 @@ public class Sale {
     
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public Long getJournalSequence() { return journalSequence; }
+    public void setJournalSequence(Long journalSequence) { this.journalSequence = journalSequence; }
+    
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    
+    public Boolean getStockPending() { return stockPending; }
+    public void setStockPending(Boolean stockPending) { this.stockPending = stockPending; }
+    
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
 }
\ No newline at end of file
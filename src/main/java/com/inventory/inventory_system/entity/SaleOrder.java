@@ -0,0 +1,62 @@
+package com.inventory.inventory_system.entity;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A basket checked out in one go. Each line is a Sale row carrying the order's id,
+// so the sales reports see the lines like any other sale
+@Entity
+@Table(name = "sale_orders")
+public class SaleOrder {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "line_count", nullable = false)
+    private Integer lineCount;
+    
+    @Column(name = "total_amount", precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+    
+    @Column(name = "customer_name")
+    private String customerName;
+    
+    @Column(name = "customer_email")
+    private String customerEmail;
+    
+    @Column(name = "payment_method")
+    private String paymentMethod;
+    
+    // Stock bin asked for, the lines record where their stock actually came from
+    private String location;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Integer getLineCount() { return lineCount; }
+    public void setLineCount(Integer lineCount) { this.lineCount = lineCount; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+    
+    public String getCustomerEmail() { return customerEmail; }
+    public void setCustomerEmail(String customerEmail) { this.customerEmail = customerEmail; }
+    
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+    
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,55 @@
+package com.inventory.inventory_system.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Stock of one product at one location (warehouse or store); products.quantity is the sum of its bins
+@Entity
+@Table(name = "stock_bins", uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "location"}))
+public class StockBin {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(nullable = false)
+    private String location;
+    
+    @Column(nullable = false)
+    private Integer quantity = 0;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public StockBin() {}
+    
+    public StockBin(Long productId, String location, Integer quantity) {
+        this.productId = productId;
+        this.location = location;
+        this.quantity = quantity;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { 
+        this.quantity = quantity; 
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,74 @@
+package com.inventory.inventory_system.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// One change to a product's stock. Rows are only ever inserted: the stock at any point is the
+// sum of the movements up to it, starting from the latest StockSnapshot
+@Entity
+@Table(name = "stock_movements", indexes = @Index(name = "idx_stock_movements_product", columnList = "product_id, id"))
+public class StockMovement {
+    
+    public static final String SALE = "SALE";
+    public static final String RECEIPT = "RECEIPT";
+    public static final String ADJUSTMENT = "ADJUSTMENT";
+    public static final String TRANSFER = "TRANSFER";
+    public static final String IMPORT = "IMPORT";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+    
+    @Column(updatable = false)
+    private String location;
+    
+    // Signed: negative for stock going out
+    @Column(name = "quantity_change", nullable = false, updatable = false)
+    private Integer quantityChange;
+    
+    @Column(name = "movement_type", nullable = false, updatable = false)
+    private String movementType;
+    
+    // The sale behind a SALE movement
+    @Column(name = "sale_id", updatable = false)
+    private Long saleId;
+    
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public StockMovement() {}
+    
+    public StockMovement(Long productId, String location, Integer quantityChange, String movementType) {
+        this.productId = productId;
+        this.location = location;
+        this.quantityChange = quantityChange;
+        this.movementType = movementType;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    
+    public Integer getQuantityChange() { return quantityChange; }
+    public void setQuantityChange(Integer quantityChange) { this.quantityChange = quantityChange; }
+    
+    public String getMovementType() { return movementType; }
+    public void setMovementType(String movementType) { this.movementType = movementType; }
+    
+    public Long getSaleId() { return saleId; }
+    public void setSaleId(Long saleId) { this.saleId = saleId; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
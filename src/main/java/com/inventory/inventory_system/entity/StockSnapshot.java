@@ -0,0 +1,43 @@
+package com.inventory.inventory_system.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// A product's stock summed over its movements up to lastMovementId. Snapshots are appended each
+// run for products that moved since the previous one; the latest is the starting point
+@Entity
+@Table(name = "stock_snapshots", indexes = @Index(name = "idx_stock_snapshots_product", columnList = "product_id, last_movement_id"))
+public class StockSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+    
+    @Column(nullable = false, updatable = false)
+    private Integer quantity;
+    
+    @Column(name = "last_movement_id", nullable = false, updatable = false)
+    private Long lastMovementId;
+    
+    @Column(name = "taken_at", updatable = false)
+    private LocalDateTime takenAt;
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    
+    public Long getLastMovementId() { return lastMovementId; }
+    public void setLastMovementId(Long lastMovementId) { this.lastMovementId = lastMovementId; }
+    
+    public LocalDateTime getTakenAt() { return takenAt; }
+    public void setTakenAt(LocalDateTime takenAt) { this.takenAt = takenAt; }
+}
@@ -0,0 +1,73 @@
+package com.inventory.inventory_system.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Hikari pool saturation. Busy connections past {@code degraded-utilization}
+ * of the pool mark the node degraded; requests queueing for a connection past
+ * {@code not-ready-pending} take it out of rotation, since every new request
+ * would only join the queue.
+ */
+@Component
+public class ConnectionPoolHealthIndicator extends AbstractHealthIndicator {
+
+    private final HikariDataSource hikari;
+    private final double degradedUtilization;
+    private final int notReadyPending;
+
+    public ConnectionPoolHealthIndicator(DataSource dataSource,
+                                         @Value("${inventory.health.pool.degraded-utilization:0.8}") double degradedUtilization,
+                                         @Value("${inventory.health.pool.not-ready-pending:5}") int notReadyPending) {
+        super("Connection pool health check failed");
+        this.hikari = unwrap(dataSource);
+        this.degradedUtilization = degradedUtilization;
+        this.notReadyPending = notReadyPending;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (hikari == null) {
+            builder.unknown().withDetail("reason", "Not a Hikari pool");
+            return;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            // The pool starts on the first getConnection()
+            builder.up().withDetail("reason", "Pool not started yet");
+            return;
+        }
+
+        int active = pool.getActiveConnections();
+        int pending = pool.getThreadsAwaitingConnection();
+        int max = hikari.getMaximumPoolSize();
+        double utilization = max == 0 ? 0 : (double) active / max;
+        if (pending >= notReadyPending) {
+            builder.status(HealthStatuses.NOT_READY);
+        } else if (utilization >= degradedUtilization) {
+            builder.status(HealthStatuses.DEGRADED);
+        } else {
+            builder.up();
+        }
+        builder.withDetail("active", active)
+            .withDetail("idle", pool.getIdleConnections())
+            .withDetail("max", max)
+            .withDetail("pending", pending)
+            .withDetail("utilization", Math.round(utilization * 100) / 100.0);
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
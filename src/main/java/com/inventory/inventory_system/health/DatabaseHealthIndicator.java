@@ -0,0 +1,92 @@
+package com.inventory.inventory_system.health;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Database round trip: borrows a connection and runs a trivial query.
+ * The probe runs on its own thread so an exhausted pool (getConnection blocks
+ * for the pool's connection timeout) fails the check after {@code timeout-ms}
+ * instead of hanging the health request. A probe still in flight is awaited
+ * again rather than a second one being started.
+ */
+@Component
+public class DatabaseHealthIndicator extends AbstractHealthIndicator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long degradedMillis;
+    private final long notReadyMillis;
+    private final long timeoutMillis;
+
+    private final ExecutorService probeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "health-db-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<Long> inFlight;
+
+    public DatabaseHealthIndicator(DataSource dataSource,
+                                   @Value("${inventory.health.database.degraded-ms:100}") long degradedMillis,
+                                   @Value("${inventory.health.database.not-ready-ms:500}") long notReadyMillis,
+                                   @Value("${inventory.health.database.timeout-ms:2000}") long timeoutMillis) {
+        super("Database health check failed");
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis)));
+        this.degradedMillis = degradedMillis;
+        this.notReadyMillis = notReadyMillis;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    protected synchronized void doHealthCheck(Health.Builder builder) throws Exception {
+        if (inFlight == null || inFlight.isDone()) {
+            inFlight = probeExecutor.submit(this::roundTrip);
+        }
+        long nanos;
+        try {
+            nanos = inFlight.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            builder.status(HealthStatuses.NOT_READY)
+                .withDetail("error", "No reply within " + timeoutMillis + " ms");
+            return;
+        } catch (ExecutionException e) {
+            builder.down(e.getCause());
+            return;
+        }
+
+        double millis = nanos / 1_000_000.0;
+        if (millis >= notReadyMillis) {
+            builder.status(HealthStatuses.NOT_READY);
+        } else if (millis >= degradedMillis) {
+            builder.status(HealthStatuses.DEGRADED);
+        } else {
+            builder.up();
+        }
+        builder.withDetail("roundTripMs", Math.round(millis * 10) / 10.0)
+            .withDetail("degradedMs", degradedMillis)
+            .withDetail("notReadyMs", notReadyMillis);
+    }
+
+    private long roundTrip() {
+        long start = System.nanoTime();
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        return System.nanoTime() - start;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        probeExecutor.shutdownNow();
+    }
+}
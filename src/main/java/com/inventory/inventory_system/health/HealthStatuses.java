@@ -0,0 +1,19 @@
+package com.inventory.inventory_system.health;
+
+import org.springframework.boot.actuate.health.Status;
+
+/**
+ * Statuses shared by the health indicators. DEGRADED keeps the node in rotation
+ * (HTTP 200) but shows up in the probes; OUT_OF_SERVICE makes readiness answer
+ * 503 so the load balancer drains the node. The ordering and HTTP mapping are
+ * in application.properties.
+ */
+public final class HealthStatuses {
+
+    public static final Status DEGRADED = new Status("DEGRADED");
+
+    public static final Status NOT_READY = Status.OUT_OF_SERVICE;
+
+    private HealthStatuses() {
+    }
+}
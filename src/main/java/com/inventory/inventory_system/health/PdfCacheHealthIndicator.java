@@ -0,0 +1,43 @@
+package com.inventory.inventory_system.health;
+
+import com.inventory.inventory_system.service.PdfCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warm state of the rendered PDF cache. A node holding fewer than
+ * {@code warm-entries} documents reports degraded; the default of 0 only
+ * reports the numbers, since a cold cache just means slower downloads.
+ */
+@Component
+public class PdfCacheHealthIndicator extends AbstractHealthIndicator {
+
+    private final PdfCache pdfCache;
+    private final int warmEntries;
+
+    public PdfCacheHealthIndicator(PdfCache pdfCache,
+                                   @Value("${inventory.health.pdf-cache.warm-entries:0}") int warmEntries) {
+        super("PDF cache health check failed");
+        this.pdfCache = pdfCache;
+        this.warmEntries = warmEntries;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        int entries = pdfCache.getEntryCount();
+        boolean warm = entries >= warmEntries;
+        if (warm) {
+            builder.up();
+        } else {
+            builder.status(HealthStatuses.DEGRADED);
+        }
+        builder.withDetail("warm", warm)
+            .withDetail("entries", entries)
+            .withDetail("memoryBytes", pdfCache.getMemoryBytes())
+            .withDetail("diskBytes", pdfCache.getDiskBytes())
+            .withDetail("hits", pdfCache.getHitCount())
+            .withDetail("misses", pdfCache.getMissCount());
+    }
+}
@@ -0,0 +1,43 @@
+package com.inventory.inventory_system.health;
+
+import com.inventory.inventory_system.service.ReceiptArchiveService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backlog of the receipt render pool. Each bulk download queues at most its
+ * window of renders, so a deep queue means many exports are running at once.
+ */
+@Component
+public class ReceiptExecutorHealthIndicator extends AbstractHealthIndicator {
+
+    private final ReceiptArchiveService receiptArchiveService;
+    private final int degradedQueue;
+    private final int notReadyQueue;
+
+    public ReceiptExecutorHealthIndicator(ReceiptArchiveService receiptArchiveService,
+                                          @Value("${inventory.health.executor.degraded-queue:200}") int degradedQueue,
+                                          @Value("${inventory.health.executor.not-ready-queue:1000}") int notReadyQueue) {
+        super("Receipt executor health check failed");
+        this.receiptArchiveService = receiptArchiveService;
+        this.degradedQueue = degradedQueue;
+        this.notReadyQueue = notReadyQueue;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        int queued = receiptArchiveService.getQueueDepth();
+        if (queued >= notReadyQueue) {
+            builder.status(HealthStatuses.NOT_READY);
+        } else if (queued >= degradedQueue) {
+            builder.status(HealthStatuses.DEGRADED);
+        } else {
+            builder.up();
+        }
+        builder.withDetail("queued", queued)
+            .withDetail("active", receiptArchiveService.getActiveRenders())
+            .withDetail("threads", receiptArchiveService.getThreads());
+    }
+}
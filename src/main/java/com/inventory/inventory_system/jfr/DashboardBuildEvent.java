@@ -0,0 +1,33 @@
+package com.inventory.inventory_system.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Assembly of the dashboard model or the chart data behind it.
+ */
+@Name("inventory.DashboardBuild")
+@Label("Dashboard Build")
+@Category({"Inventory", "Reports"})
+@Description("Queries and aggregation behind the dashboard page or its chart API")
+@StackTrace(false)
+public class DashboardBuildEvent extends Event {
+
+    @Label("View")
+    @Description("dashboard or charts")
+    public String view;
+
+    @Label("Sales")
+    @Description("Sales rows aggregated, dashboard view only")
+    public int sales;
+
+    @Label("Categories")
+    public int categories;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,177 @@
+package com.inventory.inventory_system.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint driving one JDK Flight Recorder recording, admin only like the rest of /actuator.
+ *
+ *   POST   /actuator/jfr            start, optional body {"settings": "profile", "maxAgeSeconds": 600}
+ *   GET    /actuator/jfr            state of the current recording
+ *   GET    /actuator/jfr/inventory  download everything recorded so far as a .jfr file
+ *   DELETE /actuator/jfr            stop; the data can still be downloaded until the next start
+ *
+ * The recording is a ring buffer bounded by max age and size, so it can also be
+ * left running from startup and dumped when an incident happens.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+
+    public static final String RECORDING_NAME = "inventory";
+
+    private final String defaultSettings;
+    private final long maxAgeSeconds;
+    private final long maxSizeBytes;
+    private final boolean continuous;
+
+    private Recording recording;
+    private String settings;
+
+    public FlightRecorderEndpoint(@Value("${inventory.jfr.settings:default}") String defaultSettings,
+                                  @Value("${inventory.jfr.max-age-seconds:900}") long maxAgeSeconds,
+                                  @Value("${inventory.jfr.max-size-bytes:268435456}") long maxSizeBytes,
+                                  @Value("${inventory.jfr.continuous:false}") boolean continuous) {
+        this.defaultSettings = defaultSettings;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.maxSizeBytes = maxSizeBytes;
+        this.continuous = continuous;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (continuous) {
+            start(null, null);
+        }
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("name", recording.getName());
+        status.put("state", recording.getState().name());
+        status.put("settings", settings);
+        status.put("startTime", recording.getStartTime());
+        status.put("stopTime", recording.getStopTime());
+        status.put("maxAgeSeconds", recording.getMaxAge() != null ? recording.getMaxAge().getSeconds() : null);
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+
+    /**
+     * Starts a new recording, discarding the previous one.
+     *
+     * @param settings JFC settings name: "default" (about 1% overhead) or "profile" (more detail, more cost)
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable String settings, @Nullable Long maxAgeSeconds) {
+        String name = settings != null ? settings : defaultSettings;
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + name, e);
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        recording = new Recording(configuration);
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(maxAgeSeconds != null ? maxAgeSeconds : this.maxAgeSeconds));
+        recording.setMaxSize(maxSizeBytes);
+        recording.start();
+        this.settings = name;
+        log.info("🎥 Started flight recording with '{}' settings", name);
+        return status();
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("🎥 Stopped flight recording");
+        }
+        return status();
+    }
+
+    /**
+     * Writes the recording so far to a temporary file, which is deleted once the download is read.
+     * Works on a running recording as well as a stopped one.
+     */
+    @ReadOperation
+    public synchronized Resource dump(@Selector String name) {
+        if (recording == null || !RECORDING_NAME.equals(name) || recording.getState() == RecordingState.NEW) {
+            return null;
+        }
+        try {
+            Path file = Files.createTempFile("inventory-", ".jfr");
+            recording.dump(file);
+            return new TemporaryFileResource(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump flight recording", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
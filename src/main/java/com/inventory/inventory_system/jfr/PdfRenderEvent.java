@@ -0,0 +1,33 @@
+package com.inventory.inventory_system.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One PDF document rendered by PdfService. Cache hits never render, so they
+ * don't show up here.
+ */
+@Name("inventory.PdfRender")
+@Label("PDF Render")
+@Category({"Inventory", "Exports"})
+@Description("Rendering of a product, receipt or product list PDF")
+@StackTrace(false)
+public class PdfRenderEvent extends Event {
+
+    @Label("Document")
+    @Description("product, receipt or product-list")
+    public String document;
+
+    @Label("Rows")
+    @Description("Product rows, product-list only")
+    public int rows;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,39 @@
+package com.inventory.inventory_system.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One call to SaleService.saveSale, from the stock reservation to the committed row.
+ */
+@Name("inventory.SaleCommit")
+@Label("Sale Commit")
+@Category({"Inventory", "Sales"})
+@Description("Stock reservation and insert of a single sale")
+@StackTrace(false)
+public class SaleCommitEvent extends Event {
+
+    public static final String COMMITTED = "committed";
+    public static final String INSUFFICIENT_STOCK = "insufficient-stock";
+    public static final String PRODUCT_NOT_FOUND = "product-not-found";
+    public static final String FAILED = "failed";
+
+    @Label("Product Id")
+    public long productId;
+
+    @Label("Quantity")
+    public int quantity;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Lock Wait")
+    @Description("Time spent waiting for the product's stripe lock in the stock ledger")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockWait;
+}
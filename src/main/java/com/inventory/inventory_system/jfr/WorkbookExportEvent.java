@@ -0,0 +1,31 @@
+package com.inventory.inventory_system.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Generation of one Excel workbook by ExportController, up to the finished bytes.
+ */
+@Name("inventory.WorkbookExport")
+@Label("Workbook Export")
+@Category({"Inventory", "Exports"})
+@Description("Building and serializing an Excel export")
+@StackTrace(false)
+public class WorkbookExportEvent extends Event {
+
+    @Label("Export")
+    @Description("products, sales or reports")
+    public String export;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
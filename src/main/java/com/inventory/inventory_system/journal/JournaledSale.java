@@ -0,0 +1,163 @@
+package com.inventory.inventory_system.journal;
+
+import com.inventory.inventory_system.dto.Money;
+import com.inventory.inventory_system.entity.Sale;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One checkout as written to the sale journal: everything needed to insert the
+ * Sale row later without looking the product up again. Amounts are kept in cents.
+ */
+public final class JournaledSale {
+
+    // 2 added the stock bin, 3 the idempotency key; older records are still read without them
+    private static final int FORMAT = 3;
+
+    private final long sequence;
+    private final long productId;
+    private final int quantity;
+    private final long unitPriceCents;
+    private final long totalCents;
+    private final LocalDateTime saleDate;
+    private final LocalDateTime createdAt;
+    private final String productName;
+    private final String productSku;
+    private final String productCategory;
+    private final String customerName;
+    private final String customerEmail;
+    private final String paymentMethod;
+    private final String location;
+    private final String idempotencyKey;
+
+    private JournaledSale(long sequence, long productId, int quantity, long unitPriceCents, long totalCents,
+                          LocalDateTime saleDate, LocalDateTime createdAt, String productName, String productSku,
+                          String productCategory, String customerName, String customerEmail, String paymentMethod,
+                          String location, String idempotencyKey) {
+        this.sequence = sequence;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.unitPriceCents = unitPriceCents;
+        this.totalCents = totalCents;
+        this.saleDate = saleDate;
+        this.createdAt = createdAt;
+        this.productName = productName;
+        this.productSku = productSku;
+        this.productCategory = productCategory;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.paymentMethod = paymentMethod;
+        this.location = location;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    // A sale filled in by SaleController, not yet sequenced
+    public static JournaledSale of(Sale sale, String idempotencyKey) {
+        LocalDateTime now = LocalDateTime.now();
+        return new JournaledSale(0, sale.getProductId(), sale.getQuantity(), Money.toCents(sale.getUnitPrice()),
+            Money.toCents(sale.getTotalAmount()), sale.getSaleDate() != null ? sale.getSaleDate() : now,
+            sale.getCreatedAt() != null ? sale.getCreatedAt() : now, sale.getProductName(), sale.getProductSku(),
+            sale.getProductCategory(), sale.getCustomerName(), sale.getCustomerEmail(), sale.getPaymentMethod(),
+            sale.getLocation(), idempotencyKey);
+    }
+
+    public JournaledSale withSequence(long sequence) {
+        return new JournaledSale(sequence, productId, quantity, unitPriceCents, totalCents, saleDate, createdAt,
+            productName, productSku, productCategory, customerName, customerEmail, paymentMethod, location,
+            idempotencyKey);
+    }
+
+    public Sale toSale() {
+        Sale sale = new Sale();
+        sale.setProductId(productId);
+        sale.setProductName(productName);
+        sale.setProductSku(productSku);
+        sale.setProductCategory(productCategory);
+        sale.setUnitPrice(Money.ofCents(unitPriceCents).toBigDecimal());
+        sale.setQuantity(quantity);
+        sale.setTotalAmount(Money.ofCents(totalCents).toBigDecimal());
+        sale.setSaleDate(saleDate);
+        sale.setCreatedAt(createdAt);
+        sale.setCustomerName(customerName);
+        sale.setCustomerEmail(customerEmail);
+        sale.setPaymentMethod(paymentMethod);
+        sale.setLocation(location);
+        sale.setJournalSequence(sequence);
+        return sale;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeLong(sequence);
+            out.writeLong(productId);
+            out.writeInt(quantity);
+            out.writeLong(unitPriceCents);
+            out.writeLong(totalCents);
+            writeTime(out, saleDate);
+            writeTime(out, createdAt);
+            writeString(out, productName);
+            writeString(out, productSku);
+            writeString(out, productCategory);
+            writeString(out, customerName);
+            writeString(out, customerEmail);
+            writeString(out, paymentMethod);
+            writeString(out, location);
+            writeString(out, idempotencyKey);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournaledSale decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int format = in.readByte();
+        if (format < 1 || format > FORMAT) {
+            throw new IOException("Unknown journal record format " + format);
+        }
+        return new JournaledSale(in.readLong(), in.readLong(), in.readInt(), in.readLong(), in.readLong(),
+            readTime(in), readTime(in), readString(in), readString(in), readString(in), readString(in),
+            readString(in), readString(in), format >= 2 ? readString(in) : null, format >= 3 ? readString(in) : null);
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    public long getSequence() { return sequence; }
+
+    public long getProductId() { return productId; }
+
+    public int getQuantity() { return quantity; }
+
+    public String getProductName() { return productName; }
+
+    public String getLocation() { return location; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+}
@@ -0,0 +1,541 @@
+package com.inventory.inventory_system.journal;
+
+import com.inventory.inventory_system.entity.Sale;
+import com.inventory.inventory_system.service.InventoryMetrics;
+import com.inventory.inventory_system.service.SaleService;
+import com.inventory.inventory_system.service.StockLedger;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal for checkouts. A sale is accepted once it is appended to a
+ * memory-mapped segment file and forced to disk; a background applier then
+ * inserts the Sale rows in ordered batches.
+ *
+ * The writer thread takes every append queued while the previous force() was
+ * running and writes them as one group with a single force(), so a burst of
+ * checkouts costs one disk flush instead of one database transaction each.
+ *
+ * Stock is still checked up front: the sale holds its quantity in the
+ * StockLedger until its row is applied, then the ledger takes it off
+ * products.quantity like any other sale. Each applied sale keeps its journal
+ * sequence, so after a crash the segments are replayed from the last sequence
+ * the database has and nothing is applied twice.
+ *
+ * Segment layout: records of [int length][int crc32][payload], a length of 0
+ * marks the end of the data and -1 means the rest of the segment is unused.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.journal.enabled", havingValue = "true")
+public class SaleJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(SaleJournal.class);
+
+    private static final String PREFIX = "sales-";
+    private static final String SUFFIX = ".journal";
+    private static final int HEADER = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final int MAX_GROUP = 1000;
+    private static final long RETRY_MIN_MS = 100;
+    private static final long RETRY_MAX_MS = 5000;
+
+    private final SaleService saleService;
+    private final StockLedger stockLedger;
+    private final InventoryMetrics inventoryMetrics;
+    private final Path directory;
+    private final int segmentBytes;
+    private final int applyBatchSize;
+    private final long ackTimeoutMs;
+    private final DistributionSummary groupSize;
+
+    private final BlockingQueue<Append> appends = new LinkedBlockingQueue<>();
+    private final BlockingQueue<JournaledSale> unapplied = new LinkedBlockingQueue<>();
+    // Stock holds of written sales by sequence, confirmed once the sale is applied
+    private final Map<Long, StockLedger.Hold> holds = new ConcurrentHashMap<>();
+    // Full segments in order, deleted once everything in them is applied
+    private final Queue<Segment> closed = new ConcurrentLinkedQueue<>();
+
+    // Only touched by the writer thread once recovery has finished
+    private Segment current;
+    private long nextSequence;
+
+    private volatile long writtenSequence;
+    private volatile long appliedSequence;
+    private volatile boolean accepting;
+    private volatile boolean stopping;
+    private Thread writer;
+    private Thread applier;
+
+    public SaleJournal(SaleService saleService, StockLedger stockLedger, InventoryMetrics inventoryMetrics,
+                       MeterRegistry registry,
+                       @Value("${inventory.journal.directory:${java.io.tmpdir}/inventory-journal}") String directory,
+                       @Value("${inventory.journal.segment-bytes:16777216}") int segmentBytes,
+                       @Value("${inventory.journal.apply-batch-size:500}") int applyBatchSize,
+                       @Value("${inventory.journal.ack-timeout-ms:5000}") long ackTimeoutMs) {
+        this.saleService = saleService;
+        this.stockLedger = stockLedger;
+        this.inventoryMetrics = inventoryMetrics;
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        this.applyBatchSize = applyBatchSize;
+        this.ackTimeoutMs = ackTimeoutMs;
+        this.groupSize = DistributionSummary.builder("inventory.journal.group.size")
+            .description("Sales written to the journal per force to disk")
+            .register(registry);
+        Gauge.builder("inventory.journal.unapplied", this, journal -> journal.writtenSequence - journal.appliedSequence)
+            .description("Journaled sales not yet applied to the database")
+            .register(registry);
+    }
+
+    /**
+     * Reserves the stock and appends the sale, returning once it is on disk.
+     * Throws like SaleService.saveSale when the sale can't be accepted. A sale
+     * whose idempotency key is already taken is dropped when applied.
+     */
+    public void record(Sale sale, String idempotencyKey) {
+        if (!accepting) {
+            throw new RuntimeException("Sale journal is not accepting sales yet, try again shortly");
+        }
+        // Doesn't expire: once acknowledged the sale is applied however long the database takes
+        StockLedger.Hold hold = stockLedger.reserveUntilConfirmed(sale.getProductId(), sale.getQuantity(),
+            sale.getLocation());
+        if (hold == null) {
+            inventoryMetrics.stockRejected();
+            throw new RuntimeException("Insufficient stock for product: " + sale.getProductName() +
+                                     ". Available: " + stockLedger.getAvailable(sale.getProductId()));
+        }
+        sale.setLocation(hold.getLocation());
+        JournaledSale entry;
+        try {
+            entry = JournaledSale.of(sale, idempotencyKey);
+        } catch (RuntimeException e) {
+            // Not handed to the writer, so nothing else would ever give the stock back
+            stockLedger.release(hold);
+            throw e;
+        }
+
+        // From here the writer owns the hold: it is confirmed when the sale is applied,
+        // or released by the writer itself if the append fails
+        Append append = new Append(entry, hold);
+        appends.add(append);
+        try {
+            long sequence = append.result.get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            log.debug("📒 Journaled sale {} for product: {}", sequence, sale.getProductName());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Sale was not confirmed by the journal in time, check the sales list before retrying");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Sale could not be written to the journal: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the sale journal");
+        }
+    }
+
+    // Replay what the database is missing before taking new sales, and before the
+    // StockLedger loads so it takes the replayed sales off stock
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream
+                .filter(path -> segmentIndex(path) > 0)
+                .sorted((a, b) -> Integer.compare(segmentIndex(a), segmentIndex(b)))
+                .collect(Collectors.toList());
+        }
+
+        long lastApplied = saleService.getLastJournalSequence();
+        long lastSequence = lastApplied;
+        int replayed = 0;
+        List<JournaledSale> batch = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            Segment segment = Segment.open(files.get(i), segmentIndex(files.get(i)), segmentBytes);
+            for (JournaledSale entry : segment.scan()) {
+                lastSequence = Math.max(lastSequence, entry.getSequence());
+                if (entry.getSequence() > lastApplied) {
+                    batch.add(entry);
+                }
+                if (batch.size() >= applyBatchSize) {
+                    replayed += saleService.applyJournaledSales(batch).size();
+                    batch.clear();
+                }
+            }
+            if (i < files.size() - 1) {
+                segment.close();
+                closed.add(segment);
+            } else {
+                current = segment;
+            }
+        }
+        if (!batch.isEmpty()) {
+            replayed += saleService.applyJournaledSales(batch).size();
+        }
+        if (current == null) {
+            current = Segment.open(segmentPath(1), 1, segmentBytes);
+        }
+
+        nextSequence = lastSequence + 1;
+        writtenSequence = lastSequence;
+        appliedSequence = lastSequence;
+        deleteAppliedSegments();
+
+        writer = new Thread(this::writeLoop, "sale-journal-writer");
+        applier = new Thread(this::applyLoop, "sale-journal-applier");
+        writer.setDaemon(true);
+        applier.setDaemon(true);
+        writer.start();
+        applier.start();
+        accepting = true;
+        log.info("📒 Sale journal ready in {}: replayed {} sales, next sequence {}", directory, replayed, nextSequence);
+    }
+
+    // Everything acknowledged is already on disk; apply what we can so the next start has less to replay
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+        stopping = true;
+        if (writer == null) {
+            return;
+        }
+        writer.join();
+        applier.join();
+        current.close();
+        log.info("📒 Sale journal stopped at sequence {}, {} sales left to replay", writtenSequence,
+            writtenSequence - appliedSequence);
+    }
+
+    private void writeLoop() {
+        List<Append> group = new ArrayList<>();
+        while (true) {
+            Append first;
+            try {
+                first = appends.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                if (stopping) {
+                    return;
+                }
+                continue;
+            }
+            group.add(first);
+            appends.drainTo(group, MAX_GROUP - 1);
+            writeGroup(group);
+            group.clear();
+        }
+    }
+
+    // One force() for the whole group, plus one per segment rollover in between
+    private void writeGroup(List<Append> group) {
+        List<Append> part = new ArrayList<>();
+        int partStart = current.buffer.position();
+        long partSequence = nextSequence;
+        int i = 0;
+        try {
+            for (; i < group.size(); i++) {
+                Append append = group.get(i);
+                JournaledSale entry = append.entry.withSequence(nextSequence);
+                byte[] payload = entry.encode();
+                if (HEADER + payload.length > segmentBytes) {
+                    fail(append, new IOException("Sale is too large for a journal segment"));
+                    continue;
+                }
+                if (current.buffer.remaining() < HEADER + payload.length) {
+                    commit(part);
+                    partStart = current.buffer.position();
+                    partSequence = nextSequence;
+                    rollover();
+                    partStart = 0;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                current.buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+                append.written = entry;
+                nextSequence++;
+                part.add(append);
+            }
+            commit(part);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("❌ Sale journal write failed: {}", e.getMessage());
+            // Nothing from the failed part was acknowledged, take it back out of the segment
+            int end = current.buffer.position();
+            for (int p = partStart; p < end; p++) {
+                current.buffer.put(p, (byte) 0);
+            }
+            current.buffer.position(partStart);
+            nextSequence = partSequence;
+            for (Append append : part) {
+                fail(append, e);
+            }
+            for (int rest = i; rest < group.size(); rest++) {
+                fail(group.get(rest), e);
+            }
+        }
+    }
+
+    private void commit(List<Append> part) {
+        if (part.isEmpty()) {
+            return;
+        }
+        // Java 11 has no ranged force(), but only the dirty pages are written back
+        current.buffer.force();
+        groupSize.record(part.size());
+        for (Append append : part) {
+            current.lastSequence = append.written.getSequence();
+            holds.put(append.written.getSequence(), append.hold);
+            unapplied.add(append.written);
+            append.result.complete(append.written.getSequence());
+        }
+        writtenSequence = current.lastSequence;
+        part.clear();
+    }
+
+    // The current segment only changes once the next one is open
+    private void rollover() throws IOException {
+        if (current.buffer.remaining() >= 4) {
+            current.buffer.putInt(END_OF_SEGMENT);
+            current.buffer.force();
+        }
+        Segment next = Segment.open(segmentPath(current.index + 1), current.index + 1, segmentBytes);
+        current.close();
+        closed.add(current);
+        current = next;
+    }
+
+    private void fail(Append append, Exception cause) {
+        stockLedger.release(append.hold);
+        append.result.completeExceptionally(cause);
+    }
+
+    private void applyLoop() {
+        List<JournaledSale> batch = new ArrayList<>();
+        while (true) {
+            JournaledSale first;
+            try {
+                first = unapplied.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                // The writer has stopped before this flag is checked with an empty queue
+                if (stopping && !writer.isAlive()) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            unapplied.drainTo(batch, applyBatchSize - 1);
+            if (!apply(batch)) {
+                return;
+            }
+            batch.clear();
+            deleteAppliedSegments();
+        }
+    }
+
+    // Retries until the database takes the batch, gives up only on shutdown
+    private boolean apply(List<JournaledSale> batch) {
+        long delay = RETRY_MIN_MS;
+        while (true) {
+            try {
+                List<Sale> applied = saleService.applyJournaledSales(batch);
+                for (Sale sale : applied) {
+                    StockLedger.Hold hold = holds.remove(sale.getJournalSequence());
+                    if (hold != null) {
+                        stockLedger.confirm(hold, sale.getId());
+                    }
+                    inventoryMetrics.saleCommitted();
+                }
+                // Rows committed by an attempt that still reported a failure were skipped, and
+                // so were retries of a sale already recorded under the same idempotency key
+                for (JournaledSale entry : batch) {
+                    StockLedger.Hold hold = holds.remove(entry.getSequence());
+                    if (hold == null) {
+                        continue;
+                    }
+                    Long saleId = saleService.getSaleIdByJournalSequence(entry.getSequence());
+                    if (saleId != null) {
+                        stockLedger.confirm(hold, saleId);
+                        inventoryMetrics.saleCommitted();
+                    } else {
+                        stockLedger.release(hold);
+                    }
+                }
+                appliedSequence = batch.get(batch.size() - 1).getSequence();
+                return true;
+            } catch (RuntimeException e) {
+                if (stopping) {
+                    log.warn("⚠️ Stopping with {} journaled sales unapplied, they will be replayed on the next start",
+                        batch.size() + unapplied.size());
+                    return false;
+                }
+                log.warn("⚠️ Could not apply {} journaled sales, retrying in {} ms: {}", batch.size(), delay, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    return false;
+                }
+                delay = Math.min(delay * 2, RETRY_MAX_MS);
+            }
+        }
+    }
+
+    private void deleteAppliedSegments() {
+        Segment oldest;
+        while ((oldest = closed.peek()) != null && oldest.lastSequence <= appliedSequence) {
+            closed.poll();
+            try {
+                Files.deleteIfExists(oldest.path);
+            } catch (IOException e) {
+                log.warn("⚠️ Could not delete journal segment {}: {}", oldest.path, e.getMessage());
+            }
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%012d%s", PREFIX, index, SUFFIX));
+    }
+
+    private static int segmentIndex(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static final class Append {
+
+        private final JournaledSale entry;
+        private final StockLedger.Hold hold;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        // The entry with its sequence, once it is in the segment
+        private JournaledSale written;
+
+        private Append(JournaledSale entry, StockLedger.Hold hold) {
+            this.entry = entry;
+            this.hold = hold;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final int index;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private volatile long lastSequence;
+
+        private Segment(Path path, int index, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.index = index;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        // Maps the whole segment up front, an existing one keeps the size it was created with
+        static Segment open(Path path, int index, int segmentBytes) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            long size = channel.size() > 0 ? channel.size() : segmentBytes;
+            return new Segment(path, index, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        /**
+         * Reads the records and leaves the position at the end of the data. A record
+         * cut off by a crash can only be one that was never acknowledged, so the
+         * torn tail is zeroed and appending continues from there.
+         */
+        List<JournaledSale> scan() {
+            List<JournaledSale> entries = new ArrayList<>();
+            int position = 0;
+            while (position + HEADER <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                if (length == 0 || length == END_OF_SEGMENT) {
+                    break;
+                }
+                JournaledSale entry = length > 0 && position + HEADER + length <= buffer.capacity()
+                    ? read(position, length) : null;
+                if (entry == null) {
+                    log.warn("⚠️ Discarding torn journal record at {} in {}", position, path.getFileName());
+                    for (int p = position; p < buffer.capacity(); p++) {
+                        buffer.put(p, (byte) 0);
+                    }
+                    buffer.force();
+                    break;
+                }
+                entries.add(entry);
+                lastSequence = entry.getSequence();
+                position += HEADER + length;
+            }
+            buffer.position(position);
+            return entries;
+        }
+
+        private JournaledSale read(int position, int length) {
+            byte[] payload = new byte[length];
+            ByteBuffer view = buffer.duplicate();
+            view.position(position + HEADER);
+            view.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                return null;
+            }
+            try {
+                return JournaledSale.decode(payload);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("⚠️ Could not close journal segment {}: {}", path.getFileName(), e.getMessage());
+            }
+        }
+    }
+}
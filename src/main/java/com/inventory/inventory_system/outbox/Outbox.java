@@ -0,0 +1,95 @@
+package com.inventory.inventory_system.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.inventory_system.dto.Money;
+import com.inventory.inventory_system.entity.OutboxEvent;
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.entity.Sale;
+import com.inventory.inventory_system.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes outbox events. Must be called inside the transaction that makes the
+ * change, so the event commits (or rolls back) together with it.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class Outbox {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void saleCreated(Sale sale) {
+        outboxEventRepository.save(saleEvent(OutboxEvent.SALE_CREATED, sale));
+    }
+
+    public void salesCreated(List<Sale> sales) {
+        List<OutboxEvent> events = new ArrayList<>(sales.size());
+        for (Sale sale : sales) {
+            events.add(saleEvent(OutboxEvent.SALE_CREATED, sale));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    public void saleDeleted(Sale sale) {
+        outboxEventRepository.save(saleEvent(OutboxEvent.SALE_DELETED, sale));
+    }
+
+    public void productSaved(Product product) {
+        outboxEventRepository.save(productEvent(OutboxEvent.PRODUCT_SAVED, product));
+    }
+
+    public void productDeleted(Product product) {
+        outboxEventRepository.save(productEvent(OutboxEvent.PRODUCT_DELETED, product));
+    }
+
+    public void stockLevelChanged(Long productId, int quantity, Integer reorderLevel, String status, String previous) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("quantity", quantity);
+        payload.put("reorderLevel", reorderLevel);
+        payload.put("status", status);
+        payload.put("previous", previous);
+        outboxEventRepository.save(new OutboxEvent(OutboxEvent.STOCK_LEVEL_CHANGED, productId, toJson(payload)));
+    }
+
+    private OutboxEvent saleEvent(String type, Sale sale) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("productId", sale.getProductId());
+        payload.put("productCategory", sale.getProductCategory());
+        payload.put("quantity", sale.getQuantity());
+        payload.put("totalCents", sale.getTotalAmount() != null ? Money.toCents(sale.getTotalAmount()) : null);
+        payload.put("saleDate", sale.getSaleDate() != null ? sale.getSaleDate().toString() : null);
+        payload.put("location", sale.getLocation());
+        return new OutboxEvent(type, sale.getId(), toJson(payload));
+    }
+
+    private OutboxEvent productEvent(String type, Product product) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sku", product.getSku());
+        payload.put("name", product.getName());
+        payload.put("category", product.getCategory());
+        payload.put("quantity", product.getQuantity());
+        payload.put("reorderLevel", product.getReorderLevel());
+        return new OutboxEvent(type, product.getId(), toJson(payload));
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not write outbox event: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.inventory.inventory_system.outbox;
+
+import com.inventory.inventory_system.entity.OutboxCursor;
+import com.inventory.inventory_system.entity.OutboxEvent;
+import com.inventory.inventory_system.repository.OutboxCursorRepository;
+import com.inventory.inventory_system.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox events to the {@link OutboxSubscriber}s in id order, a batch
+ * at a time, and saves how far it got in outbox_cursors once every subscriber
+ * has handled the batch.
+ *
+ * Ids come from an identity column, so an event can commit after one with a
+ * higher id. The relay only delivers a gap-free run of ids past the watermark;
+ * a missing id is waited for up to the gap timeout and then skipped. Skipped
+ * ids are looked for again on every poll for the late-commit period, and an
+ * event that turns up is delivered then. Skipped ids are only kept in memory:
+ * after a restart subscribers rebuild from the database (see resume()).
+ *
+ * A batch a subscriber throws on is retried one event at a time, so only the
+ * failing event holds delivery up. Once it has failed max-attempts polls in a
+ * row it is dead-lettered (failed_at and last_error on its row) and passed over.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String CURSOR = "relay";
+    private static final int ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxCursorRepository outboxCursorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxSubscriber> subscribers;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long gapTimeoutMillis;
+    private final long lateCommitMillis;
+    private final int maxAttempts;
+    private final long retentionHours;
+    private final Counter delivered;
+    private final Counter deadLettered;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched on the relay thread, the watermark and lag are also read by the gauges
+    private final AtomicLong watermark = new AtomicLong();
+    // Creation time of the oldest event not delivered yet, 0 when caught up
+    private final AtomicLong pendingSince = new AtomicLong();
+    // Skipped id -> when it was skipped, its size is also read by the gauge
+    private final Map<Long, Long> skipped = new ConcurrentSkipListMap<>();
+    // Event id -> failed polls in a row
+    private final Map<Long, Integer> failures = new HashMap<>();
+    private long gapId;
+    private long gapSince;
+    // Creation time of the first event held up behind a gap by the last next(), 0 if none
+    private long heldSince;
+    private long lastPrune;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxCursorRepository outboxCursorRepository,
+                       TransactionTemplate transactionTemplate, List<OutboxSubscriber> subscribers,
+                       MeterRegistry registry,
+                       @Value("${inventory.outbox.batch-size:500}") int batchSize,
+                       @Value("${inventory.outbox.poll-interval-ms:200}") long pollIntervalMillis,
+                       @Value("${inventory.outbox.gap-timeout-ms:10000}") long gapTimeoutMillis,
+                       @Value("${inventory.outbox.late-commit-ms:600000}") long lateCommitMillis,
+                       @Value("${inventory.outbox.max-attempts:5}") int maxAttempts,
+                       @Value("${inventory.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxCursorRepository = outboxCursorRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.subscribers = subscribers;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.lateCommitMillis = lateCommitMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retentionHours = retentionHours;
+        this.delivered = Counter.builder("inventory.outbox.delivered")
+            .description("Outbox events handed to every subscriber")
+            .register(registry);
+        this.deadLettered = Counter.builder("inventory.outbox.dead_lettered")
+            .description("Outbox events passed over after failing every delivery attempt")
+            .register(registry);
+        Gauge.builder("inventory.outbox.watermark", watermark, AtomicLong::get)
+            .description("Id of the last outbox event delivered")
+            .register(registry);
+        Gauge.builder("inventory.outbox.skipped", skipped, Map::size)
+            .description("Skipped outbox ids still looked for in case they commit late")
+            .register(registry);
+        TimeGauge.builder("inventory.outbox.lag", this, TimeUnit.MILLISECONDS, OutboxRelay::getLagMillis)
+            .description("Age of the oldest outbox event not delivered yet")
+            .register(registry);
+    }
+
+    // Subscribers are seeded before the first request that reads them can arrive
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(3)
+    public void start() {
+        OutboxCursor cursor = outboxCursorRepository.findById(CURSOR).orElseGet(() -> new OutboxCursor(CURSOR));
+        watermark.set(cursor.getLastEventId());
+        for (OutboxSubscriber subscriber : subscribers) {
+            subscriber.resume(watermark.get());
+        }
+        scheduler.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("📮 Outbox relay started after event {} for {} subscribers", watermark.get(), subscribers.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public long getWatermark() { return watermark.get(); }
+
+    public long getLagMillis() {
+        long since = pendingSince.get();
+        return since == 0 ? 0 : Math.max(0, System.currentTimeMillis() - since);
+    }
+
+    public int getSkippedCount() { return skipped.size(); }
+
+    public double getDeadLetteredCount() { return deadLettered.count(); }
+
+    private void poll() {
+        try {
+            deliverLate();
+            long pending = 0;
+            List<OutboxEvent> events;
+            do {
+                events = next();
+                pending = heldSince;
+                if (events.isEmpty()) {
+                    break;
+                }
+                int handled = deliver(events);
+                if (handled > 0) {
+                    long last = events.get(handled - 1).getId();
+                    transactionTemplate.executeWithoutResult(status -> {
+                        OutboxCursor cursor = outboxCursorRepository.findById(CURSOR).orElseGet(() -> new OutboxCursor(CURSOR));
+                        cursor.setLastEventId(last);
+                        outboxCursorRepository.save(cursor);
+                    });
+                    watermark.set(last);
+                    delivered.increment(handled);
+                }
+                if (handled < events.size()) {
+                    pending = millis(events.get(handled).getCreatedAt());
+                    break;
+                }
+            } while (events.size() == batchSize);
+            pendingSince.set(pending);
+            prune();
+        } catch (RuntimeException e) {
+            // Nothing past the watermark was saved, the same events come again next poll
+            log.warn("⚠️ Outbox delivery failed after event {}, retrying: {}", watermark.get(), e.getMessage());
+        }
+    }
+
+    // The gap-free run of events after the watermark
+    private List<OutboxEvent> next() {
+        List<OutboxEvent> page = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(watermark.get(),
+            PageRequest.of(0, batchSize));
+        List<OutboxEvent> events = new ArrayList<>(page.size());
+        long expected = watermark.get() + 1;
+        heldSince = 0;
+        for (OutboxEvent event : page) {
+            if (event.getId() != expected) {
+                long now = System.currentTimeMillis();
+                if (gapId != expected) {
+                    gapId = expected;
+                    gapSince = now;
+                }
+                if (now - gapSince < gapTimeoutMillis) {
+                    // The events behind the gap wait for it
+                    heldSince = millis(event.getCreatedAt());
+                    break;
+                }
+                skip(expected, event.getId() - 1, now);
+            }
+            events.add(event);
+            expected = event.getId() + 1;
+        }
+        return events;
+    }
+
+    private void skip(long from, long to, long now) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = from; id <= to; id++) {
+            skipped.put(id, now);
+            ids.add(id);
+        }
+        for (OutboxSubscriber subscriber : subscribers) {
+            subscriber.skipped(ids);
+        }
+        log.warn("⚠️ Outbox events {} to {} not committed after {} ms, skipping them for now", from, to,
+            gapTimeoutMillis);
+    }
+
+    // Skipped events whose transactions have committed meanwhile, each on its own
+    private void deliverLate() {
+        if (skipped.isEmpty()) {
+            return;
+        }
+        for (OutboxEvent event : outboxEventRepository.findByIdInOrderByIdAsc(new ArrayList<>(skipped.keySet()))) {
+            if (deliver(Collections.singletonList(event)) == 1) {
+                // Delivered, or dead-lettered after its last attempt
+                skipped.remove(event.getId());
+                delivered.increment();
+                log.info("📮 Outbox event {} committed late and was handled", event.getId());
+            }
+        }
+        long cutoff = System.currentTimeMillis() - lateCommitMillis;
+        List<Long> abandoned = new ArrayList<>();
+        for (Iterator<Map.Entry<Long, Long>> iterator = skipped.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<Long, Long> entry = iterator.next();
+            if (entry.getValue() < cutoff) {
+                abandoned.add(entry.getKey());
+                iterator.remove();
+            }
+        }
+        if (!abandoned.isEmpty()) {
+            for (OutboxSubscriber subscriber : subscribers) {
+                subscriber.abandoned(abandoned);
+            }
+        }
+    }
+
+    /**
+     * Hands the events to every subscriber and returns how many of them are done
+     * with: all of them, or those before the first event that failed and isn't
+     * dead-lettered yet. Subscribers tolerate repeats, so the events before a
+     * failure are simply handled again one at a time.
+     */
+    private int deliver(List<OutboxEvent> events) {
+        try {
+            handle(events);
+            if (!failures.isEmpty()) {
+                for (OutboxEvent event : events) {
+                    failures.remove(event.getId());
+                }
+            }
+            return events.size();
+        } catch (RuntimeException batchFailure) {
+            for (int i = 0; i < events.size(); i++) {
+                OutboxEvent event = events.get(i);
+                try {
+                    handle(Collections.singletonList(event));
+                    failures.remove(event.getId());
+                } catch (RuntimeException e) {
+                    if (!failed(event, e)) {
+                        return i;
+                    }
+                }
+            }
+            return events.size();
+        }
+    }
+
+    private void handle(List<OutboxEvent> events) {
+        for (OutboxSubscriber subscriber : subscribers) {
+            subscriber.handle(events);
+        }
+    }
+
+    // True once the event is dead-lettered and can be passed over
+    private boolean failed(OutboxEvent event, RuntimeException e) {
+        int attempts = failures.merge(event.getId(), 1, Integer::sum);
+        if (attempts < maxAttempts) {
+            log.warn("⚠️ Outbox event {} ({}) failed delivery attempt {} of {}: {}", event.getId(),
+                event.getEventType(), attempts, maxAttempts, e.getMessage());
+            return false;
+        }
+        String error = String.valueOf(e);
+        String lastError = error.length() > ERROR_LENGTH ? error.substring(0, ERROR_LENGTH) : error;
+        transactionTemplate.executeWithoutResult(status ->
+            outboxEventRepository.markDeadLettered(event.getId(), LocalDateTime.now(), attempts, lastError));
+        failures.remove(event.getId());
+        deadLettered.increment();
+        log.error("❌ Outbox event {} ({}) failed {} delivery attempts and was dead-lettered", event.getId(),
+            event.getEventType(), attempts, e);
+        return true;
+    }
+
+    private void prune() {
+        long now = System.currentTimeMillis();
+        if (now - lastPrune < TimeUnit.MINUTES.toMillis(10)) {
+            return;
+        }
+        lastPrune = now;
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        Integer pruned = transactionTemplate.execute(status ->
+            outboxEventRepository.deleteDeliveredBefore(watermark.get(), before));
+        if (pruned != null && pruned > 0) {
+            log.info("🧹 Pruned {} delivered outbox events", pruned);
+        }
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : System.currentTimeMillis();
+    }
+}
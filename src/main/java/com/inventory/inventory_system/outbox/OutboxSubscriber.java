@@ -0,0 +1,37 @@
+package com.inventory.inventory_system.outbox;
+
+import com.inventory.inventory_system.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * In-process consumer of the outbox, called by the OutboxRelay on its own thread.
+ * Delivery is at least once: after a failure or a restart the events since the
+ * last saved watermark come again, so handling must tolerate repeats.
+ */
+public interface OutboxSubscriber {
+
+    /**
+     * Called once before the first batch. Every event up to deliveredUpTo was
+     * handled before the last shutdown; subscribers with in-memory state rebuild
+     * it here.
+     */
+    default void resume(long deliveredUpTo) {
+    }
+
+    /**
+     * Events in id order, except that an event the relay skipped as a gap (see
+     * {@link #skipped}) comes on its own later if its transaction commits after
+     * all. Throwing stops the batch; it is delivered again, one event at a time,
+     * and an event that keeps failing is eventually dead-lettered and passed over.
+     */
+    void handle(List<OutboxEvent> events);
+
+    // Ids the relay moved past without an event; any of them may still be delivered late
+    default void skipped(List<Long> ids) {
+    }
+
+    // Skipped ids the relay stopped looking for, their transactions rolled back
+    default void abandoned(List<Long> ids) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.inventory.inventory_system.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.inventory_system.dto.Money;
+import com.inventory.inventory_system.dto.SalesTotal;
+import com.inventory.inventory_system.entity.OutboxEvent;
+import com.inventory.inventory_system.repository.OutboxEventRepository;
+import com.inventory.inventory_system.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sales totals by category and by month for the dashboard, kept up to date from
+ * the outbox instead of loading every sale on each page view.
+ *
+ * On startup the totals are summed in the database, together with the ids of
+ * the outbox events the sums already include, in one serializable (snapshot)
+ * transaction. Those events, and anything at or below the relay's watermark,
+ * are skipped when delivered; every other sale event is applied once, since
+ * the relay delivers in id order. The one exception is an event the relay
+ * skipped as a gap and delivers late: its id is remembered until it comes or
+ * the relay gives up on it.
+ */
+@Component
+public class SalesRollup implements OutboxSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollup.class);
+
+    private final SaleRepository saleRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate snapshotTemplate;
+
+    // Guarded by this
+    private final Map<String, Total> byCategory = new HashMap<>();
+    private final Map<YearMonth, Total> byMonth = new HashMap<>();
+    private final Set<Long> counted = new HashSet<>();
+    private final Set<Long> late = new HashSet<>();
+    private long countedUpTo;
+    private long saleCount;
+    private boolean ready;
+
+    public SalesRollup(SaleRepository saleRepository, OutboxEventRepository outboxEventRepository,
+                       ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.saleRepository = saleRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        this.snapshotTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void resume(long deliveredUpTo) {
+        long start = System.nanoTime();
+        snapshotTemplate.executeWithoutResult(status -> {
+            List<SalesTotal> categories = saleRepository.sumByCategory();
+            List<SalesTotal> months = saleRepository.sumByMonth();
+            List<Long> included = outboxEventRepository.findIdsAfter(deliveredUpTo);
+            synchronized (this) {
+                byCategory.clear();
+                byMonth.clear();
+                saleCount = 0;
+                for (SalesTotal total : categories) {
+                    byCategory.computeIfAbsent(categoryKey(total.getCategory()), key -> new Total())
+                        .add(total.getCount(), total.getCents());
+                    saleCount += total.getCount();
+                }
+                for (SalesTotal total : months) {
+                    byMonth.computeIfAbsent(total.getMonth(), key -> new Total()).add(total.getCount(), total.getCents());
+                }
+                counted.clear();
+                counted.addAll(included);
+                late.clear();
+                countedUpTo = deliveredUpTo;
+                ready = true;
+            }
+        });
+        log.info("📊 Sales rollup loaded: {} sales in {} categories in {} ms", saleCount, byCategory.size(),
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            int sign;
+            if (OutboxEvent.SALE_CREATED.equals(event.getEventType())) {
+                sign = 1;
+            } else if (OutboxEvent.SALE_DELETED.equals(event.getEventType())) {
+                sign = -1;
+            } else {
+                sign = 0;
+            }
+            JsonNode payload = sign != 0 ? read(event) : null;
+            synchronized (this) {
+                boolean isLate = event.getId() <= countedUpTo && late.remove(event.getId());
+                if ((event.getId() <= countedUpTo && !isLate) || counted.remove(event.getId())) {
+                    continue;
+                }
+                countedUpTo = Math.max(countedUpTo, event.getId());
+                if (sign == 0) {
+                    continue;
+                }
+                Long cents = payload.hasNonNull("totalCents") ? sign * payload.get("totalCents").asLong() : null;
+                byCategory.computeIfAbsent(categoryKey(payload.path("productCategory").asText(null)), key -> new Total())
+                    .add(sign, cents);
+                if (payload.hasNonNull("saleDate")) {
+                    YearMonth month = YearMonth.from(LocalDateTime.parse(payload.get("saleDate").asText()));
+                    byMonth.computeIfAbsent(month, key -> new Total()).add(sign, cents);
+                }
+                saleCount += sign;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void skipped(List<Long> ids) {
+        for (Long id : ids) {
+            if (id > countedUpTo) {
+                late.add(id);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void abandoned(List<Long> ids) {
+        late.removeAll(ids);
+    }
+
+    public synchronized boolean isReady() { return ready; }
+
+    public synchronized long getSaleCount() { return saleCount; }
+
+    // Categories with at least one sale amount, same as summing the loaded sales
+    public synchronized Map<String, Money.Total> getSalesByCategory() {
+        Map<String, Money.Total> totals = new HashMap<>();
+        byCategory.forEach((category, total) -> {
+            if (total.count > 0 && total.hasAmount) {
+                totals.put(category, total.toMoneyTotal());
+            }
+        });
+        return totals;
+    }
+
+    public synchronized Money.Total getMonthTotal(YearMonth month) {
+        Total total = byMonth.get(month);
+        return total != null ? total.toMoneyTotal() : new Money.Total();
+    }
+
+    private static String categoryKey(String category) {
+        return category == null || category.trim().isEmpty() ? "Uncategorized" : category;
+    }
+
+    private JsonNode read(OutboxEvent event) {
+        try {
+            return objectMapper.readTree(event.getPayload());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Total {
+
+        private long count;
+        private long cents;
+        private boolean hasAmount;
+
+        private void add(long sales, Long amountCents) {
+            count += sales;
+            if (amountCents != null) {
+                cents = Math.addExact(cents, amountCents);
+                hasAmount = true;
+            }
+        }
+
+        private Money.Total toMoneyTotal() {
+            return new Money.Total().addCents(cents);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.inventory.inventory_system.repository;
+
+import com.inventory.inventory_system.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+    
+    // Plain insert, no merge lookup first: a key that is already taken fails on the primary key
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, sale_id, created_at) VALUES (?1, ?2, ?3)",
+           nativeQuery = true)
+    int insert(String idempotencyKey, Long saleId, LocalDateTime createdAt);
+    
+    @Query("SELECT k.saleId FROM IdempotencyKey k WHERE k.idempotencyKey = ?1")
+    Long findSaleId(String idempotencyKey);
+    
+    @Query("SELECT k.idempotencyKey FROM IdempotencyKey k WHERE k.idempotencyKey IN ?1")
+    List<String> findExisting(Collection<String> idempotencyKeys);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < ?1")
+    int deleteCreatedBefore(LocalDateTime createdBefore);
+}
@@ -0,0 +1,9 @@
+package com.inventory.inventory_system.repository;
+
+import com.inventory.inventory_system.entity.OutboxCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxCursorRepository extends JpaRepository<OutboxCursor, String> {
+}
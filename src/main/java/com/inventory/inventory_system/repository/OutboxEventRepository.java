@@ -0,0 +1,34 @@
+package com.inventory.inventory_system.repository;
+
+import com.inventory.inventory_system.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    // Keyset paging for the relay: pass the last id delivered
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Events the relay skipped as a gap and is still looking for
+    List<OutboxEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+    
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.id > ?1")
+    List<Long> findIdsAfter(Long id);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.failedAt = ?2, e.attempts = ?3, e.lastError = ?4 WHERE e.id = ?1")
+    int markDeadLettered(Long id, LocalDateTime failedAt, int attempts, String lastError);
+    
+    // Delivered events are kept for a while for troubleshooting, then dropped; dead letters stay
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= ?1 AND e.createdAt < ?2 AND e.failedAt IS NULL")
+    int deleteDeliveredBefore(Long deliveredUpTo, LocalDateTime createdBefore);
+}
@@ -1,15 +1,38 @@
 package com.inventory.inventory_system.repository;
 
+import com.inventory.inventory_system.dto.ProductListItem;
+import com.inventory.inventory_system.dto.ProductStockSummary;
+import com.inventory.inventory_system.dto.ReorderCandidate;
+import com.inventory.inventory_system.dto.StockLevel;
+import com.inventory.inventory_system.dto.StockThreshold;
 import com.inventory.inventory_system.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
+    // Product list page columns; the TEXT description comes back as a preview of at most 120 characters
+    String LIST_ITEM = "SELECT new com.inventory.inventory_system.dto.ProductListItem(p.id, p.name, " +
+            "CASE WHEN LENGTH(p.description) > 120 THEN CONCAT(SUBSTRING(p.description, 1, 117), '...') " +
+            "ELSE p.description END, p.sku, p.category, p.price, p.quantity, p.reorderLevel) FROM Product p ";
+    
+    @Query(LIST_ITEM + "ORDER BY p.id")
+    List<ProductListItem> findListItems();
+    
+    @Query(LIST_ITEM + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', ?1, '%')) ORDER BY p.id")
+    List<ProductListItem> findListItemsByNameContaining(String name);
+    
+    @Query(LIST_ITEM + "WHERE p.category = ?1 ORDER BY p.id")
+    List<ProductListItem> findListItemsByCategory(String category);
+    
     List<Product> findByNameContainingIgnoreCase(String name);
     
     List<Product> findByCategory(String category);
@@ -25,13 +48,60 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.quantity > 0")
     List<Product> findInStockProducts();
     
-    @Query("SELECT p FROM Product p WHERE p.quantity > 0 AND p.quantity <= ?1")
-    List<Product> findLowStockProducts(Integer reorderLevel);
+    // Kept up to date by the LowStockMonitor, the column is indexed
+    List<Product> findByLowStockFlagTrueOrderByQuantityAsc();
+    
+    long countByLowStockFlagTrue();
     
     long countByQuantityGreaterThan(Integer quantity);
     
     long countByQuantity(Integer quantity);
     
+    // Keyset paging for exports: pass the last id of the previous batch
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    @Query("SELECT new com.inventory.inventory_system.dto.ProductStockSummary(COUNT(p), " +
+           "SUM(CASE WHEN p.quantity > 0 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.lowStockFlag = true THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.quantity IS NULL OR p.quantity = 0 THEN 1 ELSE 0 END)) FROM Product p")
+    ProductStockSummary getStockSummary();
+    
+    @Query("SELECT new com.inventory.inventory_system.dto.StockLevel(p.id, p.quantity) FROM Product p")
+    List<StockLevel> findStockLevels();
+    
+    @Query("SELECT new com.inventory.inventory_system.dto.StockLevel(p.id, p.quantity) FROM Product p " +
+           "WHERE p.id BETWEEN ?1 AND ?2")
+    List<StockLevel> findStockLevels(Long fromId, Long toId);
+    
+    @Query("SELECT new com.inventory.inventory_system.dto.StockThreshold(p.id, p.quantity, p.reorderLevel) " +
+           "FROM Product p")
+    List<StockThreshold> findStockThresholds();
+    
+    @Query("SELECT new com.inventory.inventory_system.dto.ReorderCandidate(p.id, p.name, p.sku, p.supplierId, " +
+           "p.quantity, p.reorderLevel) FROM Product p WHERE p.id BETWEEN ?1 AND ?2")
+    List<ReorderCandidate> findReorderCandidates(Long fromId, Long toId);
+    
+    // Sets low_stock from quantity and reorder level for every row, as Product.isLowStock() would
+    @Modifying
+    @Query("UPDATE Product p SET p.lowStockFlag = CASE WHEN p.quantity > 0 AND p.quantity <= " +
+           "COALESCE(p.reorderLevel, " + Product.DEFAULT_REORDER_LEVEL + ") THEN true ELSE false END")
+    int recomputeLowStock();
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.lowStockFlag = ?2 WHERE p.id = ?1")
+    int setLowStock(Long id, boolean lowStock);
+    
+    @Query("SELECT MAX(p.id) FROM Product p")
+    Long findMaxId();
+    
+    // In place, so concurrent decrements of the same row can't overwrite each other
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = p.quantity - ?2, p.updatedAt = ?3 WHERE p.id = ?1")
+    int decrementStock(Long id, int quantity, LocalDateTime updatedAt);
+    
+    @Query("SELECT COALESCE(SUM(p.price * p.quantity), 0) FROM Product p")
+    BigDecimal getTotalInventoryValue();
+    
     Product findBySku(String sku);
     
     boolean existsBySku(String sku);
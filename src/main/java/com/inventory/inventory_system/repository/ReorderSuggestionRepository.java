@@ -0,0 +1,27 @@
+package com.inventory.inventory_system.repository;
+
+import com.inventory.inventory_system.entity.ReorderSuggestion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReorderSuggestionRepository extends JpaRepository<ReorderSuggestion, Long> {
+    
+    // Most urgent first: the least cover, then the largest shortfall when nothing is forecast to sell
+    @Query("SELECT s FROM ReorderSuggestion s ORDER BY s.daysOfCover ASC NULLS LAST, s.suggestedQuantity DESC")
+    List<ReorderSuggestion> findMostUrgent(Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM ReorderSuggestion s WHERE s.productId BETWEEN ?1 AND ?2")
+    int deleteByProductIdRange(Long fromProductId, Long toProductId);
+    
+    // Left over from products past the current highest id
+    @Modifying
+    @Query("DELETE FROM ReorderSuggestion s WHERE s.productId > ?1")
+    int deleteAfterProductId(Long productId);
+}
@@ -0,0 +1,9 @@
+package com.inventory.inventory_system.repository;
+
+import com.inventory.inventory_system.entity.SaleOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SaleOrderRepository extends JpaRepository<SaleOrder, Long> {
+}
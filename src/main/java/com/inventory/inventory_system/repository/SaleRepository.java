@@ -1,20 +1,74 @@
 package com.inventory.inventory_system.repository;
 
+import com.inventory.inventory_system.dto.DailySales;
+import com.inventory.inventory_system.dto.SaleListItem;
+import com.inventory.inventory_system.dto.SalesTotal;
+import com.inventory.inventory_system.dto.StockLevel;
 import com.inventory.inventory_system.entity.Sale;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long> {
     
+    // Sales history page columns
+    @Query("SELECT new com.inventory.inventory_system.dto.SaleListItem(s.id, s.productName, s.productSku, " +
+           "s.quantity, s.unitPrice, s.totalAmount, s.saleDate, s.customerName, s.customerEmail, s.paymentMethod, " +
+           "s.orderId) FROM Sale s ORDER BY s.id")
+    List<SaleListItem> findListItems();
+    
+    // Lines of an order, in the order they were entered
+    List<Sale> findByOrderIdOrderByIdAsc(Long orderId);
+    
+    // Dashboard rollup seeds, see SalesRollup
+    @Query("SELECT new com.inventory.inventory_system.dto.SalesTotal(s.productCategory, COUNT(s), SUM(s.totalAmount)) " +
+           "FROM Sale s GROUP BY s.productCategory")
+    List<SalesTotal> sumByCategory();
+    
+    @Query("SELECT new com.inventory.inventory_system.dto.SalesTotal(YEAR(s.saleDate), MONTH(s.saleDate), COUNT(s), " +
+           "SUM(s.totalAmount)) FROM Sale s WHERE s.saleDate IS NOT NULL GROUP BY YEAR(s.saleDate), MONTH(s.saleDate)")
+    List<SalesTotal> sumByMonth();
+    
+    // Units sold per product and day in [from, to), for the demand forecast
+    @Query("SELECT new com.inventory.inventory_system.dto.DailySales(s.productId, YEAR(s.saleDate), MONTH(s.saleDate), " +
+           "DAY(s.saleDate), SUM(s.quantity)) FROM Sale s WHERE s.productId BETWEEN ?1 AND ?2 " +
+           "AND s.saleDate >= ?3 AND s.saleDate < ?4 " +
+           "GROUP BY s.productId, YEAR(s.saleDate), MONTH(s.saleDate), DAY(s.saleDate)")
+    List<DailySales> sumDailyQuantities(Long fromProductId, Long toProductId, LocalDateTime from, LocalDateTime to);
+    
+    @Query("SELECT MAX(s.journalSequence) FROM Sale s")
+    Long findLastJournalSequence();
+    
+    @Query("SELECT s.id FROM Sale s WHERE s.journalSequence = ?1")
+    Long findIdByJournalSequence(Long journalSequence);
+    
+    // Quantity per product and bin sold through the StockLedger but not yet flushed
+    @Query("SELECT new com.inventory.inventory_system.dto.StockLevel(s.productId, s.location, SUM(s.quantity)) " +
+           "FROM Sale s WHERE s.stockPending = true GROUP BY s.productId, s.location")
+    List<StockLevel> sumPendingStockByBin();
+    
+    @Modifying
+    @Query("UPDATE Sale s SET s.stockPending = false WHERE s.id IN ?1")
+    int clearStockPending(Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE Sale s SET s.stockPending = false WHERE s.stockPending = true")
+    int clearAllStockPending();
+    
     // Find sales between dates
     List<Sale> findBySaleDateBetween(LocalDateTime start, LocalDateTime end);
     
+    // Keyset paging over a date range: pass the last id of the previous batch
+    List<Sale> findBySaleDateBetweenAndIdGreaterThanOrderByIdAsc(LocalDateTime start, LocalDateTime end, Long id, Pageable pageable);
+    
     // Find sales by product ID
     List<Sale> findByProductId(Long productId);
     
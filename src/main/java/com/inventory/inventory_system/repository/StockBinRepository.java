@@ -0,0 +1,47 @@
+package com.inventory.inventory_system.repository;
+
+import com.inventory.inventory_system.entity.StockBin;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockBinRepository extends JpaRepository<StockBin, Long> {
+    
+    List<StockBin> findByProductId(Long productId);
+    
+    @Modifying
+    void deleteByProductId(Long productId);
+    
+    // In place, like ProductRepository.decrementStock
+    @Modifying
+    @Query("UPDATE StockBin b SET b.quantity = b.quantity + ?3, b.updatedAt = ?4 WHERE b.productId = ?1 AND b.location = ?2")
+    int adjustQuantity(Long productId, String location, int delta, LocalDateTime updatedAt);
+    
+    // Set-based so startup stays quick on a large catalog: an empty bin at the location for
+    // every product that lacks one
+    @Modifying
+    @Query(value = "INSERT INTO stock_bins (product_id, location, quantity, updated_at) " +
+                   "SELECT p.id, ?1, 0, ?2 FROM products p WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM stock_bins b WHERE b.product_id = p.id AND b.location = ?1)",
+           nativeQuery = true)
+    int insertMissingBins(String location, LocalDateTime updatedAt);
+    
+    // Whatever products.quantity has beyond the other bins belongs in the default bin. Covers
+    // products written without bins (sample and synthetic data) and edits of the total
+    @Modifying
+    @Query(value = "UPDATE stock_bins b SET quantity = " +
+                   "(SELECT p.quantity FROM products p WHERE p.id = b.product_id) - " +
+                   "(SELECT COALESCE(SUM(o.quantity), 0) FROM stock_bins o " +
+                   "WHERE o.product_id = b.product_id AND o.location <> b.location), updated_at = ?2 " +
+                   "WHERE b.location = ?1 AND b.quantity <> " +
+                   "(SELECT p.quantity FROM products p WHERE p.id = b.product_id) - " +
+                   "(SELECT COALESCE(SUM(o.quantity), 0) FROM stock_bins o " +
+                   "WHERE o.product_id = b.product_id AND o.location <> b.location)",
+           nativeQuery = true)
+    int reconcileDefaultBins(String location, LocalDateTime updatedAt);
+}
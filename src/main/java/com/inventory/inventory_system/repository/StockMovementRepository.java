@@ -0,0 +1,55 @@
+package com.inventory.inventory_system.repository;
+
+import com.inventory.inventory_system.dto.StockLevel;
+import com.inventory.inventory_system.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+    
+    List<StockMovement> findTop20ByProductIdOrderByIdDesc(Long productId);
+    
+    @Query("SELECT MAX(m.id) FROM StockMovement m")
+    Long findMaxId();
+    
+    // Net change per product after a movement id, for the products in an id range
+    @Query("SELECT new com.inventory.inventory_system.dto.StockLevel(m.productId, SUM(m.quantityChange)) " +
+           "FROM StockMovement m WHERE m.id > ?1 AND m.productId BETWEEN ?2 AND ?3 GROUP BY m.productId")
+    List<StockLevel> sumChangesAfter(Long movementId, Long fromProductId, Long toProductId);
+    
+    @Query("SELECT COALESCE(SUM(m.quantityChange), 0) FROM StockMovement m WHERE m.productId = ?1 AND m.id > ?2")
+    long sumChangesAfter(Long productId, Long movementId);
+    
+    // One SALE movement per sale, copied from the sale rows in the same statement
+    @Modifying
+    @Query(value = "INSERT INTO stock_movements (product_id, location, quantity_change, movement_type, sale_id, created_at) " +
+                   "SELECT s.product_id, COALESCE(s.location, :location), -s.quantity, 'SALE', s.id, :now " +
+                   "FROM sales s WHERE s.id IN (:ids)",
+           nativeQuery = true)
+    int insertSaleMovements(@Param("ids") Collection<Long> saleIds, @Param("location") String defaultLocation,
+                            @Param("now") LocalDateTime now);
+    
+    // Same for the sales still flagged stock_pending at startup
+    @Modifying
+    @Query(value = "INSERT INTO stock_movements (product_id, location, quantity_change, movement_type, sale_id, created_at) " +
+                   "SELECT s.product_id, COALESCE(s.location, ?1), -s.quantity, 'SALE', s.id, ?2 " +
+                   "FROM sales s WHERE s.stock_pending = TRUE",
+           nativeQuery = true)
+    int insertPendingSaleMovements(String defaultLocation, LocalDateTime now);
+    
+    // Opening stock of products written without movements (sample, synthetic and imported data)
+    @Modifying
+    @Query(value = "INSERT INTO stock_movements (product_id, location, quantity_change, movement_type, created_at) " +
+                   "SELECT p.id, ?1, p.quantity, 'IMPORT', ?2 FROM products p WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM stock_movements m WHERE m.product_id = p.id)",
+           nativeQuery = true)
+    int insertImportMovements(String defaultLocation, LocalDateTime now);
+}
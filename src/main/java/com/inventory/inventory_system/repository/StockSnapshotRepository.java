@@ -0,0 +1,45 @@
+package com.inventory.inventory_system.repository;
+
+import com.inventory.inventory_system.dto.StockLevel;
+import com.inventory.inventory_system.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+    
+    Optional<StockSnapshot> findFirstByProductIdOrderByLastMovementIdDesc(Long productId);
+    
+    // Movements up to here are covered by every product's latest snapshot
+    @Query("SELECT MAX(s.lastMovementId) FROM StockSnapshot s")
+    Long findLastMovementId();
+    
+    @Query("SELECT new com.inventory.inventory_system.dto.StockLevel(s.productId, s.quantity) FROM StockSnapshot s " +
+           "WHERE s.productId BETWEEN ?1 AND ?2 AND s.lastMovementId = " +
+           "(SELECT MAX(l.lastMovementId) FROM StockSnapshot l WHERE l.productId = s.productId)")
+    List<StockLevel> findLatestQuantities(Long fromProductId, Long toProductId);
+    
+    // A new snapshot for every product that moved in (after, upTo]: its latest snapshot plus those movements
+    @Modifying
+    @Query(value = "INSERT INTO stock_snapshots (product_id, quantity, last_movement_id, taken_at) " +
+                   "SELECT m.product_id, COALESCE((SELECT s.quantity FROM stock_snapshots s " +
+                   "WHERE s.product_id = m.product_id ORDER BY s.last_movement_id DESC LIMIT 1), 0) " +
+                   "+ SUM(m.quantity_change), ?2, ?3 " +
+                   "FROM stock_movements m WHERE m.id > ?1 AND m.id <= ?2 GROUP BY m.product_id",
+           nativeQuery = true)
+    int insertSnapshots(Long afterMovementId, Long upToMovementId, LocalDateTime takenAt);
+    
+    // Keeps each product's latest snapshot however old it is
+    @Modifying
+    @Query(value = "DELETE FROM stock_snapshots s WHERE s.taken_at < ?1 AND EXISTS " +
+                   "(SELECT 1 FROM stock_snapshots l WHERE l.product_id = s.product_id " +
+                   "AND l.last_movement_id > s.last_movement_id)",
+           nativeQuery = true)
+    int deleteSupersededBefore(LocalDateTime takenBefore);
+}
@@ -1,7 +1,9 @@
 package com.inventory.inventory_system.repository;
 
+import com.inventory.inventory_system.dto.SupplierListItem;
 import com.inventory.inventory_system.entity.Supplier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,6 +12,20 @@ import java.util.Optional;
 @Repository
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     
+    // Supplier list page columns
+    String LIST_ITEM = "SELECT new com.inventory.inventory_system.dto.SupplierListItem(s.id, s.name, " +
+            "s.contactPerson, s.email, s.phone, s.city, s.country, s.supplierCode, s.isActive) FROM Supplier s ";
+    
+    @Query(LIST_ITEM + "ORDER BY s.id")
+    List<SupplierListItem> findListItems();
+    
+    @Query(LIST_ITEM + "WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', ?1, '%')) ORDER BY s.id")
+    List<SupplierListItem> findListItemsByNameContaining(String name);
+    
+    @Query("SELECT DISTINCT s.country FROM Supplier s WHERE s.country IS NOT NULL AND TRIM(s.country) <> '' " +
+           "ORDER BY s.country")
+    List<String> findCountries();
+    
     List<Supplier> findByNameContainingIgnoreCase(String name);
     
     List<Supplier> findByContactPersonContainingIgnoreCase(String contactPerson);
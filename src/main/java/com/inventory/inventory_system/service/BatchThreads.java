@@ -0,0 +1,38 @@
+package com.inventory.inventory_system.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Default worker count for the background batches that run one transaction
+ * per chunk. Each worker holds a pooled connection while its chunk runs, so
+ * they get at most half the Hikari pool and requests keep the rest.
+ */
+final class BatchThreads {
+
+    // Hikari's default maximum pool size
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private BatchThreads() {}
+
+    // The configured count if set (> 0), else one per CPU up to half the connection pool
+    static int of(int configured, DataSource dataSource) {
+        if (configured > 0) {
+            return configured;
+        }
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), poolSize(dataSource) / 2));
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            // Not a pool we can size, assume Hikari's default
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
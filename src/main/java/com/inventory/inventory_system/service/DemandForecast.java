@@ -0,0 +1,63 @@
+package com.inventory.inventory_system.service;
+
+import java.util.Arrays;
+
+/**
+ * Additive Holt-Winters smoothing (level, trend and a weekly season) of one
+ * product's units sold per day. A history shorter than two weeks only gets
+ * simple exponential smoothing, and no day is ever forecast below zero.
+ */
+final class DemandForecast {
+
+    static final int SEASON_DAYS = 7;
+
+    private static final double LEVEL_SMOOTHING = 0.3;
+    private static final double TREND_SMOOTHING = 0.05;
+    private static final double SEASON_SMOOTHING = 0.2;
+
+    private DemandForecast() {}
+
+    // Units per day for the horizon days right after the history, which ends yesterday
+    static double[] forecast(int[] daily, int horizon) {
+        double[] forecast = new double[horizon];
+        if (daily.length == 0) {
+            return forecast;
+        }
+        if (daily.length < 2 * SEASON_DAYS) {
+            double level = daily[0];
+            for (int t = 1; t < daily.length; t++) {
+                level = LEVEL_SMOOTHING * daily[t] + (1 - LEVEL_SMOOTHING) * level;
+            }
+            Arrays.fill(forecast, Math.max(0, level));
+            return forecast;
+        }
+
+        // Seeded from the first two weeks: their mean difference is the trend, the first
+        // week's days against its mean are the season
+        double firstWeek = 0;
+        double secondWeek = 0;
+        for (int i = 0; i < SEASON_DAYS; i++) {
+            firstWeek += daily[i];
+            secondWeek += daily[i + SEASON_DAYS];
+        }
+        double level = firstWeek / SEASON_DAYS;
+        double trend = (secondWeek - firstWeek) / SEASON_DAYS / SEASON_DAYS;
+        double[] season = new double[SEASON_DAYS];
+        for (int i = 0; i < SEASON_DAYS; i++) {
+            season[i] = daily[i] - level;
+        }
+
+        for (int t = SEASON_DAYS; t < daily.length; t++) {
+            int day = t % SEASON_DAYS;
+            double previousLevel = level;
+            level = LEVEL_SMOOTHING * (daily[t] - season[day]) + (1 - LEVEL_SMOOTHING) * (level + trend);
+            trend = TREND_SMOOTHING * (level - previousLevel) + (1 - TREND_SMOOTHING) * trend;
+            season[day] = SEASON_SMOOTHING * (daily[t] - level) + (1 - SEASON_SMOOTHING) * season[day];
+        }
+
+        for (int h = 1; h <= horizon; h++) {
+            forecast[h - 1] = Math.max(0, level + h * trend + season[(daily.length - 1 + h) % SEASON_DAYS]);
+        }
+        return forecast;
+    }
+}
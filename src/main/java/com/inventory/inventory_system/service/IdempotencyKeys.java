@@ -0,0 +1,199 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes sale submissions carrying an idempotency key run at most once, so a
+ * terminal retrying a POST doesn't sell the stock twice.
+ *
+ * Keys that completed recently are kept in an LRU with a TTL, answered without
+ * touching the database. A key still being processed is claimed in a concurrent
+ * map, so a duplicate arriving meanwhile waits for the first attempt's result
+ * instead of running alongside it. The key table (written in the sale's own
+ * transaction, its primary key rejecting a second insert) is only read when an
+ * attempt fails: a sale recorded before the cache knew the key, by an earlier run
+ * or after eviction, then fails on the key or on the stock it already took.
+ */
+@Component
+public class IdempotencyKeys {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeys.class);
+
+    public static final int MAX_LENGTH = 100;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int cacheSize;
+    private final long ttlMillis;
+    private final long waitMillis;
+    private final long retentionHours;
+    private final Counter replayed;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-keys");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Access-ordered: the eldest entry is the least recently used. Guarded by itself
+    private final LinkedHashMap<String, Completed> completed;
+    private final Map<String, CompletableFuture<Long>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyKeys(IdempotencyKeyRepository idempotencyKeyRepository, TransactionTemplate transactionTemplate,
+                           MeterRegistry registry,
+                           @Value("${inventory.idempotency.cache-size:10000}") int cacheSize,
+                           @Value("${inventory.idempotency.ttl-ms:3600000}") long ttlMillis,
+                           @Value("${inventory.idempotency.wait-ms:10000}") long waitMillis,
+                           @Value("${inventory.idempotency.retention-hours:72}") long retentionHours) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheSize = cacheSize;
+        this.ttlMillis = ttlMillis;
+        this.waitMillis = waitMillis;
+        this.retentionHours = retentionHours;
+        this.completed = new LinkedHashMap<String, Completed>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+                return size() > IdempotencyKeys.this.cacheSize;
+            }
+        };
+        this.replayed = Counter.builder("inventory.sales.replayed")
+            .description("Sale submissions answered from an earlier attempt with the same idempotency key")
+            .register(registry);
+        scheduler.scheduleWithFixedDelay(this::prune, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // Blank means no key; anything longer than the column is refused rather than cut
+    public static String normalize(String key) {
+        if (key == null || key.trim().isEmpty()) {
+            return null;
+        }
+        key = key.trim();
+        if (key.length() > MAX_LENGTH) {
+            throw new RuntimeException("Idempotency key must be at most " + MAX_LENGTH + " characters");
+        }
+        return key;
+    }
+
+    /**
+     * Runs the sale once per key and returns its sale id; a repeated key returns the
+     * first attempt's id without running it again. The id is null for a sale only
+     * accepted so far (journal mode). A failed attempt records nothing, so the key
+     * can be retried. Without a key the sale just runs.
+     */
+    public Long execute(String key, Supplier<Long> sale) {
+        if (key == null) {
+            return sale.get();
+        }
+        while (true) {
+            Completed done = cached(key);
+            if (done != null) {
+                return replay(key, done.saleId);
+            }
+            CompletableFuture<Long> claim = new CompletableFuture<>();
+            CompletableFuture<Long> running = inFlight.putIfAbsent(key, claim);
+            if (running != null) {
+                try {
+                    return replay(key, running.get(waitMillis, TimeUnit.MILLISECONDS));
+                } catch (ExecutionException e) {
+                    // The first attempt stored nothing, this one gets to try
+                    continue;
+                } catch (TimeoutException e) {
+                    throw new RuntimeException("A sale with this idempotency key is still being processed, try again shortly");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for a sale with the same idempotency key");
+                }
+            }
+            try {
+                Long saleId = run(key, sale);
+                synchronized (completed) {
+                    completed.put(key, new Completed(saleId, System.currentTimeMillis() + ttlMillis));
+                }
+                claim.complete(saleId);
+                return saleId;
+            } catch (RuntimeException e) {
+                claim.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, claim);
+            }
+        }
+    }
+
+    private Long run(String key, Supplier<Long> sale) {
+        try {
+            return sale.get();
+        } catch (RuntimeException e) {
+            Long saleId = idempotencyKeyRepository.findSaleId(key);
+            if (saleId == null) {
+                throw e;
+            }
+            return replay(key, saleId);
+        }
+    }
+
+    private Completed cached(String key) {
+        synchronized (completed) {
+            Completed done = completed.get(key);
+            if (done != null && done.expiresAt < System.currentTimeMillis()) {
+                completed.remove(key);
+                return null;
+            }
+            return done;
+        }
+    }
+
+    private Long replay(String key, Long saleId) {
+        replayed.increment();
+        log.info("🔁 Repeated sale submission with idempotency key {} answered with sale {}", key, saleId);
+        return saleId;
+    }
+
+    private void prune() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+            Integer pruned = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteCreatedBefore(before));
+            if (pruned != null && pruned > 0) {
+                log.info("🧹 Pruned {} idempotency keys older than {} hours", pruned, retentionHours);
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not prune idempotency keys: {}", e.getMessage());
+        }
+    }
+
+    private static final class Completed {
+
+        private final Long saleId;
+        private final long expiresAt;
+
+        private Completed(Long saleId, long expiresAt) {
+            this.saleId = saleId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
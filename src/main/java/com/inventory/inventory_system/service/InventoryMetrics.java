@@ -0,0 +1,56 @@
+package com.inventory.inventory_system.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business counters. Registered up front so every series is scraped as 0
+ * before the first event instead of appearing out of nowhere.
+ */
+@Component
+public class InventoryMetrics {
+
+    private static final String[] EXPORTS = {
+        "products:excel", "sales:excel", "reports:excel",
+        "product:pdf", "products:pdf", "low-stock:pdf", "sale:pdf", "receipts:zip"
+    };
+
+    private final MeterRegistry registry;
+    private final Counter salesCommitted;
+    private final Counter stockRejections;
+
+    public InventoryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.salesCommitted = Counter.builder("inventory.sales.committed")
+            .description("Checkouts (single sales or whole orders) saved with their stock decrement")
+            .register(registry);
+        this.stockRejections = Counter.builder("inventory.stock.rejections")
+            .description("Sales refused because the product had too little stock")
+            .register(registry);
+        for (String export : EXPORTS) {
+            String[] parts = export.split(":");
+            exportCounter(parts[0], parts[1]);
+        }
+    }
+
+    public void saleCommitted() {
+        salesCommitted.increment();
+    }
+
+    public void stockRejected() {
+        stockRejections.increment();
+    }
+
+    public void exported(String type, String format) {
+        exportCounter(type, format).increment();
+    }
+
+    private Counter exportCounter(String type, String format) {
+        return Counter.builder("inventory.exports")
+            .description("Documents exported, by content and file format")
+            .tag("type", type)
+            .tag("format", format)
+            .register(registry);
+    }
+}
@@ -0,0 +1,173 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.dto.StockThreshold;
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.outbox.Outbox;
+import com.inventory.inventory_system.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks every product's stock status (in stock, low, out) against its own
+ * reorder level, so the low stock count and list never scan the catalog.
+ *
+ * Told of each new quantity inside the transaction that writes it: the stock
+ * ledger's flush and product saves. When the status changes, the indexed
+ * products.low_stock column and a STOCK_LEVEL_CHANGED outbox event are written
+ * in that same transaction, and the in-memory state follows once it commits.
+ * Both callers run under the ledger's flush lock, so they never race.
+ */
+@Component
+public class LowStockMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockMonitor.class);
+
+    private final ProductRepository productRepository;
+    private final Outbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter alerts;
+
+    private final Map<Long, Tracked> products = new ConcurrentHashMap<>();
+    private final Set<Long> lowStock = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+
+    public LowStockMonitor(ProductRepository productRepository, Outbox outbox,
+                           TransactionTemplate transactionTemplate, MeterRegistry registry) {
+        this.productRepository = productRepository;
+        this.outbox = outbox;
+        this.transactionTemplate = transactionTemplate;
+        this.alerts = Counter.builder("inventory.stock.low_alerts")
+            .description("Products that went low on stock or out of stock")
+            .register(registry);
+        Gauge.builder("inventory.stock.low", lowStock, Set::size)
+            .description("Products at or below their reorder level")
+            .register(registry);
+    }
+
+    /**
+     * Recomputes the low_stock column for every product and loads the statuses.
+     * Called by the stock ledger once startup corrections are written and before
+     * its flush starts; nothing is reported before then.
+     */
+    public void load() {
+        Integer updated = transactionTemplate.execute(status -> productRepository.recomputeLowStock());
+        for (StockThreshold threshold : productRepository.findStockThresholds()) {
+            String status = Product.stockStatus(threshold.getQuantity(), threshold.getReorderLevel());
+            products.put(threshold.getProductId(), new Tracked(threshold.getReorderLevel(), status));
+            if (Product.LOW_STOCK.equals(status)) {
+                lowStock.add(threshold.getProductId());
+            }
+        }
+        ready = true;
+        log.info("📉 {} of {} products are low on stock", lowStock.size(), updated);
+    }
+
+    public boolean isReady() { return ready; }
+
+    public int getLowStockCount() { return lowStock.size(); }
+
+    /**
+     * products.quantity of a product the ledger knows was just written as quantity.
+     * Must be called inside that transaction.
+     */
+    public void quantityWritten(Long productId, int quantity) {
+        Tracked tracked = products.get(productId);
+        if (!ready || tracked == null) {
+            return;
+        }
+        String status = Product.stockStatus(quantity, tracked.reorderLevel);
+        if (status.equals(tracked.status)) {
+            return;
+        }
+        if (Product.LOW_STOCK.equals(status) != Product.LOW_STOCK.equals(tracked.status)) {
+            productRepository.setLowStock(productId, Product.LOW_STOCK.equals(status));
+        }
+        changed(productId, quantity, tracked.reorderLevel, status, tracked.status);
+    }
+
+    /**
+     * A product was saved with its low_stock column already set from the entity.
+     * Must be called inside the saving transaction.
+     */
+    public void productSaved(Product product) {
+        if (!ready) {
+            return;
+        }
+        Tracked tracked = products.get(product.getId());
+        String status = product.getStockStatus();
+        String previous = tracked != null ? tracked.status : null;
+        if (status.equals(previous) || (previous == null && Product.IN_STOCK.equals(status))) {
+            // A new reorder level still applies from now on
+            afterCommit(product.getId(), new Tracked(product.getReorderLevel(), status));
+            return;
+        }
+        changed(product.getId(), product.getQuantity() != null ? product.getQuantity() : 0,
+            product.getReorderLevel(), status, previous);
+    }
+
+    public void productDeleted(Long productId) {
+        products.remove(productId);
+        lowStock.remove(productId);
+    }
+
+    private void changed(Long productId, int quantity, Integer reorderLevel, String status, String previous) {
+        outbox.stockLevelChanged(productId, quantity, reorderLevel, status, previous);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(productId, new Tracked(reorderLevel, status));
+                if (Product.LOW_STOCK.equals(status)) {
+                    alerts.increment();
+                    log.warn("📉 Product {} is low on stock: {} left, reorder level {}", productId, quantity,
+                        reorderLevel != null ? reorderLevel : Product.DEFAULT_REORDER_LEVEL);
+                } else if (Product.OUT_OF_STOCK.equals(status)) {
+                    alerts.increment();
+                    log.warn("🚫 Product {} is out of stock", productId);
+                } else {
+                    log.info("📈 Product {} is back in stock: {} units", productId, quantity);
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Long productId, Tracked tracked) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(productId, tracked);
+            }
+        });
+    }
+
+    private void apply(Long productId, Tracked tracked) {
+        products.put(productId, tracked);
+        if (Product.LOW_STOCK.equals(tracked.status)) {
+            lowStock.add(productId);
+        } else {
+            lowStock.remove(productId);
+        }
+    }
+
+    private static final class Tracked {
+
+        private final Integer reorderLevel;
+        private final String status;
+
+        private Tracked(Integer reorderLevel, String status) {
+            this.reorderLevel = reorderLevel;
+            this.status = status;
+        }
+    }
+}
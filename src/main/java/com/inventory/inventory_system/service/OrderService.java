@@ -0,0 +1,188 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.dto.Money;
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.entity.Sale;
+import com.inventory.inventory_system.entity.SaleOrder;
+import com.inventory.inventory_system.outbox.Outbox;
+import com.inventory.inventory_system.repository.ProductRepository;
+import com.inventory.inventory_system.repository.SaleOrderRepository;
+import com.inventory.inventory_system.repository.SaleRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "inventory.service", description = "Service method latency", histogram = true)
+public class OrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    public static final int MAX_LINES = 200;
+
+    @Autowired
+    private SaleOrderRepository saleOrderRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
+    @Autowired
+    private Outbox outbox;
+
+    public Optional<SaleOrder> getOrderById(Long id) {
+        return saleOrderRepository.findById(id);
+    }
+
+    public List<Sale> getOrderLines(Long orderId) {
+        return saleRepository.findByOrderIdOrderByIdAsc(orderId);
+    }
+
+    /**
+     * Checks out a basket in one transaction: every line's stock is held at once
+     * (or none is), then the order and one Sale row per line are inserted. The
+     * lines only need productId and quantity; a missing unit price is taken from
+     * the product. Throws like SaleService.saveSale when the order can't go ahead.
+     */
+    @Transactional
+    public SaleOrder placeOrder(SaleOrder order, List<Sale> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new RuntimeException("An order needs at least one item");
+        }
+        if (lines.size() > MAX_LINES) {
+            throw new RuntimeException("An order can have at most " + MAX_LINES + " items");
+        }
+        for (Sale line : lines) {
+            if (line.getProductId() == null) {
+                throw new RuntimeException("Product ID is required");
+            }
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new RuntimeException("Quantity must be greater than 0");
+            }
+        }
+
+        // Lines in product id order, which is also the order the holds are listed in
+        List<Sale> sorted = new ArrayList<>(lines);
+        sorted.sort(Comparator.comparing(Sale::getProductId));
+        List<Long> productIds = new ArrayList<>(sorted.size());
+        List<Integer> quantities = new ArrayList<>(sorted.size());
+        for (Sale line : sorted) {
+            productIds.add(line.getProductId());
+            quantities.add(line.getQuantity());
+        }
+
+        // One query for every product in the basket
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+        }
+        for (Long productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new RuntimeException("Product not found with id: " + productId);
+            }
+        }
+
+        List<StockLedger.Hold> holds = stockLedger.reserveAll(productIds, quantities, order.getLocation());
+        if (holds == null) {
+            inventoryMetrics.stockRejected();
+            throw new RuntimeException("Insufficient stock for product: " + shortProduct(sorted, products));
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = 0; i < holds.size(); i++) {
+                    if (status == STATUS_COMMITTED) {
+                        stockLedger.confirm(holds.get(i), sorted.get(i).getId());
+                    } else {
+                        stockLedger.release(holds.get(i));
+                    }
+                }
+                // One checkout, however many lines, like a single sale
+                if (status == STATUS_COMMITTED) {
+                    inventoryMetrics.saleCommitted();
+                }
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        Money.Total total = new Money.Total();
+        for (int i = 0; i < sorted.size(); i++) {
+            Sale line = sorted.get(i);
+            Product product = products.get(line.getProductId());
+            line.setProductName(product.getName());
+            line.setProductSku(product.getSku());
+            line.setProductCategory(product.getCategory());
+            if (line.getUnitPrice() == null) {
+                line.setUnitPrice(product.getPrice());
+            }
+            if (line.getUnitPrice() == null) {
+                throw new RuntimeException("Unit price is required for product: " + product.getName());
+            }
+            line.setUnitPrice(Money.round(line.getUnitPrice()));
+            line.setTotalAmount(line.getUnitPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+            line.setCustomerName(order.getCustomerName());
+            line.setCustomerEmail(order.getCustomerEmail());
+            line.setPaymentMethod(order.getPaymentMethod());
+            line.setLocation(holds.get(i).getLocation());
+            line.setSaleDate(now);
+            line.setCreatedAt(now);
+            line.setStockPending(true);
+            total.add(line.getTotalAmount());
+        }
+
+        order.setId(null);
+        order.setLineCount(lines.size());
+        order.setTotalAmount(total.toBigDecimal());
+        order.setCreatedAt(now);
+        SaleOrder savedOrder = saleOrderRepository.save(order);
+
+        // Saved in the order they were entered, so the receipt lists them that way
+        List<Sale> savedLines = new ArrayList<>(lines.size());
+        for (Sale line : lines) {
+            line.setOrderId(savedOrder.getId());
+            savedLines.add(saleRepository.save(line));
+        }
+        outbox.salesCreated(savedLines);
+        log.info("💾 Saved order: {} with {} items", savedOrder.getId(), savedLines.size());
+        return savedOrder;
+    }
+
+    // The first product the basket asks more of than is available, for the error message
+    private String shortProduct(List<Sale> lines, Map<Long, Product> products) {
+        Map<Long, Integer> wanted = new LinkedHashMap<>();
+        for (Sale line : lines) {
+            wanted.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : wanted.entrySet()) {
+            int available = stockLedger.getAvailable(entry.getKey());
+            if (available < entry.getValue()) {
+                return products.get(entry.getKey()).getName() + ". Available: " + available;
+            }
+        }
+        return "one of the items";
+    }
+}
@@ -0,0 +1,222 @@
+package com.inventory.inventory_system.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cache of rendered PDF documents keyed by entity type, id and version.
+ * A new version (e.g. a product's updatedAt) gives a new key, so entries never
+ * need invalidating - stale ones just fall out of the LRU.
+ * Documents live in memory up to a byte budget, then spill to a directory on
+ * disk which has its own byte budget and LRU eviction.
+ */
+@Component
+public class PdfCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfCache.class);
+
+    private static final String SUFFIX = ".pdf";
+
+    private final long memoryLimit;
+    private final long diskLimit;
+    private final Path directory;
+
+    // Access-ordered: the eldest entry is the least recently used
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PdfCache(@Value("${inventory.pdf-cache.memory-bytes:16777216}") long memoryLimit,
+                    @Value("${inventory.pdf-cache.disk-bytes:268435456}") long diskLimit,
+                    @Value("${inventory.pdf-cache.directory:${java.io.tmpdir}/inventory-pdf-cache}") String directory) {
+        this.memoryLimit = memoryLimit;
+        this.diskLimit = diskLimit;
+        this.directory = Paths.get(directory);
+    }
+
+    // Pick up documents rendered by a previous run, oldest first so LRU order is kept
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream
+                .filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                .sorted(Comparator.comparingLong(path -> path.toFile().lastModified()))
+                .collect(Collectors.toList());
+        }
+        List<Path> evicted;
+        synchronized (this) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long size = file.toFile().length();
+                disk.put(name.substring(0, name.length() - SUFFIX.length()), size);
+                diskBytes += size;
+            }
+            evicted = trimDisk();
+        }
+        deleteFiles(evicted);
+    }
+
+    /**
+     * Cache key (also used as the HTTP ETag) for one version of an entity's document.
+     */
+    public static String key(String type, Long id, LocalDateTime version) {
+        String source = type + ":" + id + ":" + version;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(40);
+            for (int i = 0; i < 20; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public byte[] getOrRender(String key, Supplier<byte[]> renderer) {
+        byte[] content = get(key);
+        if (content != null) {
+            hits.incrementAndGet();
+            return content;
+        }
+        misses.incrementAndGet();
+        content = renderer.get();
+        put(key, content);
+        return content;
+    }
+
+    public byte[] get(String key) {
+        synchronized (this) {
+            byte[] content = memory.get(key);
+            if (content != null) {
+                return content;
+            }
+            if (disk.get(key) == null) {
+                return null;
+            }
+        }
+        // Read outside the lock, the file may be evicted meanwhile which is just a miss
+        try {
+            byte[] content = Files.readAllBytes(file(key));
+            put(key, content);
+            return content;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public void put(String key, byte[] content) {
+        List<Map.Entry<String, byte[]>> spilled = new ArrayList<>();
+        synchronized (this) {
+            byte[] previous = memory.put(key, content);
+            memoryBytes += content.length - (previous != null ? previous.length : 0);
+            Iterator<Map.Entry<String, byte[]>> iterator = memory.entrySet().iterator();
+            while (memoryBytes > memoryLimit && iterator.hasNext()) {
+                Map.Entry<String, byte[]> eldest = iterator.next();
+                iterator.remove();
+                memoryBytes -= eldest.getValue().length;
+                if (!disk.containsKey(eldest.getKey())) {
+                    spilled.add(eldest);
+                }
+            }
+        }
+        for (Map.Entry<String, byte[]> entry : spilled) {
+            spill(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public long getHitCount() { return hits.get(); }
+
+    public long getMissCount() { return misses.get(); }
+
+    public synchronized long getMemoryBytes() { return memoryBytes; }
+
+    public synchronized long getDiskBytes() { return diskBytes; }
+
+    // Distinct documents; one read back from disk sits in both tiers
+    public synchronized int getEntryCount() {
+        int count = disk.size();
+        for (String key : memory.keySet()) {
+            if (!disk.containsKey(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void spill(String key, byte[] content) {
+        try {
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temp, content);
+            Files.move(temp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Disk tier is best effort, the document is simply rendered again
+            log.warn("⚠️ Could not spill PDF to cache directory: {}", e.getMessage());
+            return;
+        }
+        List<Path> evicted;
+        synchronized (this) {
+            Long previous = disk.put(key, (long) content.length);
+            diskBytes += content.length - (previous != null ? previous : 0);
+            evicted = trimDisk();
+        }
+        deleteFiles(evicted);
+    }
+
+    // Caller holds the lock, files are deleted after it is released
+    private List<Path> trimDisk() {
+        List<Path> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> iterator = disk.entrySet().iterator();
+        while (diskBytes > diskLimit && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            diskBytes -= eldest.getValue();
+            evicted.add(file(eldest.getKey()));
+        }
+        return evicted;
+    }
+
+    private void deleteFiles(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("⚠️ Could not delete cached PDF {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+}
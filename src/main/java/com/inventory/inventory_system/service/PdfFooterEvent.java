@@ -0,0 +1,28 @@
+package com.inventory.inventory_system.service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.ColumnText;
+import com.lowagie.text.pdf.PdfPageEventHelper;
+import com.lowagie.text.pdf.PdfWriter;
+
+/**
+ * Page event that stamps the same footer line at the bottom of every page,
+ * so documents don't have to append a footer paragraph themselves.
+ */
+class PdfFooterEvent extends PdfPageEventHelper {
+
+    private final Phrase footer;
+
+    PdfFooterEvent(String text) {
+        this.footer = new Phrase(text, PdfStyles.FOOTER);
+    }
+
+    @Override
+    public void onEndPage(PdfWriter writer, Document document) {
+        float x = (document.left() + document.right()) / 2;
+        float y = document.bottom() - 20;
+        ColumnText.showTextAligned(writer.getDirectContent(), Element.ALIGN_CENTER, footer, x, y, 0);
+    }
+}
@@ -1,342 +1,518 @@
 package com.inventory.inventory_system.service;
 
+import com.inventory.inventory_system.dto.Money;
+import com.inventory.inventory_system.dto.ProductStockSummary;
+import com.inventory.inventory_system.jfr.PdfRenderEvent;
 import com.lowagie.text.*;
 import com.lowagie.text.pdf.*;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 
-import java.awt.Color;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @Service
+@Timed(value = "inventory.service", description = "Service method latency", histogram = true)
 public class PdfService {
 
+    private static final String RECEIPT_FOOTER = "Thank you for your business!";
+    private static final String REPORT_FOOTER = "Inventory Management System - Confidential Report";
+    private static final String[] PRODUCT_LIST_HEADERS = {"SKU", "Product Name", "Category", "Price", "Quantity", "Status", "Value"};
+    private static final float[] PRODUCT_LIST_WIDTHS = {1.5f, 2.5f, 1.5f, 1f, 1f, 1.5f, 1.5f};
+    private static final String[] ORDER_LINE_HEADERS = {"SKU", "Product Name", "Quantity", "Unit Price", "Total"};
+    private static final float[] ORDER_LINE_WIDTHS = {1.5f, 3f, 1f, 1.5f, 1.5f};
+
     public byte[] generateProductPdf(com.inventory.inventory_system.entity.Product product) {
+        PdfRenderEvent event = new PdfRenderEvent();
+        event.begin();
+        event.document = "product";
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            Document document = new Document(PageSize.A4);
-            PdfWriter.getInstance(document, outputStream);
-            
-            document.open();
-            
-            // Add title
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, Font.BOLD);
-            Paragraph title = new Paragraph("Product Details Report", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            title.setSpacingAfter(20);
-            document.add(title);
-            
-            // Add generation date
-            Font dateFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            Paragraph date = new Paragraph("Generated on: " + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")), dateFont);
-            date.setAlignment(Element.ALIGN_CENTER);
-            date.setSpacingAfter(30);
-            document.add(date);
-            
+            Document document = openDocument(PageSize.A4, outputStream, null);
+
+            // Add title and generation date
+            addTitle(document, "Product Details Report", 20);
+            addGeneratedOn(document, 30);
+
             // Create table for product details
-            PdfPTable table = new PdfPTable(2);
-            table.setWidthPercentage(100);
-            table.setSpacingBefore(20f);
-            table.setSpacingAfter(20f);
-            
+            PdfPTable table = createDetailsTable();
+
             // Add product details
             addTableRow(table, "Product Name:", product.getName());
             addTableRow(table, "SKU:", product.getSku());
             addTableRow(table, "Category:", product.getCategory() != null ? product.getCategory() : "Not specified");
-            addTableRow(table, "Price:", "$" + String.format("%.2f", product.getPrice()));
+            addTableRow(table, "Price:", formatCurrency(product.getPrice()));
             addTableRow(table, "Quantity:", String.valueOf(product.getQuantity()));
-            addTableRow(table, "Reorder Level:", 
+            addTableRow(table, "Reorder Level:",
                 product.getReorderLevel() != null ? String.valueOf(product.getReorderLevel()) : "10");
             addTableRow(table, "Stock Status:", getStockStatusText(product));
-            addTableRow(table, "Inventory Value:", 
-                "$" + String.format("%.2f", product.getPrice().doubleValue() * product.getQuantity()));
-            
+            addTableRow(table, "Inventory Value:", formatCurrency(inventoryValue(product)));
+
             document.add(table);
-            
+
             // Add description if available
             if (product.getDescription() != null && !product.getDescription().isEmpty()) {
-                Font descFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
-                Paragraph descTitle = new Paragraph("Description:", descFont);
+                Paragraph descTitle = new Paragraph("Description:", PdfStyles.SECTION);
                 descTitle.setSpacingBefore(20f);
                 descTitle.setSpacingAfter(10f);
                 document.add(descTitle);
-                
-                Font descContentFont = FontFactory.getFont(FontFactory.HELVETICA, 11);
-                Paragraph description = new Paragraph(product.getDescription(), descContentFont);
+
+                Paragraph description = new Paragraph(product.getDescription(), PdfStyles.BODY);
                 description.setSpacingAfter(20f);
                 document.add(description);
             }
-            
+
             // Add timestamps
             PdfPTable timestampTable = new PdfPTable(2);
             timestampTable.setWidthPercentage(100);
             timestampTable.setSpacingBefore(10f);
-            
+
             if (product.getCreatedAt() != null) {
-                addTableRow(timestampTable, "Created:", 
-                    product.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+                addTableRow(timestampTable, "Created:", product.getCreatedAt().format(PdfStyles.DATE_TIME));
             }
             if (product.getUpdatedAt() != null) {
-                addTableRow(timestampTable, "Last Updated:", 
-                    product.getUpdatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+                addTableRow(timestampTable, "Last Updated:", product.getUpdatedAt().format(PdfStyles.DATE_TIME));
             }
-            
+
             if (timestampTable.size() > 0) {
                 document.add(timestampTable);
             }
-            
+
             document.close();
-            return outputStream.toByteArray();
-            
+            byte[] content = outputStream.toByteArray();
+            event.bytes = content.length;
+            return content;
+
         } catch (Exception e) {
             throw new RuntimeException("Error generating product PDF: " + e.getMessage(), e);
+        } finally {
+            event.commit();
         }
     }
 
     public byte[] generateSalesPdf(com.inventory.inventory_system.entity.Sale sale) {
+        PdfRenderEvent event = new PdfRenderEvent();
+        event.begin();
+        event.document = "receipt";
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            Document document = new Document(PageSize.A4);
-            PdfWriter.getInstance(document, outputStream);
-            
-            document.open();
-            
-            // Add title
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, Font.BOLD);
-            Paragraph title = new Paragraph("Sales Receipt", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            title.setSpacingAfter(15);
-            document.add(title);
-            
-            // Add receipt number
-            Font receiptFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
-            Paragraph receiptNo = new Paragraph("Receipt #: " + sale.getId(), receiptFont);
+            Document document = openDocument(PageSize.A4, outputStream, RECEIPT_FOOTER);
+
+            // Add title, receipt number and generation date
+            addTitle(document, "Sales Receipt", 15);
+
+            Paragraph receiptNo = new Paragraph("Receipt #: " + sale.getId(), PdfStyles.SUBTITLE);
             receiptNo.setAlignment(Element.ALIGN_CENTER);
             receiptNo.setSpacingAfter(10);
             document.add(receiptNo);
-            
-            // Add generation date
-            Font dateFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            Paragraph date = new Paragraph("Generated on: " + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")), dateFont);
-            date.setAlignment(Element.ALIGN_CENTER);
-            date.setSpacingAfter(30);
-            document.add(date);
-            
+
+            addGeneratedOn(document, 30);
+
             // Create table for sale details
-            PdfPTable table = new PdfPTable(2);
-            table.setWidthPercentage(100);
-            table.setSpacingBefore(20f);
-            table.setSpacingAfter(20f);
-            
+            PdfPTable table = createDetailsTable();
+
             // Add sale details
             if (sale.getSaleDate() != null) {
-                addTableRow(table, "Sale Date:", 
-                    sale.getSaleDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+                addTableRow(table, "Sale Date:", sale.getSaleDate().format(PdfStyles.DATE_TIME));
             }
             addTableRow(table, "Product Name:", sale.getProductName());
             addTableRow(table, "SKU:", sale.getProductSku() != null ? sale.getProductSku() : "N/A");
-            addTableRow(table, "Category:", 
+            addTableRow(table, "Category:",
                 sale.getProductCategory() != null ? sale.getProductCategory() : "Not specified");
             addTableRow(table, "Quantity:", String.valueOf(sale.getQuantity()));
-            addTableRow(table, "Unit Price:", "$" + String.format("%.2f", sale.getUnitPrice()));
-            
+            addTableRow(table, "Unit Price:", formatCurrency(sale.getUnitPrice()));
+
             // Highlight total amount
-            PdfPCell totalLabelCell = new PdfPCell(new Phrase("Total Amount:"));
-            totalLabelCell.setBackgroundColor(Color.LIGHT_GRAY);
+            PdfPCell totalLabelCell = new PdfPCell(new Phrase("Total Amount:", PdfStyles.defaultFont()));
+            totalLabelCell.setBackgroundColor(PdfStyles.LABEL_BACKGROUND);
             totalLabelCell.setPadding(8);
             totalLabelCell.setBorderWidth(1);
-            
-            Font totalFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, Color.GREEN.darker());
-            PdfPCell totalValueCell = new PdfPCell(new Phrase("$" + String.format("%.2f", sale.getTotalAmount()), totalFont));
+
+            PdfPCell totalValueCell = new PdfPCell(new Phrase(formatCurrency(sale.getTotalAmount()), PdfStyles.TOTAL));
             totalValueCell.setPadding(8);
             totalValueCell.setBorderWidth(1);
-            
+
             table.addCell(totalLabelCell);
             table.addCell(totalValueCell);
-            
-            addTableRow(table, "Payment Method:", 
+
+            addTableRow(table, "Payment Method:",
                 sale.getPaymentMethod() != null ? sale.getPaymentMethod() : "Not specified");
-            
+
             if (sale.getCustomerName() != null) {
                 addTableRow(table, "Customer Name:", sale.getCustomerName());
             }
             if (sale.getCustomerEmail() != null) {
                 addTableRow(table, "Customer Email:", sale.getCustomerEmail());
             }
-            
+
             document.add(table);
-            
-            // Add footer
-            Font footerFont = FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 9, Color.GRAY);
-            Paragraph footer = new Paragraph("Thank you for your business!", footerFont);
-            footer.setAlignment(Element.ALIGN_CENTER);
-            footer.setSpacingBefore(20f);
-            document.add(footer);
-            
             document.close();
-            
-            return outputStream.toByteArray();
-            
+
+            byte[] content = outputStream.toByteArray();
+            event.bytes = content.length;
+            return content;
+
         } catch (Exception e) {
             throw new RuntimeException("Error generating sales PDF: " + e.getMessage(), e);
+        } finally {
+            event.commit();
         }
     }
 
-    public byte[] generateProductListPdf(List<com.inventory.inventory_system.entity.Product> products) {
+    // One receipt for a whole order: the order details, then a row per line
+    public byte[] generateOrderPdf(com.inventory.inventory_system.entity.SaleOrder order,
+                                   List<com.inventory.inventory_system.entity.Sale> lines) {
+        PdfRenderEvent event = new PdfRenderEvent();
+        event.begin();
+        event.document = "order-receipt";
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            Document document = new Document(PageSize.A4.rotate()); // Landscape for better table view
-            PdfWriter.getInstance(document, outputStream);
-            
-            document.open();
-            
-            // Add title
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, Font.BOLD);
-            Paragraph title = new Paragraph("Product Inventory Report", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            title.setSpacingAfter(15);
-            document.add(title);
-            
-            // Add generation date
-            Font dateFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            Paragraph date = new Paragraph("Generated on: " + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")), dateFont);
-            date.setAlignment(Element.ALIGN_CENTER);
-            date.setSpacingAfter(20);
-            document.add(date);
-            
-            // Add summary statistics
-            long totalProducts = products.size();
-            long inStockCount = products.stream()
-                .filter(p -> p.getQuantity() != null && p.getQuantity() > 0)
-                .count();
-            long lowStockCount = products.stream()
-                .filter(p -> p.getQuantity() != null && p.getQuantity() > 0 && p.getQuantity() <= 5)
-                .count();
-            long outOfStockCount = products.stream()
-                .filter(p -> p.getQuantity() == null || p.getQuantity() == 0)
-                .count();
-            
-            Font summaryFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11);
-            Paragraph summary = new Paragraph(
-                String.format("Summary: Total: %d | In Stock: %d | Low Stock: %d | Out of Stock: %d", 
-                    totalProducts, inStockCount, lowStockCount, outOfStockCount), summaryFont);
-            summary.setAlignment(Element.ALIGN_CENTER);
-            summary.setSpacingAfter(20);
-            document.add(summary);
-            
-            // Create table for products
-            PdfPTable table = new PdfPTable(7); // 7 columns
-            table.setWidthPercentage(100);
-            table.setSpacingBefore(10f);
-            table.setSpacingAfter(20f);
-            
-            // Set column widths
-            float[] columnWidths = {1.5f, 2.5f, 1.5f, 1f, 1f, 1.5f, 1.5f};
-            table.setWidths(columnWidths);
-            
-            // Add table headers
-            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
-            String[] headers = {"SKU", "Product Name", "Category", "Price", "Quantity", "Status", "Value"};
-            for (String header : headers) {
-                PdfPCell cell = new PdfPCell(new Phrase(header, headerFont));
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                cell.setPadding(5);
-                cell.setBackgroundColor(Color.LIGHT_GRAY);
-                cell.setBorderWidth(1);
-                table.addCell(cell);
+            Document document = openDocument(PageSize.A4, outputStream, RECEIPT_FOOTER);
+
+            addTitle(document, "Sales Receipt", 15);
+
+            Paragraph receiptNo = new Paragraph("Order #: " + order.getId(), PdfStyles.SUBTITLE);
+            receiptNo.setAlignment(Element.ALIGN_CENTER);
+            receiptNo.setSpacingAfter(10);
+            document.add(receiptNo);
+
+            addGeneratedOn(document, 30);
+
+            PdfPTable details = createDetailsTable();
+            if (order.getCreatedAt() != null) {
+                addTableRow(details, "Order Date:", order.getCreatedAt().format(PdfStyles.DATE_TIME));
             }
-            
-            // Add product rows
-            Font contentFont = FontFactory.getFont(FontFactory.HELVETICA, 9);
-            for (com.inventory.inventory_system.entity.Product product : products) {
-                // SKU
-                table.addCell(createCell(product.getSku(), contentFont));
-                
-                // Product Name
-                table.addCell(createCell(product.getName(), contentFont));
-                
-                // Category
-                table.addCell(createCell(product.getCategory() != null ? product.getCategory() : "Not specified", contentFont));
-                
-                // Price
-                table.addCell(createCell("$" + String.format("%.2f", product.getPrice()), contentFont));
-                
-                // Quantity
-                PdfPCell quantityCell = createCell(String.valueOf(product.getQuantity()), contentFont);
-                if (product.getQuantity() == 0) {
-                    quantityCell.setBackgroundColor(new Color(255, 200, 200)); // Red for out of stock
-                } else if (product.getQuantity() <= 5) {
-                    quantityCell.setBackgroundColor(new Color(255, 255, 200)); // Yellow for low stock
-                }
-                table.addCell(quantityCell);
-                
-                // Status
-                String status = getStockStatusText(product);
-                PdfPCell statusCell = createCell(status, contentFont);
-                if (status.equals("Out of Stock")) {
-                    statusCell.setBackgroundColor(new Color(255, 200, 200));
-                } else if (status.equals("Low Stock")) {
-                    statusCell.setBackgroundColor(new Color(255, 255, 200));
-                } else {
-                    statusCell.setBackgroundColor(new Color(200, 255, 200)); // Green for in stock
-                }
-                table.addCell(statusCell);
-                
-                // Value
-                table.addCell(createCell("$" + String.format("%.2f", 
-                    product.getPrice().doubleValue() * product.getQuantity()), contentFont));
+            addTableRow(details, "Items:", String.valueOf(lines.size()));
+            addTableRow(details, "Payment Method:",
+                order.getPaymentMethod() != null ? order.getPaymentMethod() : "Not specified");
+            if (order.getCustomerName() != null) {
+                addTableRow(details, "Customer Name:", order.getCustomerName());
+            }
+            if (order.getCustomerEmail() != null) {
+                addTableRow(details, "Customer Email:", order.getCustomerEmail());
             }
-            
+            document.add(details);
+
+            PdfPTable table = createListTable(ORDER_LINE_HEADERS, ORDER_LINE_WIDTHS);
+            Money.Total total = new Money.Total();
+            for (com.inventory.inventory_system.entity.Sale line : lines) {
+                table.addCell(createCell(line.getProductSku()));
+                table.addCell(createCell(line.getProductName()));
+                table.addCell(createCell(String.valueOf(line.getQuantity())));
+                table.addCell(createCell(formatCurrency(line.getUnitPrice())));
+                table.addCell(createCell(formatCurrency(line.getTotalAmount())));
+                total.add(line.getTotalAmount());
+            }
+
+            // Highlight total amount across the row
+            PdfPCell totalLabelCell = new PdfPCell(new Phrase("Total Amount:", PdfStyles.defaultFont()));
+            totalLabelCell.setColspan(ORDER_LINE_HEADERS.length - 1);
+            totalLabelCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            totalLabelCell.setBackgroundColor(PdfStyles.LABEL_BACKGROUND);
+            totalLabelCell.setPadding(8);
+            totalLabelCell.setBorderWidth(1);
+
+            PdfPCell totalValueCell = new PdfPCell(new Phrase(formatCurrency(total.toBigDecimal()), PdfStyles.TOTAL));
+            totalValueCell.setPadding(8);
+            totalValueCell.setBorderWidth(1);
+
+            table.addCell(totalLabelCell);
+            table.addCell(totalValueCell);
+
             document.add(table);
-            
-            // Add footer
-            Font footerFont = FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 9, Color.GRAY);
-            Paragraph footer = new Paragraph("Inventory Management System - Confidential Report", footerFont);
-            footer.setAlignment(Element.ALIGN_CENTER);
-            document.add(footer);
-            
             document.close();
-            
+
+            byte[] content = outputStream.toByteArray();
+            event.bytes = content.length;
+            return content;
+
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating order PDF: " + e.getMessage(), e);
+        } finally {
+            event.commit();
+        }
+    }
+
+    public byte[] generateProductListPdf(List<com.inventory.inventory_system.entity.Product> products) {
+        // Single pass over the in-memory list for the summary counts
+        long inStockCount = 0;
+        long lowStockCount = 0;
+        long outOfStockCount = 0;
+        for (com.inventory.inventory_system.entity.Product product : products) {
+            Integer quantity = product.getQuantity();
+            if (quantity == null || quantity == 0) {
+                outOfStockCount++;
+            } else if (quantity > 0) {
+                inStockCount++;
+                if (product.isLowStock()) {
+                    lowStockCount++;
+                }
+            }
+        }
+        ProductStockSummary summary = new ProductStockSummary(
+            (long) products.size(), inStockCount, lowStockCount, outOfStockCount);
+
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            try (ProductListWriter writer = openProductListPdf(outputStream, summary)) {
+                writer.addProducts(products);
+            }
             return outputStream.toByteArray();
-            
         } catch (Exception e) {
             throw new RuntimeException("Error generating product list PDF: " + e.getMessage(), e);
         }
     }
-    
+
+    /**
+     * Opens a product list report that is written straight to {@code outputStream}.
+     * Rows are added in batches with {@link ProductListWriter#addProducts(List)} and
+     * flushed to the stream as they complete, so only one batch is ever held in memory.
+     */
+    public ProductListWriter openProductListPdf(OutputStream outputStream, ProductStockSummary summary) {
+        try {
+            return new ProductListWriter(outputStream, summary);
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating product list PDF: " + e.getMessage(), e);
+        }
+    }
+
+    public class ProductListWriter implements Closeable {
+
+        private final Document document;
+        private final PdfPTable table;
+        private final CountingOutputStream output;
+        private final PdfRenderEvent event = new PdfRenderEvent();
+        private boolean finished;
+
+        private ProductListWriter(OutputStream outputStream, ProductStockSummary summary) throws DocumentException {
+            event.begin();
+            event.document = "product-list";
+            output = new CountingOutputStream(outputStream);
+
+            // Landscape for better table view
+            document = openDocument(PageSize.A4.rotate(), output, REPORT_FOOTER);
+
+            // Add title and generation date
+            addTitle(document, "Product Inventory Report", 15);
+            addGeneratedOn(document, 20);
+
+            Paragraph summaryParagraph = new Paragraph(
+                String.format("Summary: Total: %d | In Stock: %d | Low Stock: %d | Out of Stock: %d",
+                    summary.getTotalProducts(), summary.getInStockCount(),
+                    summary.getLowStockCount(), summary.getOutOfStockCount()), PdfStyles.SUMMARY);
+            summaryParagraph.setAlignment(Element.ALIGN_CENTER);
+            summaryParagraph.setSpacingAfter(20);
+            document.add(summaryParagraph);
+
+            // Incomplete table: every document.add() writes the finished rows and drops them
+            table = createProductListTable();
+            table.setComplete(false);
+            table.setSpacingAfter(0f);
+        }
+
+        // Later chunks continue the same table: no spacing or header at the top
+        // of the chunk, page breaks still repeat the header row.
+        private void flush() throws DocumentException {
+            document.add(table);
+            table.setSpacingBefore(0f);
+            table.setSkipFirstHeader(true);
+        }
+
+        public void addProducts(List<com.inventory.inventory_system.entity.Product> products) {
+            try {
+                for (com.inventory.inventory_system.entity.Product product : products) {
+                    addProductListRow(table, product);
+                }
+                event.rows += products.size();
+                flush();
+            } catch (DocumentException e) {
+                throw new RuntimeException("Error generating product list PDF: " + e.getMessage(), e);
+            }
+        }
+
+        // Closes the document only once the last rows are written; a failure leaves it
+        // open for the caller to abort, rather than ending a truncated report with a trailer
+        @Override
+        public void close() {
+            try {
+                table.setComplete(true);
+                table.setSpacingAfter(20f);
+                flush();
+                document.close();
+            } catch (DocumentException e) {
+                throw new RuntimeException("Error generating product list PDF: " + e.getMessage(), e);
+            } finally {
+                finish();
+            }
+        }
+
+        /**
+         * Gives up on a report that failed part way. The document is not closed, since
+         * that would write the trailer (and close the stream) and pass the rows so far
+         * off as the complete report.
+         */
+        public void abort() {
+            finish();
+        }
+
+        // The render event is committed once, by close() or abort(), whichever comes first
+        private void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            event.bytes = output.count;
+            event.commit();
+        }
+    }
+
+    // Byte count of a streamed document, for the render event
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    // Page templates
+    private Document openDocument(Rectangle pageSize, OutputStream outputStream, String footer) throws DocumentException {
+        Document document = new Document(pageSize);
+        PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+        if (footer != null) {
+            writer.setPageEvent(new PdfFooterEvent(footer));
+        }
+        document.open();
+        return document;
+    }
+
+    private void addTitle(Document document, String text, float spacingAfter) throws DocumentException {
+        Paragraph title = new Paragraph(text, PdfStyles.TITLE);
+        title.setAlignment(Element.ALIGN_CENTER);
+        title.setSpacingAfter(spacingAfter);
+        document.add(title);
+    }
+
+    private void addGeneratedOn(Document document, float spacingAfter) throws DocumentException {
+        Paragraph date = new Paragraph("Generated on: " + LocalDateTime.now().format(PdfStyles.GENERATED_ON), PdfStyles.DATE);
+        date.setAlignment(Element.ALIGN_CENTER);
+        date.setSpacingAfter(spacingAfter);
+        document.add(date);
+    }
+
+    private PdfPTable createDetailsTable() {
+        PdfPTable table = new PdfPTable(2);
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(20f);
+        table.setSpacingAfter(20f);
+        return table;
+    }
+
+    private PdfPTable createProductListTable() throws DocumentException {
+        return createListTable(PRODUCT_LIST_HEADERS, PRODUCT_LIST_WIDTHS);
+    }
+
+    private PdfPTable createListTable(String[] headers, float[] widths) throws DocumentException {
+        PdfPTable table = new PdfPTable(widths.length);
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(10f);
+        table.setSpacingAfter(20f);
+        table.setWidths(widths);
+
+        // Header row is repeated on every page
+        for (String header : headers) {
+            PdfPCell cell = new PdfPCell(new Phrase(header, PdfStyles.TABLE_HEADER));
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            cell.setPadding(5);
+            cell.setBackgroundColor(PdfStyles.LABEL_BACKGROUND);
+            cell.setBorderWidth(1);
+            table.addCell(cell);
+        }
+        table.setHeaderRows(1);
+        return table;
+    }
+
+    private void addProductListRow(PdfPTable table, com.inventory.inventory_system.entity.Product product) {
+        table.addCell(createCell(product.getSku()));
+        table.addCell(createCell(product.getName()));
+        table.addCell(createCell(product.getCategory() != null ? product.getCategory() : "Not specified"));
+        table.addCell(createCell(formatCurrency(product.getPrice())));
+
+        // Quantity: red for out of stock, yellow for low stock
+        PdfPCell quantityCell = createCell(String.valueOf(product.getQuantity()));
+        if (product.getQuantity() == 0) {
+            quantityCell.setBackgroundColor(PdfStyles.OUT_OF_STOCK);
+        } else if (product.isLowStock()) {
+            quantityCell.setBackgroundColor(PdfStyles.LOW_STOCK);
+        }
+        table.addCell(quantityCell);
+
+        // Status
+        String status = getStockStatusText(product);
+        PdfPCell statusCell = createCell(status);
+        if (status.equals("Out of Stock")) {
+            statusCell.setBackgroundColor(PdfStyles.OUT_OF_STOCK);
+        } else if (status.equals("Low Stock")) {
+            statusCell.setBackgroundColor(PdfStyles.LOW_STOCK);
+        } else {
+            statusCell.setBackgroundColor(PdfStyles.IN_STOCK);
+        }
+        table.addCell(statusCell);
+
+        table.addCell(createCell(formatCurrency(inventoryValue(product))));
+    }
+
     private void addTableRow(PdfPTable table, String label, String value) {
-        Font labelFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
-        Font valueFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-        
-        PdfPCell labelCell = new PdfPCell(new Phrase(label, labelFont));
+        PdfPCell labelCell = new PdfPCell(new Phrase(label, PdfStyles.LABEL));
         labelCell.setPadding(8);
-        labelCell.setBackgroundColor(Color.LIGHT_GRAY);
+        labelCell.setBackgroundColor(PdfStyles.LABEL_BACKGROUND);
         labelCell.setBorderWidth(1);
-        
-        PdfPCell valueCell = new PdfPCell(new Phrase(value != null ? value : "N/A", valueFont));
+
+        PdfPCell valueCell = new PdfPCell(new Phrase(value != null ? value : "N/A", PdfStyles.VALUE));
         valueCell.setPadding(8);
         valueCell.setBorderWidth(1);
-        
+
         table.addCell(labelCell);
         table.addCell(valueCell);
     }
-    
-    private PdfPCell createCell(String content, Font font) {
-        PdfPCell cell = new PdfPCell(new Phrase(content != null ? content : "N/A", font));
+
+    private PdfPCell createCell(String content) {
+        PdfPCell cell = new PdfPCell(new Phrase(content != null ? content : "N/A", PdfStyles.TABLE_CELL));
         cell.setPadding(4);
         cell.setBorderWidth(1);
         return cell;
     }
-    
+
+    private BigDecimal inventoryValue(com.inventory.inventory_system.entity.Product product) {
+        return product.getPrice().multiply(BigDecimal.valueOf(product.getQuantity()));
+    }
+
+    private String formatCurrency(BigDecimal amount) {
+        return amount != null ? "$" + amount.setScale(2, RoundingMode.HALF_UP).toPlainString() : "N/A";
+    }
+
     private String getStockStatusText(com.inventory.inventory_system.entity.Product product) {
         if (product.getQuantity() == null || product.getQuantity() == 0) {
             return "Out of Stock";
-        } else if (product.getQuantity() <= (product.getReorderLevel() != null ? product.getReorderLevel() : 10)) {
+        } else if (product.isLowStock()) {
             return "Low Stock";
         } else {
             return "In Stock";
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.inventory.inventory_system.service;
+
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+
+import java.awt.Color;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Shared fonts, colors and formatters for every PDF document.
+ * Loaded once per JVM so rendering a cell never goes back to the FontFactory.
+ * These instances are shared between threads - never call a setter on them.
+ */
+final class PdfStyles {
+
+    // Fonts
+    static final Font TITLE = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, Font.BOLD);
+    static final Font SUBTITLE = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    static final Font SECTION = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+    static final Font SUMMARY = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11);
+    static final Font BODY = FontFactory.getFont(FontFactory.HELVETICA, 11);
+    static final Font DATE = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    static final Font LABEL = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    static final Font VALUE = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    static final Font TABLE_HEADER = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    static final Font TABLE_CELL = FontFactory.getFont(FontFactory.HELVETICA, 9);
+    static final Font TOTAL = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, Color.GREEN.darker());
+    static final Font FOOTER = FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 9, Color.GRAY);
+
+    // Colors
+    static final Color LABEL_BACKGROUND = Color.LIGHT_GRAY;
+    static final Color OUT_OF_STOCK = new Color(255, 200, 200);
+    static final Color LOW_STOCK = new Color(255, 255, 200);
+    static final Color IN_STOCK = new Color(200, 255, 200);
+
+    // Formatters
+    static final DateTimeFormatter GENERATED_ON = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private PdfStyles() {}
+
+    // iText's own default font (Helvetica 12), a new one per use as Font is mutable
+    static Font defaultFont() {
+        return new Font();
+    }
+}
@@ -1,49 +1,91 @@
 package com.inventory.inventory_system.service;
 
+import com.inventory.inventory_system.dto.ProductListItem;
+import com.inventory.inventory_system.dto.ProductStockSummary;
 import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.entity.StockBin;
+import com.inventory.inventory_system.entity.StockMovement;
+import com.inventory.inventory_system.outbox.Outbox;
 import com.inventory.inventory_system.repository.ProductRepository;
+import com.inventory.inventory_system.repository.StockBinRepository;
+import com.inventory.inventory_system.repository.StockMovementRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
+@Transactional(readOnly = true)
+@Timed(value = "inventory.service", description = "Service method latency", histogram = true)
 public class ProductService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductService.class);
     
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private StockBinRepository stockBinRepository;
+    
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+    
+    @Autowired
+    private StockLedger stockLedger;
+    
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+    
+    @Autowired
+    private Outbox outbox;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     // Basic CRUD operations
     public List<Product> getAllProducts() {
         try {
             List<Product> products = productRepository.findAll();
-            System.out.println("📦 Retrieved " + products.size() + " products from database");
+            log.debug("📦 Retrieved {} products from database", products.size());
             return products;
         } catch (Exception e) {
-            System.err.println("⚠️ Could not retrieve products from database: " + e.getMessage());
-            System.out.println("📝 Returning empty list - application will continue working");
+            log.warn("⚠️ Could not retrieve products from database, returning empty list: {}", e.getMessage());
             return Collections.emptyList();
         }
     }
     
     public Optional<Product> getProductById(Long id) {
         if (id == null) {
-            System.out.println("Invalid product ID: null");
+            log.debug("Invalid product ID: null");
             return Optional.empty();
         }
         Optional<Product> product = productRepository.findById(id);
-        System.out.println("Retrieved product by ID " + id + ": " + (product.isPresent() ? product.get().toString() : "Not found"));
+        log.debug("Retrieved product by ID {}: {}", id, product.isPresent() ? "found" : "not found");
         return product;
     }
     
+    @Transactional
     public Product saveProduct(Product product) {
-        System.out.println("Saving product: " + product.toString());
+        log.debug("Saving product {} with SKU {}", product.getId(), product.getSku());
         
         // Validate product
         if (!product.isValid()) {
@@ -58,7 +100,7 @@ public class ProductService {
         
         // Ensure SKU is unique
         String sku = product.getSku();
-        if (sku != null && !sku.trim().isEmpty()) {
+        if (sku != null && !sku.trim().isEmpty() && skuChanged(product)) {
             // Check if SKU already exists (excluding current product when updating)
             Product existingProduct = productRepository.findBySku(sku);
             if (existingProduct != null && !existingProduct.getId().equals(product.getId())) {
@@ -66,20 +108,102 @@ public class ProductService {
             }
         }
         
-        Product savedProduct = productRepository.save(product);
-        System.out.println("Saved product with ID: " + savedProduct.getId());
-        System.out.println("Saved product details: " + savedProduct.toString());
+        // The quantity is written as an absolute value: keep the ledger's flush out
+        // until the ledger has been told the new value
+        stockLedger.pauseFlushing();
+        Product savedProduct;
+        int defaultBin;
+        try {
+            product.setLowStockFlag(product.isLowStock());
+            savedProduct = productRepository.save(product);
+            defaultBin = syncBins(savedProduct);
+            outbox.productSaved(savedProduct);
+            lowStockMonitor.productSaved(savedProduct);
+        } catch (RuntimeException e) {
+            stockLedger.resumeFlushing();
+            throw e;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        stockLedger.stockWritten(savedProduct.getId(), defaultBin);
+                    }
+                } finally {
+                    stockLedger.resumeFlushing();
+                }
+            }
+        });
+        log.debug("Saved product with ID: {}", savedProduct.getId());
         
         return savedProduct;
     }
     
+    // The edited quantity is the product's total: the store bins keep their stock and the
+    // default (warehouse) bin takes the difference, recorded as a stock movement. Returns
+    // the default bin's new quantity
+    private int syncBins(Product product) {
+        Map<String, StockBin> bins = new HashMap<>();
+        for (StockBin bin : stockBinRepository.findByProductId(product.getId())) {
+            bins.put(bin.getLocation(), bin);
+        }
+        boolean created = bins.isEmpty();
+        String defaultLocation = stockLedger.getDefaultLocation();
+        int others = 0;
+        for (String location : stockLedger.getLocations()) {
+            StockBin bin = bins.get(location);
+            if (bin == null) {
+                bin = stockBinRepository.save(new StockBin(product.getId(), location, 0));
+                bins.put(location, bin);
+            }
+            if (!location.equals(defaultLocation)) {
+                others += bin.getQuantity();
+            }
+        }
+        StockBin defaultBin = bins.get(defaultLocation);
+        int change = product.getQuantity() - others - defaultBin.getQuantity();
+        defaultBin.setQuantity(product.getQuantity() - others);
+        stockBinRepository.save(defaultBin);
+        if (change != 0 || created) {
+            stockMovementRepository.save(new StockMovement(product.getId(), defaultLocation, change,
+                created ? StockMovement.RECEIPT : StockMovement.ADJUSTMENT));
+        }
+        return defaultBin.getQuantity();
+    }
+    
+    // Editing a product without touching its SKU needs no uniqueness lookup. The stored
+    // row is loaded anyway when save() merges the edit, so comparing costs nothing extra
+    private boolean skuChanged(Product product) {
+        if (product.getId() == null) {
+            return true;
+        }
+        Optional<Product> stored = productRepository.findById(product.getId());
+        // Already managed: stored is the same instance and can't show the old SKU
+        if (!stored.isPresent() || stored.get() == product) {
+            return true;
+        }
+        return !product.getSku().equals(stored.get().getSku());
+    }
+    
+    @Transactional
     public void deleteProduct(Long id) {
         if (id == null) {
             throw new RuntimeException("Invalid product ID");
         }
-        System.out.println("Deleting product with ID: " + id);
-        productRepository.deleteById(id);
-        System.out.println("Product deleted successfully");
+        Product product = productRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        productRepository.delete(product);
+        outbox.productDeleted(product);
+        stockBinRepository.deleteByProductId(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stockLedger.productDeleted(id);
+                lowStockMonitor.productDeleted(id);
+            }
+        });
+        log.info("Deleted product with ID: {}", id);
     }
     
     // Search functionality
@@ -88,61 +212,102 @@ public class ProductService {
             return getAllProducts();
         }
         List<Product> results = productRepository.findByNameContainingIgnoreCase(keyword);
-        System.out.println("Search for '" + keyword + "' returned " + results.size() + " products");
+        log.debug("Search for '{}' returned {} products", keyword, results.size());
         return results;
     }
     
     public List<Product> getProductsByCategory(String category) {
         List<Product> results = productRepository.findByCategory(category);
-        System.out.println("Category '" + category + "' returned " + results.size() + " products");
+        log.debug("Category '{}' returned {} products", category, results.size());
         return results;
     }
     
+    // List page rows: just the displayed columns, nothing enters the persistence context
+    public List<ProductListItem> getProductListItems() {
+        return productRepository.findListItems();
+    }
+    
+    public List<ProductListItem> searchProductListItems(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return getProductListItems();
+        }
+        return productRepository.findListItemsByNameContaining(keyword);
+    }
+    
+    public List<ProductListItem> getProductListItemsByCategory(String category) {
+        return productRepository.findListItemsByCategory(category);
+    }
+    
     // Stock management
+    // At or below each product's own reorder level, from the column the LowStockMonitor maintains
     public List<Product> getLowStockProducts() {
-        List<Product> results = productRepository.findLowStockProducts(10);
-        System.out.println("Low stock products: " + results.size());
+        List<Product> results = productRepository.findByLowStockFlagTrueOrderByQuantityAsc();
+        log.debug("Low stock products: {}", results.size());
         return results;
     }
     
     public List<Product> getOutOfStockProducts() {
         List<Product> results = productRepository.findByQuantity(0);
-        System.out.println("Out of stock products: " + results.size());
+        log.debug("Out of stock products: {}", results.size());
         return results;
     }
     
     public List<Product> getInStockProducts() {
         List<Product> results = productRepository.findInStockProducts();
-        System.out.println("In stock products: " + results.size());
+        log.debug("In stock products: {}", results.size());
         return results;
     }
     
     // Statistics
     public long getTotalProductsCount() {
         long count = productRepository.count();
-        System.out.println("Total products count: " + count);
+        log.debug("Total products count: {}", count);
         return count;
     }
     
     public long getInStockProductsCount() {
         long count = productRepository.countByQuantityGreaterThan(0);
-        System.out.println("In stock products count: " + count);
+        log.debug("In stock products count: {}", count);
         return count;
     }
     
+    // Answered from memory once the monitor has loaded, no query
     public long getLowStockProductsCount() {
-        List<Product> lowStock = productRepository.findLowStockProducts(10);
-        long count = lowStock.size();
-        System.out.println("Low stock products count: " + count);
+        long count = lowStockMonitor.isReady() ? lowStockMonitor.getLowStockCount() : productRepository.countByLowStockFlagTrue();
+        log.debug("Low stock products count: {}", count);
         return count;
     }
     
     public long getOutOfStockProductsCount() {
         long count = productRepository.countByQuantity(0);
-        System.out.println("Out of stock products count: " + count);
+        log.debug("Out of stock products count: {}", count);
         return count;
     }
     
+    // Single aggregate query instead of loading every product to count them
+    public ProductStockSummary getStockSummary() {
+        return productRepository.getStockSummary();
+    }
+    
+    // Walks the whole catalog in id order, one batch at a time. Each batch is
+    // detached once the consumer is done so large exports run in constant memory.
+    // No surrounding transaction: every batch query borrows a connection on its own,
+    // so one isn't pinned while the consumer streams the previous batch to a client.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void forEachProductBatch(int batchSize, Consumer<List<Product>> consumer) {
+        Long lastId = 0L;
+        List<Product> batch;
+        do {
+            batch = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            consumer.accept(batch);
+            lastId = batch.get(batch.size() - 1).getId();
+            entityManager.clear();
+        } while (batch.size() == batchSize);
+    }
+    
     // Category management
     public List<String> getAllCategories() {
         return Arrays.asList("Electronics", "Clothing", "Books", "Home & Garden", "Sports", 
@@ -151,24 +316,19 @@ public class ProductService {
 
     public List<Product> getProductsBySupplier(String supplierId) {
         List<Product> results = productRepository.findBySupplierId(supplierId);
-        System.out.println("Products for supplier " + supplierId + ": " + results.size());
+        log.debug("Products for supplier {}: {}", supplierId, results.size());
         return results;
     }
     
     // Price analysis
     public BigDecimal getTotalInventoryValue() {
         try {
-            List<Product> products = getAllProducts();
-            BigDecimal total = BigDecimal.ZERO;
-            for (Product product : products) {
-                if (product.getPrice() != null && product.getQuantity() != null) {
-                    total = total.add(product.getPrice().multiply(BigDecimal.valueOf(product.getQuantity())));
-                }
-            }
-            System.out.println("Total inventory value: $" + total);
+            // Summed in the database, no need to load every product
+            BigDecimal total = productRepository.getTotalInventoryValue();
+            log.debug("Total inventory value: ${}", total);
             return total;
         } catch (Exception e) {
-            System.err.println("Error calculating total inventory value: " + e.getMessage());
+            log.warn("Error calculating total inventory value", e);
             return BigDecimal.ZERO;
         }
     }
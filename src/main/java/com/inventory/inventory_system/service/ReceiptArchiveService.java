@@ -0,0 +1,188 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.entity.Sale;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Bulk receipt download: renders every receipt in a date range on a pool sized
+ * to the CPU count and streams each one into a ZIP as soon as it is done.
+ * At most {@code window} rendered receipts are held in memory at any time.
+ *
+ * At most {@code max-concurrent-archives} exports run at once, so the render
+ * queue never holds more than that many windows; one more is turned away with
+ * a RejectedExecutionException before anything is written. An export that
+ * fails part way cancels its renders still queued or running, so they don't
+ * take the next export's share of the queue.
+ */
+@Service
+public class ReceiptArchiveService {
+
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private PdfService pdfService;
+
+    private final int threads = Runtime.getRuntime().availableProcessors();
+    private final int window = threads * 4;
+    private final Semaphore archives;
+    private final ThreadPoolExecutor executor;
+
+    public ReceiptArchiveService(@Value("${inventory.receipts.max-concurrent-archives:2}") int maxArchives) {
+        this.archives = new Semaphore(Math.max(1, maxArchives));
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(window * Math.max(1, maxArchives)), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "receipt-render-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public int writeReceiptsZip(LocalDateTime start, LocalDateTime end, OutputStream outputStream) throws IOException {
+        if (!archives.tryAcquire()) {
+            throw new RejectedExecutionException("Too many receipt exports in progress, try again shortly");
+        }
+        try {
+            return writeZip(start, end, outputStream);
+        } finally {
+            archives.release();
+        }
+    }
+
+    private int writeZip(LocalDateTime start, LocalDateTime end, OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        // PDF streams are already compressed, the fastest deflate level is enough
+        zip.setLevel(1);
+        BlockingQueue<Render> completed = new LinkedBlockingQueue<>();
+        // Submitted and not written yet
+        Set<Render> pending = new HashSet<>();
+        int[] counts = new int[2]; // [submitted, written]
+        boolean finished = false;
+
+        try {
+            saleService.forEachSaleBatch(start, end, BATCH_SIZE, batch -> {
+                for (Sale sale : batch) {
+                    // Each worker builds its own Document, nothing is shared between renders
+                    Render render = new Render(() -> new Receipt(sale.getId(), pdfService.generateSalesPdf(sale)),
+                            completed);
+                    pending.add(render);
+                    executor.execute(render);
+                    counts[0]++;
+                    while (counts[0] - counts[1] >= window) {
+                        writeNext(completed, pending, zip);
+                        counts[1]++;
+                    }
+                }
+            });
+            while (counts[1] < counts[0]) {
+                writeNext(completed, pending, zip);
+                counts[1]++;
+            }
+            zip.finish();
+            zip.flush();
+            finished = true;
+            return counts[0];
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (!finished) {
+                for (Render render : pending) {
+                    render.cancel(true);
+                }
+                // Cancelled renders still queued give their places back now
+                executor.purge();
+            }
+        }
+    }
+
+    private void writeNext(BlockingQueue<Render> completed, Set<Render> pending, ZipOutputStream zip) {
+        try {
+            Render render = completed.take();
+            pending.remove(render);
+            Receipt receipt = render.get();
+            zip.putNextEntry(new ZipEntry("sale-" + receipt.saleId + ".pdf"));
+            zip.write(receipt.content);
+            zip.closeEntry();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Receipt export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error rendering receipt: " + e.getCause().getMessage(), e.getCause());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Renders waiting for a worker, across all exports in progress
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveRenders() {
+        return executor.getActiveCount();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // A receipt render that queues itself for writing once done, in completion order
+    private static class Render extends FutureTask<Receipt> {
+        private final BlockingQueue<Render> completed;
+
+        private Render(Callable<Receipt> render, BlockingQueue<Render> completed) {
+            super(render);
+            this.completed = completed;
+        }
+
+        @Override
+        protected void done() {
+            completed.add(this);
+        }
+    }
+
+    private static class Receipt {
+        private final Long saleId;
+        private final byte[] content;
+
+        private Receipt(Long saleId, byte[] content) {
+            this.saleId = saleId;
+            this.content = content;
+        }
+    }
+}
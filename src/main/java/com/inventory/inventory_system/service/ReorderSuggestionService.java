@@ -0,0 +1,304 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.dto.DailySales;
+import com.inventory.inventory_system.dto.ReorderCandidate;
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.entity.ReorderSuggestion;
+import com.inventory.inventory_system.entity.Supplier;
+import com.inventory.inventory_system.repository.ProductRepository;
+import com.inventory.inventory_system.repository.ReorderSuggestionRepository;
+import com.inventory.inventory_system.repository.SaleRepository;
+import com.inventory.inventory_system.repository.SupplierRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Purchase suggestions from a demand forecast, recomputed by a scheduled batch
+ * and kept in reorder_suggestions so the reports page only reads them.
+ *
+ * The product id range is split on a fork/join pool down to chunks; each chunk
+ * reads its products and their units sold per day (one grouped query, over the
+ * history window up to yesterday) and forecasts every product with
+ * {@link DemandForecast}. A product is suggested once its stock won't last the
+ * supplier lead time with its reorder level kept as safety stock, for enough
+ * to cover the lead time and the cover period after it. Each chunk reads in
+ * one short transaction, forecasts outside it, and replaces its own range of
+ * suggestions in a second one, so a worker only holds a connection while it
+ * queries. The pool defaults to one thread per CPU, at most half the
+ * connection pool.
+ */
+@Component
+public class ReorderSuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReorderSuggestionService.class);
+
+    private final ProductRepository productRepository;
+    private final SaleRepository saleRepository;
+    private final ReorderSuggestionRepository reorderSuggestionRepository;
+    private final SupplierRepository supplierRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long intervalMillis;
+    private final int historyDays;
+    private final int leadTimeDays;
+    private final int coverDays;
+    private final int chunkSize;
+    private final ForkJoinPool forecastPool;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reorder-suggestions");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicInteger suggestions = new AtomicInteger();
+
+    public ReorderSuggestionService(ProductRepository productRepository, SaleRepository saleRepository,
+                                    ReorderSuggestionRepository reorderSuggestionRepository,
+                                    SupplierRepository supplierRepository, TransactionTemplate transactionTemplate,
+                                    MeterRegistry registry, DataSource dataSource,
+                                    @Value("${inventory.forecast.enabled:true}") boolean enabled,
+                                    @Value("${inventory.forecast.interval-ms:3600000}") long intervalMillis,
+                                    @Value("${inventory.forecast.history-days:56}") int historyDays,
+                                    @Value("${inventory.forecast.lead-time-days:7}") int leadTimeDays,
+                                    @Value("${inventory.forecast.cover-days:14}") int coverDays,
+                                    @Value("${inventory.forecast.chunk-size:1000}") int chunkSize,
+                                    @Value("${inventory.forecast.threads:0}") int threads) {
+        this.productRepository = productRepository;
+        this.saleRepository = saleRepository;
+        this.reorderSuggestionRepository = reorderSuggestionRepository;
+        this.supplierRepository = supplierRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.intervalMillis = intervalMillis;
+        this.historyDays = historyDays;
+        this.leadTimeDays = leadTimeDays;
+        this.coverDays = coverDays;
+        this.chunkSize = Math.max(1, chunkSize);
+        AtomicInteger threadIds = new AtomicInteger();
+        this.forecastPool = new ForkJoinPool(BatchThreads.of(threads, dataSource),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("demand-forecast-" + threadIds.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        Gauge.builder("inventory.reorder.suggestions", suggestions, AtomicInteger::get)
+            .description("Products with a reorder suggestion from the last forecast run")
+            .register(registry);
+    }
+
+    // The first run starts right away, in the background
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(4)
+    public void start() {
+        if (!enabled) {
+            log.info("🛒 Reorder suggestions disabled, keeping the stored ones");
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // A run in progress finishes its chunks before the connection pool closes
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        forecastPool.shutdown();
+        scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        forecastPool.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * The most urgent suggestions, least days of cover first, grouped by supplier
+     * name in order of their most urgent product.
+     */
+    public Map<String, List<ReorderSuggestion>> getSuggestionsBySupplier(int limit) {
+        List<ReorderSuggestion> urgent = reorderSuggestionRepository.findMostUrgent(PageRequest.of(0, limit));
+        Set<Long> supplierIds = new HashSet<>();
+        for (ReorderSuggestion suggestion : urgent) {
+            Long supplierId = parseSupplierId(suggestion.getSupplierId());
+            if (supplierId != null) {
+                supplierIds.add(supplierId);
+            }
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (Supplier supplier : supplierRepository.findAllById(supplierIds)) {
+            names.put(supplier.getId(), supplier.getName());
+        }
+        Map<String, List<ReorderSuggestion>> bySupplier = new LinkedHashMap<>();
+        for (ReorderSuggestion suggestion : urgent) {
+            Long supplierId = parseSupplierId(suggestion.getSupplierId());
+            String name = supplierId != null ? names.get(supplierId) : null;
+            if (name == null) {
+                name = suggestion.getSupplierId() != null ? "Supplier " + suggestion.getSupplierId() : "No supplier";
+            }
+            bySupplier.computeIfAbsent(name, key -> new ArrayList<>()).add(suggestion);
+        }
+        return bySupplier;
+    }
+
+    /**
+     * Recomputes every product's suggestion and returns how many products have
+     * one. Called by the schedule, a failed run keeps the previous suggestions.
+     */
+    public int refresh() {
+        long start = System.nanoTime();
+        try {
+            Long maxId = productRepository.findMaxId();
+            long lastId = maxId != null ? maxId : 0;
+            LocalDate today = LocalDate.now();
+            LocalDateTime computedAt = LocalDateTime.now();
+            int suggested = lastId > 0
+                ? forecastPool.submit(new Partition(1, lastId, today, computedAt)).get()
+                : 0;
+            transactionTemplate.execute(status -> reorderSuggestionRepository.deleteAfterProductId(lastId));
+            suggestions.set(suggested);
+            log.info("🛒 Forecast demand of products up to id {} in {} ms, {} reorder suggestions",
+                lastId, (System.nanoTime() - start) / 1_000_000, suggested);
+            return suggested;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return suggestions.get();
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("❌ Reorder suggestion run failed", e);
+            return suggestions.get();
+        }
+    }
+
+    // Suggestions for the products in [from, to], replacing the range's previous ones
+    private int suggest(long from, long to, LocalDate today, LocalDateTime computedAt) {
+        LocalDate firstDay = today.minusDays(historyDays);
+        List<ReorderCandidate> candidates = new ArrayList<>();
+        Map<Long, int[]> histories = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            candidates.addAll(productRepository.findReorderCandidates(from, to));
+            if (!candidates.isEmpty()) {
+                for (DailySales sales : saleRepository.sumDailyQuantities(from, to, firstDay.atStartOfDay(),
+                        today.atStartOfDay())) {
+                    int day = (int) ChronoUnit.DAYS.between(firstDay, sales.getDay());
+                    histories.computeIfAbsent(sales.getProductId(), id -> new int[historyDays])[day] += sales.getQuantity();
+                }
+            }
+        });
+
+        // Forecast without a connection held
+        int[] noSales = new int[historyDays];
+        List<ReorderSuggestion> rows = new ArrayList<>();
+        for (ReorderCandidate candidate : candidates) {
+            ReorderSuggestion suggestion = suggest(candidate,
+                histories.getOrDefault(candidate.getProductId(), noSales), computedAt);
+            if (suggestion != null) {
+                rows.add(suggestion);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            reorderSuggestionRepository.deleteByProductIdRange(from, to);
+            reorderSuggestionRepository.saveAll(rows);
+        });
+        return rows.size();
+    }
+
+    private ReorderSuggestion suggest(ReorderCandidate candidate, int[] daily, LocalDateTime computedAt) {
+        double[] forecast = DemandForecast.forecast(daily, leadTimeDays + coverDays);
+        double leadTimeDemand = 0;
+        double demand = 0;
+        for (int day = 0; day < forecast.length; day++) {
+            demand += forecast[day];
+            if (day < leadTimeDays) {
+                leadTimeDemand += forecast[day];
+            }
+        }
+        int safetyStock = candidate.getReorderLevel() != null
+            ? candidate.getReorderLevel() : Product.DEFAULT_REORDER_LEVEL;
+        int quantity = candidate.getQuantity();
+        if (quantity > leadTimeDemand + safetyStock) {
+            return null;
+        }
+        int order = (int) Math.ceil(demand + safetyStock - quantity);
+        if (order <= 0) {
+            return null;
+        }
+        double dailyDemand = forecast.length > 0 ? demand / forecast.length : 0;
+        ReorderSuggestion suggestion = new ReorderSuggestion();
+        suggestion.setProductId(candidate.getProductId());
+        suggestion.setProductName(candidate.getName());
+        suggestion.setProductSku(candidate.getSku());
+        suggestion.setSupplierId(candidate.getSupplierId());
+        suggestion.setQuantity(quantity);
+        suggestion.setDailyDemand(dailyDemand);
+        suggestion.setDaysOfCover(dailyDemand > 0 ? Math.max(0, quantity) / dailyDemand : null);
+        suggestion.setSuggestedQuantity(order);
+        suggestion.setComputedAt(computedAt);
+        return suggestion;
+    }
+
+    // Products store their supplier's id as text
+    private static Long parseSupplierId(String supplierId) {
+        if (supplierId == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(supplierId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Splits its id range in halves until it is one chunk, then forecasts that chunk
+    private final class Partition extends RecursiveTask<Integer> {
+
+        private final long from;
+        private final long to;
+        private final LocalDate today;
+        private final LocalDateTime computedAt;
+
+        private Partition(long from, long to, LocalDate today, LocalDateTime computedAt) {
+            this.from = from;
+            this.to = to;
+            this.today = today;
+            this.computedAt = computedAt;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from < chunkSize) {
+                return suggest(from, to, today, computedAt);
+            }
+            long middle = from + (to - from) / 2;
+            Partition lower = new Partition(from, middle, today, computedAt);
+            Partition upper = new Partition(middle + 1, to, today, computedAt);
+            upper.fork();
+            return lower.compute() + upper.join();
+        }
+    }
+}
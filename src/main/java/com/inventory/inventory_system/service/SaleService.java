@@ -1,20 +1,41 @@
 package com.inventory.inventory_system.service;
 
+import com.inventory.inventory_system.dto.Money;
+import com.inventory.inventory_system.dto.SaleListItem;
 import com.inventory.inventory_system.entity.Product;
 import com.inventory.inventory_system.entity.Sale;
+import com.inventory.inventory_system.jfr.SaleCommitEvent;
+import com.inventory.inventory_system.journal.JournaledSale;
+import com.inventory.inventory_system.outbox.Outbox;
+import com.inventory.inventory_system.repository.IdempotencyKeyRepository;
 import com.inventory.inventory_system.repository.SaleRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
+@Transactional(readOnly = true)
+@Timed(value = "inventory.service", description = "Service method latency", histogram = true)
 public class SaleService {
+
+    private static final Logger log = LoggerFactory.getLogger(SaleService.class);
     
     @Autowired
     private SaleRepository saleRepository;
@@ -22,18 +43,68 @@ public class SaleService {
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+    
+    @Autowired
+    private StockLedger stockLedger;
+    
+    @Autowired
+    private Outbox outbox;
+    
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     public List<Sale> getAllSales() {
         try {
             List<Sale> sales = saleRepository.findAll();
-            System.out.println("📈 Retrieved " + sales.size() + " sales from database");
+            log.debug("📈 Retrieved {} sales from database", sales.size());
             return sales;
         } catch (Exception e) {
-            System.err.println("⚠️ Could not retrieve sales from database: " + e.getMessage());
-            System.out.println("📝 Returning empty list - application will continue working");
+            log.warn("⚠️ Could not retrieve sales from database, returning empty list: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+    
+    // Sales history rows: just the displayed columns, nothing enters the persistence context
+    public List<SaleListItem> getSaleListItems() {
+        try {
+            return saleRepository.findListItems();
+        } catch (Exception e) {
+            log.warn("⚠️ Could not retrieve sales from database, returning empty list: {}", e.getMessage());
             return Collections.emptyList();
         }
     }
     
+    public Optional<Sale> getSaleById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return saleRepository.findById(id);
+    }
+    
+    // Walks the sales in a date range in id order, one batch at a time, detaching
+    // each batch once the consumer is done so large ranges run in constant memory.
+    // Not transactional, like ProductService.forEachProductBatch.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void forEachSaleBatch(LocalDateTime start, LocalDateTime end, int batchSize, Consumer<List<Sale>> consumer) {
+        Long lastId = 0L;
+        List<Sale> batch;
+        do {
+            batch = saleRepository.findBySaleDateBetweenAndIdGreaterThanOrderByIdAsc(
+                start, end, lastId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            consumer.accept(batch);
+            lastId = batch.get(batch.size() - 1).getId();
+            entityManager.clear();
+        } while (batch.size() == batchSize);
+    }
+    
     // New method for debug purposes
     public List<Object[]> getAllSalesWithDetails() {
         List<Sale> sales = getAllSales();
@@ -53,20 +124,64 @@ public class SaleService {
         return result;
     }
     
+    // Stock reservation and insert in one write transaction; products.quantity follows
+    // in the StockLedger's next flush
+    @Transactional
     public Sale saveSale(Sale sale) {
-        // Update product stock and get product details
+        return saveSale(sale, null);
+    }
+    
+    // The idempotency key, if any, is stored with the sale: a second sale with the same
+    // key fails on the key's primary key and rolls back, stock hold included
+    @Transactional
+    public Sale saveSale(Sale sale, String idempotencyKey) {
+        SaleCommitEvent event = new SaleCommitEvent();
+        event.begin();
+        event.productId = sale.getProductId() != null ? sale.getProductId() : -1;
+        event.quantity = sale.getQuantity() != null ? sale.getQuantity() : 0;
+        event.outcome = SaleCommitEvent.FAILED;
+        
+        // The sale only counts once the transaction has actually committed, and the
+        // event's duration includes the commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    event.outcome = SaleCommitEvent.COMMITTED;
+                    inventoryMetrics.saleCommitted();
+                }
+                event.commit();
+            }
+        });
+        return doSaveSale(sale, idempotencyKey, event);
+    }
+    
+    private Sale doSaveSale(Sale sale, String idempotencyKey, SaleCommitEvent event) {
+        // Reserve the stock and get product details
         Optional<Product> productOpt = productService.getProductById(sale.getProductId());
         if (productOpt.isPresent()) {
             Product product = productOpt.get();
             
-            // Check stock
-            if (product.getQuantity() < sale.getQuantity()) {
+            // Check stock: the ledger holds the quantity without touching the product row
+            StockLedger.Hold hold = stockLedger.reserve(product.getId(), sale.getQuantity(), sale.getLocation());
+            if (hold == null) {
+                inventoryMetrics.stockRejected();
+                event.outcome = SaleCommitEvent.INSUFFICIENT_STOCK;
                 throw new RuntimeException("Insufficient stock for product: " + product.getName());
             }
-            
-            // Update product quantity
-            product.setQuantity(product.getQuantity() - sale.getQuantity());
-            productService.saveProduct(product);
+            event.lockWait = hold.getLockWaitNanos();
+            sale.setLocation(hold.getLocation());
+            sale.setStockPending(true);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        stockLedger.confirm(hold, sale.getId());
+                    } else {
+                        stockLedger.release(hold);
+                    }
+                }
+            });
             
             // Set product details in sale for quick access
             sale.setProductName(product.getName());
@@ -81,23 +196,88 @@ public class SaleService {
                 sale.setCreatedAt(LocalDateTime.now());
             }
             
-            // Calculate total amount if not set
+            // Calculate total amount if not set, from the price in whole cents
+            sale.setUnitPrice(Money.round(sale.getUnitPrice()));
+            sale.setTotalAmount(Money.round(sale.getTotalAmount()));
             if (sale.getTotalAmount() == null && sale.getUnitPrice() != null && sale.getQuantity() != null) {
                 sale.setTotalAmount(sale.getUnitPrice().multiply(BigDecimal.valueOf(sale.getQuantity())));
             }
         } else {
+            event.outcome = SaleCommitEvent.PRODUCT_NOT_FOUND;
             throw new RuntimeException("Product not found with id: " + sale.getProductId());
         }
         
         Sale savedSale = saleRepository.save(sale);
-        System.out.println("💾 Saved sale: " + savedSale.getId() + " for product: " + savedSale.getProductName());
+        if (idempotencyKey != null) {
+            idempotencyKeyRepository.insert(idempotencyKey, savedSale.getId(), LocalDateTime.now());
+        }
+        outbox.saleCreated(savedSale);
+        log.info("💾 Saved sale: {} for product: {}", savedSale.getId(), savedSale.getProductName());
         return savedSale;
     }
     
+    // Sales accepted by the SaleJournal, applied in journal order in one transaction.
+    // Each row keeps its journal sequence, so the ones already committed before a
+    // crash are skipped when the journal is replayed. Sales whose idempotency key is
+    // already taken are retries and skipped too. Returns the rows inserted.
+    @Transactional
+    public List<Sale> applyJournaledSales(List<JournaledSale> entries) {
+        long lastApplied = getLastJournalSequence();
+        Set<String> keys = new HashSet<>();
+        for (JournaledSale entry : entries) {
+            if (entry.getIdempotencyKey() != null) {
+                keys.add(entry.getIdempotencyKey());
+            }
+        }
+        Set<String> taken = keys.isEmpty() ? new HashSet<>() : new HashSet<>(idempotencyKeyRepository.findExisting(keys));
+        List<Sale> applied = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (JournaledSale entry : entries) {
+            if (entry.getSequence() <= lastApplied) {
+                continue;
+            }
+            String key = entry.getIdempotencyKey();
+            if (key != null && !taken.add(key)) {
+                log.info("📒 Skipped journaled sale {}, idempotency key {} was already used", entry.getSequence(), key);
+                continue;
+            }
+            // Stock was reserved when the journal accepted the sale, the StockLedger
+            // takes it off products.quantity
+            Sale sale = entry.toSale();
+            sale.setStockPending(true);
+            Sale savedSale = saleRepository.save(sale);
+            if (key != null) {
+                idempotencyKeyRepository.insert(key, savedSale.getId(), now);
+            }
+            applied.add(savedSale);
+        }
+        outbox.salesCreated(applied);
+        log.debug("📒 Applied {} journaled sales up to sequence {}", applied.size(),
+            entries.isEmpty() ? lastApplied : entries.get(entries.size() - 1).getSequence());
+        return applied;
+    }
+    
+    public long getLastJournalSequence() {
+        Long sequence = saleRepository.findLastJournalSequence();
+        return sequence != null ? sequence : 0;
+    }
+    
+    public Long getSaleIdByJournalSequence(long sequence) {
+        return saleRepository.findIdByJournalSequence(sequence);
+    }
+    
+    @Transactional
     public void deleteSale(Long id) {
         try {
-            saleRepository.deleteById(id);
-            System.out.println("🗑️ Deleted sale: " + id);
+            Sale sale = saleRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Sale not found with id: " + id));
+            // The stock ledger's flush writes the sale's movements from its row, so it has to stay until then
+            if (Boolean.TRUE.equals(sale.getStockPending())) {
+                throw new RuntimeException("Sale " + id + " is still being taken off stock, try again in a moment");
+            }
+            saleRepository.delete(sale);
+            outbox.saleDeleted(sale);
+            log.info("🗑️ Deleted sale: {}", id);
         } catch (Exception e) {
             throw new RuntimeException("Error deleting sale: " + e.getMessage());
         }
@@ -109,16 +289,14 @@ public class SaleService {
             LocalDateTime endOfDay = LocalDate.now().atTime(23, 59, 59);
             List<Sale> todaySales = saleRepository.findBySaleDateBetween(startOfDay, endOfDay);
             
-            BigDecimal total = BigDecimal.ZERO;
+            Money.Total total = new Money.Total();
             for (Sale sale : todaySales) {
-                if (sale.getTotalAmount() != null) {
-                    total = total.add(sale.getTotalAmount());
-                }
+                total.add(sale.getTotalAmount());
             }
-            System.out.println("💰 Today's sales total: $" + total);
-            return total;
+            log.debug("💰 Today's sales total: ${}", total);
+            return total.toBigDecimal();
         } catch (Exception e) {
-            System.err.println("Error calculating today's sales: " + e.getMessage());
+            log.warn("Error calculating today's sales", e);
             return BigDecimal.ZERO;
         }
     }
@@ -130,41 +308,38 @@ public class SaleService {
             LocalDateTime endOfMonth = currentMonth.atEndOfMonth().atTime(23, 59, 59);
             List<Sale> monthSales = saleRepository.findBySaleDateBetween(startOfMonth, endOfMonth);
             
-            BigDecimal total = BigDecimal.ZERO;
+            Money.Total total = new Money.Total();
             for (Sale sale : monthSales) {
-                if (sale.getTotalAmount() != null) {
-                    total = total.add(sale.getTotalAmount());
-                }
+                total.add(sale.getTotalAmount());
             }
-            System.out.println("💰 Monthly sales total: $" + total);
-            return total;
+            log.debug("💰 Monthly sales total: ${}", total);
+            return total.toBigDecimal();
         } catch (Exception e) {
-            System.err.println("Error calculating monthly sales: " + e.getMessage());
+            log.warn("Error calculating monthly sales", e);
             return BigDecimal.ZERO;
         }
     }
     
     public Map<String, BigDecimal> getSalesByCategory() {
-        Map<String, BigDecimal> salesByCategory = new HashMap<>();
+        Map<String, Money.Total> salesByCategory = new HashMap<>();
         
         try {
             List<Sale> allSales = getAllSales();
-            System.out.println("📊 Processing " + allSales.size() + " sales for category analysis");
+            log.debug("📊 Processing {} sales for category analysis", allSales.size());
             
             for (Sale sale : allSales) {
                 String category = sale.getProductCategory();
                 BigDecimal amount = sale.getTotalAmount();
                 
                 if (amount != null && category != null) {
-                    salesByCategory.merge(category, amount, BigDecimal::add);
-                    System.out.println("📦 Category: " + category + ", Amount: $" + amount);
+                    salesByCategory.computeIfAbsent(category, key -> new Money.Total()).add(amount);
                 }
             }
         } catch (Exception e) {
-            System.err.println("Error calculating sales by category: " + e.getMessage());
+            log.warn("Error calculating sales by category", e);
         }
         
-        return salesByCategory;
+        return toAmounts(salesByCategory, new HashMap<>());
     }
     
     public List<Map<String, Object>> getTopSellingProducts(int limit) {
@@ -172,50 +347,43 @@ public class SaleService {
         
         try {
             List<Sale> allSales = getAllSales();
-            Map<Long, Map<String, Object>> productSales = new HashMap<>();
+            Map<Long, ProductSales> productSales = new HashMap<>();
             
             for (Sale sale : allSales) {
-                Long productId = sale.getProductId();
-                String productName = sale.getProductName();
-                Long quantity = sale.getQuantity().longValue();
-                BigDecimal price = sale.getUnitPrice();
-                
-                if (productSales.containsKey(productId)) {
-                    Map<String, Object> existing = productSales.get(productId);
-                    Long currentQuantity = (Long) existing.get("totalSold");
-                    existing.put("totalSold", currentQuantity + quantity);
-                    
-                    // Update revenue
-                    BigDecimal currentRevenue = (BigDecimal) existing.get("revenue");
-                    BigDecimal saleRevenue = price.multiply(BigDecimal.valueOf(quantity));
-                    existing.put("revenue", currentRevenue.add(saleRevenue));
-                } else {
-                    Map<String, Object> productData = new HashMap<>();
-                    productData.put("productId", productId);
-                    productData.put("productName", productName);
-                    productData.put("totalSold", quantity);
-                    productData.put("price", price);
-                    productData.put("revenue", price.multiply(BigDecimal.valueOf(quantity)));
-                    productSales.put(productId, productData);
+                ProductSales totals = productSales.get(sale.getProductId());
+                if (totals == null) {
+                    // Name and price as of the product's first sale
+                    totals = new ProductSales(sale.getProductName(), sale.getUnitPrice());
+                    productSales.put(sale.getProductId(), totals);
                 }
+                totals.totalSold += sale.getQuantity();
+                totals.revenue.add(sale.getUnitPrice(), sale.getQuantity());
             }
             
-            productSales.values().stream()
-                .sorted((a, b) -> Long.compare((Long) b.get("totalSold"), (Long) a.get("totalSold")))
+            productSales.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().totalSold, a.getValue().totalSold))
                 .limit(limit)
-                .forEach(topProducts::add);
+                .forEach(entry -> {
+                    Map<String, Object> productData = new HashMap<>();
+                    productData.put("productId", entry.getKey());
+                    productData.put("productName", entry.getValue().productName);
+                    productData.put("totalSold", entry.getValue().totalSold);
+                    productData.put("price", entry.getValue().price);
+                    productData.put("revenue", entry.getValue().revenue.toBigDecimal());
+                    topProducts.add(productData);
+                });
                 
-            System.out.println("🔥 Top selling products: " + topProducts.size());
+            log.debug("🔥 Top selling products: {}", topProducts.size());
                 
         } catch (Exception e) {
-            System.err.println("Error calculating top selling products: " + e.getMessage());
+            log.warn("Error calculating top selling products", e);
         }
         
         return topProducts;
     }
     
     public Map<String, BigDecimal> getMonthlySalesForChart(int months) {
-        Map<String, BigDecimal> monthlySales = new LinkedHashMap<>();
+        Map<String, Money.Total> monthlySales = new LinkedHashMap<>();
         
         try {
             // Get current date and go backwards
@@ -226,78 +394,75 @@ public class SaleService {
             for (int i = months - 1; i >= 0; i--) {
                 LocalDate monthDate = now.minusMonths(i);
                 String monthKey = monthDate.format(formatter);
-                monthlySales.put(monthKey, BigDecimal.ZERO);
+                monthlySales.put(monthKey, new Money.Total());
             }
             
             // Fill with actual data
             List<Sale> allSales = getAllSales();
-            System.out.println("📈 Total sales found for monthly chart: " + allSales.size());
+            log.debug("📈 Total sales found for monthly chart: {}", allSales.size());
             
             for (Sale sale : allSales) {
                 LocalDateTime saleDate = sale.getSaleDate();
                 if (saleDate != null) {
-                    String monthKey = saleDate.format(formatter);
-                    
-                    if (monthlySales.containsKey(monthKey)) {
-                        BigDecimal currentTotal = monthlySales.get(monthKey);
-                        BigDecimal saleAmount = sale.getTotalAmount();
-                        if (saleAmount != null) {
-                            monthlySales.put(monthKey, currentTotal.add(saleAmount));
-                            System.out.println("➕ Added sale: $" + saleAmount + " to " + monthKey);
-                        }
+                    Money.Total monthTotal = monthlySales.get(saleDate.format(formatter));
+                    if (monthTotal != null) {
+                        monthTotal.add(sale.getTotalAmount());
                     }
                 }
             }
             
-            System.out.println("📈 Final monthly sales data: " + monthlySales);
+            log.debug("📈 Final monthly sales data: {}", monthlySales);
             
         } catch (Exception e) {
-            System.err.println("❌ Error calculating monthly sales for chart: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Error calculating monthly sales for chart", e);
             
             // Fallback: Generate sample data for demonstration
             return generateSampleMonthlyData(months);
         }
         
-        return monthlySales;
+        return toAmounts(monthlySales, new LinkedHashMap<>());
     }
 
     public Map<String, BigDecimal> getSalesByCategoryForChart() {
-        Map<String, BigDecimal> salesByCategory = new HashMap<>();
+        Map<String, Money.Total> salesByCategory = new HashMap<>();
         
         try {
             List<Sale> allSales = getAllSales();
-            System.out.println("📊 Processing " + allSales.size() + " sales for category chart");
+            log.debug("📊 Processing {} sales for category chart", allSales.size());
             
             for (Sale sale : allSales) {
                 String category = sale.getProductCategory();
                 BigDecimal amount = sale.getTotalAmount();
                 
                 if (amount != null && category != null && !category.trim().isEmpty()) {
-                    salesByCategory.merge(category, amount, BigDecimal::add);
-                    System.out.println("📦 Category: " + category + ", Amount: $" + amount);
+                    salesByCategory.computeIfAbsent(category, key -> new Money.Total()).add(amount);
                 } else {
-                    System.out.println("⏭️ Skipping sale - missing category or amount: " + sale);
+                    log.trace("⏭️ Skipping sale {} - missing category or amount", sale.getId());
                 }
             }
             
             // If no sales data or all categories are null, provide sample categories
             if (salesByCategory.isEmpty()) {
-                System.out.println("📝 No sales data found - using sample categories");
+                log.debug("📝 No sales data found - using sample categories");
                 return generateSampleCategoryData();
             }
             
-            System.out.println("📊 Final category sales data: " + salesByCategory);
+            log.debug("📊 Final category sales data: {}", salesByCategory);
             
         } catch (Exception e) {
-            System.err.println("❌ Error in getSalesByCategoryForChart: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Error in getSalesByCategoryForChart", e);
             
             // Fallback data in case of error
             return generateSampleCategoryData();
         }
         
-        return salesByCategory;
+        return toAmounts(salesByCategory, new HashMap<>());
+    }
+    
+    // Group totals back to the BigDecimal maps callers expect, in the same key order
+    private static <K> Map<K, BigDecimal> toAmounts(Map<K, Money.Total> totals, Map<K, BigDecimal> amounts) {
+        totals.forEach((key, total) -> amounts.put(key, total.toBigDecimal()));
+        return amounts;
     }
     
     // Helper method to generate sample monthly data
@@ -315,7 +480,7 @@ public class SaleService {
             sampleData.put(monthKey, amount);
         }
         
-        System.out.println("🎯 Generated sample monthly data: " + sampleData);
+        log.debug("🎯 Generated sample monthly data: {}", sampleData);
         return sampleData;
     }
     
@@ -329,20 +494,21 @@ public class SaleService {
         sampleData.put("Stationery", BigDecimal.valueOf(random.nextDouble() * 800 + 200).setScale(2, BigDecimal.ROUND_HALF_UP));
         sampleData.put("Other", BigDecimal.valueOf(random.nextDouble() * 1000 + 300).setScale(2, BigDecimal.ROUND_HALF_UP));
         
-        System.out.println("🎯 Generated sample category data: " + sampleData);
+        log.debug("🎯 Generated sample category data: {}", sampleData);
         return sampleData;
     }
     
     // Method to create sample sales data for testing
+    @Transactional
     public void createSampleSalesData() {
         try {
             List<Product> products = productService.getAllProducts();
             if (products.isEmpty()) {
-                System.out.println("⚠️ No products available to create sample sales");
+                log.warn("⚠️ No products available to create sample sales");
                 return;
             }
             
-            System.out.println("🎯 Creating sample sales data...");
+            log.info("🎯 Creating sample sales data...");
             
             // Create sales for the last 6 months
             LocalDateTime now = LocalDateTime.now();
@@ -366,14 +532,14 @@ public class SaleService {
                 sale.setSaleDate(now.minusMonths(monthsAgo).minusDays(daysAgo));
                 sale.setCreatedAt(LocalDateTime.now());
                 
-                saleRepository.save(sale);
-                System.out.println("✅ Created sample sale: " + product.getName() + " - $" + sale.getTotalAmount());
+                outbox.saleCreated(saleRepository.save(sale));
+                log.debug("✅ Created sample sale: {} - ${}", product.getName(), sale.getTotalAmount());
             }
             
-            System.out.println("🎉 Sample sales data created successfully");
+            log.info("🎉 Sample sales data created successfully");
             
         } catch (Exception e) {
-            System.err.println("❌ Error creating sample sales data: " + e.getMessage());
+            log.error("❌ Error creating sample sales data", e);
         }
     }
     
@@ -400,7 +566,7 @@ public class SaleService {
             }
             
         } catch (Exception e) {
-            System.err.println("Error in native monthly sales query: " + e.getMessage());
+            log.warn("Error in native monthly sales query: {}", e.getMessage());
         }
         
         return monthlySales;
@@ -413,10 +579,10 @@ public Map<String, Object> getDashboardChartData() {
     try {
         // Get all sales
         List<Sale> allSales = getAllSales();
-        System.out.println("📊 Processing " + allSales.size() + " sales for dashboard charts");
+        log.debug("📊 Processing {} sales for dashboard charts", allSales.size());
         
         // Monthly Sales Data
-        Map<String, BigDecimal> monthlySales = new LinkedHashMap<>();
+        Map<String, Money.Total> monthlySales = new LinkedHashMap<>();
         LocalDate now = LocalDate.now();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM yyyy");
         
@@ -424,22 +590,19 @@ public Map<String, Object> getDashboardChartData() {
         for (int i = 5; i >= 0; i--) {
             LocalDate monthDate = now.minusMonths(i);
             String monthKey = monthDate.format(formatter);
-            monthlySales.put(monthKey, BigDecimal.ZERO);
+            monthlySales.put(monthKey, new Money.Total());
         }
         
         // Sales by Category
-        Map<String, BigDecimal> salesByCategory = new HashMap<>();
+        Map<String, Money.Total> salesByCategory = new HashMap<>();
         
         // Process each sale
         for (Sale sale : allSales) {
             // Monthly data
             if (sale.getSaleDate() != null) {
-                String monthKey = sale.getSaleDate().format(formatter);
-                BigDecimal saleAmount = sale.getTotalAmount();
-                
-                if (monthlySales.containsKey(monthKey) && saleAmount != null) {
-                    BigDecimal currentTotal = monthlySales.get(monthKey);
-                    monthlySales.put(monthKey, currentTotal.add(saleAmount));
+                Money.Total monthTotal = monthlySales.get(sale.getSaleDate().format(formatter));
+                if (monthTotal != null) {
+                    monthTotal.add(sale.getTotalAmount());
                 }
             }
             
@@ -448,20 +611,17 @@ public Map<String, Object> getDashboardChartData() {
             BigDecimal amount = sale.getTotalAmount();
             
             if (amount != null && category != null && !category.trim().isEmpty()) {
-                salesByCategory.merge(category, amount, BigDecimal::add);
+                salesByCategory.computeIfAbsent(category, key -> new Money.Total()).add(amount);
             }
         }
         
-        chartData.put("monthlySales", monthlySales);
-        chartData.put("salesByCategory", salesByCategory);
+        chartData.put("monthlySales", toAmounts(monthlySales, new LinkedHashMap<>()));
+        chartData.put("salesByCategory", toAmounts(salesByCategory, new HashMap<>()));
         
-        System.out.println("✅ Dashboard chart data processed successfully");
-        System.out.println("📈 Monthly Sales: " + monthlySales);
-        System.out.println("📊 Sales by Category: " + salesByCategory);
+        log.debug("✅ Dashboard chart data processed: monthly {}, by category {}", monthlySales, salesByCategory);
         
     } catch (Exception e) {
-        System.err.println("❌ Error processing dashboard chart data: " + e.getMessage());
-        e.printStackTrace();
+        log.error("❌ Error processing dashboard chart data", e);
         
         // Return empty data instead of sample data
         chartData.put("monthlySales", new LinkedHashMap<>());
@@ -470,4 +630,17 @@ public Map<String, Object> getDashboardChartData() {
     
     return chartData;
 }
+
+    // Running totals for one product in getTopSellingProducts
+    private static class ProductSales {
+        private final String productName;
+        private final BigDecimal price;
+        private long totalSold;
+        private final Money.Total revenue = new Money.Total();
+
+        private ProductSales(String productName, BigDecimal price) {
+            this.productName = productName;
+            this.price = price;
+        }
+    }
 }
\ No newline at end of file
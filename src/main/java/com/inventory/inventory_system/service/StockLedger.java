@@ -0,0 +1,699 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.dto.StockLevel;
+import com.inventory.inventory_system.entity.StockBin;
+import com.inventory.inventory_system.entity.StockMovement;
+import com.inventory.inventory_system.repository.ProductRepository;
+import com.inventory.inventory_system.repository.SaleRepository;
+import com.inventory.inventory_system.repository.StockBinRepository;
+import com.inventory.inventory_system.repository.StockMovementRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory stock per product and location bin, the authority for whether a
+ * sale can go ahead. A checkout reserves its quantity from one bin as a hold
+ * under the product's stripe lock (no I/O inside), confirms the hold once its
+ * Sale row has committed, or releases it on rollback. Holds not confirmed in
+ * time go back to stock.
+ *
+ * Confirmed quantities are taken off products.quantity and the stock_bins rows
+ * in batches by a background flush, so concurrent checkouts never queue on a
+ * row lock. The sale rows carry a stock_pending flag that the flush clears in
+ * the same transaction; on startup whatever is still flagged from the last run
+ * is applied before the ledger is loaded from the bins.
+ *
+ * Rebalancing moves stock between a product's bins in memory (the warehouse,
+ * i.e. the default location, tops up the stores) and the flush writes the
+ * moves like any other change.
+ *
+ * Every write to products.quantity here also appends the matching
+ * stock_movements rows in the same transaction (see StockMovementService),
+ * and tells the LowStockMonitor the product's new quantity.
+ *
+ * For every bin: stock_bins.quantity + moved - sold = available + held, and
+ * products.quantity is the sum of the product's bins.
+ */
+@Component
+public class StockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final int SALE_ID_CHUNK = 1000;
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final ProductRepository productRepository;
+    private final SaleRepository saleRepository;
+    private final StockBinRepository stockBinRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final LowStockMonitor lowStockMonitor;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] stripes;
+    private final List<String> locations;
+    private final String defaultLocation;
+    private final long holdTtlMillis;
+    private final long flushIntervalMillis;
+    private final long rebalanceIntervalMillis;
+    private final int rebalanceMinimum;
+
+    // Guarded by the product's stripe lock
+    private final Map<Long, Stock> stocks = new ConcurrentHashMap<>();
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+    // Products with sales or moves waiting for the next flush
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // A flush and an absolute write of products.quantity (a product edit) never overlap
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong holdIds = new AtomicLong();
+    private final AtomicLong unflushedUnits = new AtomicLong();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-ledger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean ready;
+
+    public StockLedger(ProductRepository productRepository, SaleRepository saleRepository,
+                       StockBinRepository stockBinRepository, StockMovementRepository stockMovementRepository,
+                       LowStockMonitor lowStockMonitor, TransactionTemplate transactionTemplate,
+                       MeterRegistry registry,
+                       @Value("${inventory.stock-ledger.stripes:64}") int stripes,
+                       @Value("${inventory.stock-ledger.locations:MAIN}") String[] locations,
+                       @Value("${inventory.stock-ledger.default-location:}") String defaultLocation,
+                       @Value("${inventory.stock-ledger.hold-ttl-ms:30000}") long holdTtlMillis,
+                       @Value("${inventory.stock-ledger.flush-interval-ms:200}") long flushIntervalMillis,
+                       @Value("${inventory.stock-ledger.rebalance-interval-ms:60000}") long rebalanceIntervalMillis,
+                       @Value("${inventory.stock-ledger.rebalance-minimum:10}") int rebalanceMinimum) {
+        this.productRepository = productRepository;
+        this.saleRepository = saleRepository;
+        this.stockBinRepository = stockBinRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.lowStockMonitor = lowStockMonitor;
+        this.transactionTemplate = transactionTemplate;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.locations = Collections.unmodifiableList(Arrays.asList(locations));
+        this.defaultLocation = defaultLocation.isEmpty() ? locations[0] : defaultLocation;
+        this.holdTtlMillis = holdTtlMillis;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.rebalanceIntervalMillis = rebalanceIntervalMillis;
+        this.rebalanceMinimum = rebalanceMinimum;
+        Gauge.builder("inventory.stock.unflushed", unflushedUnits, AtomicLong::get)
+            .description("Units sold but not yet taken off products.quantity")
+            .register(registry);
+        Gauge.builder("inventory.stock.holds", holds, Map::size)
+            .description("Stock reservations waiting to be confirmed or released")
+            .register(registry);
+    }
+
+    // After the sale journal has replayed its rows (see SaleJournal.recover)
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void rebuild() {
+        Integer applied = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            int imported = stockMovementRepository.insertImportMovements(defaultLocation, now);
+            if (imported > 0) {
+                log.info("📦 Recorded opening stock movements for {} products", imported);
+            }
+            List<StockLevel> pending = saleRepository.sumPendingStockByBin();
+            for (StockLevel level : pending) {
+                String location = level.getLocation() != null ? level.getLocation() : defaultLocation;
+                productRepository.decrementStock(level.getProductId(), level.getQuantity(), now);
+                stockBinRepository.adjustQuantity(level.getProductId(), location, -level.getQuantity(), now);
+            }
+            stockMovementRepository.insertPendingSaleMovements(defaultLocation, now);
+            saleRepository.clearAllStockPending();
+            for (String location : locations) {
+                stockBinRepository.insertMissingBins(location, now);
+            }
+            stockBinRepository.reconcileDefaultBins(defaultLocation, now);
+            return pending.size();
+        });
+        for (StockBin bin : stockBinRepository.findAll()) {
+            Bin loaded = new Bin();
+            loaded.available = bin.getQuantity();
+            stocks.computeIfAbsent(bin.getProductId(), id -> new Stock()).bins.put(bin.getLocation(), loaded);
+        }
+        lowStockMonitor.load();
+        ready = true;
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::expireHolds, 1, 1, TimeUnit.SECONDS);
+        if (locations.size() > 1) {
+            scheduler.scheduleWithFixedDelay(this::rebalance, rebalanceIntervalMillis, rebalanceIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        }
+        log.info("📦 Stock ledger loaded for {} products in {} ({} had sales from the last run still to take off)",
+            stocks.size(), locations, applied);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        ready = false;
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    public List<String> getLocations() { return locations; }
+
+    public String getDefaultLocation() { return defaultLocation; }
+
+    /**
+     * Holds the quantity for a checkout, returns null if no bin has enough stock.
+     * The hold goes back to stock by itself if not confirmed within the hold TTL.
+     */
+    public Hold reserve(Long productId, int quantity, String location) {
+        return reserve(productId, quantity, location, System.currentTimeMillis() + holdTtlMillis);
+    }
+
+    // For sales that are already durable elsewhere (the sale journal) and only confirmed later
+    public Hold reserveUntilConfirmed(Long productId, int quantity, String location) {
+        return reserve(productId, quantity, location, NO_EXPIRY);
+    }
+
+    private Hold reserve(Long productId, int quantity, String location, long expiresAt) {
+        if (!ready) {
+            throw new RuntimeException("Stock is still loading, try again shortly");
+        }
+        ReentrantLock lock = stripe(productId);
+        long lockWait = lock(lock);
+        String chosen;
+        try {
+            Stock stock = stocks.get(productId);
+            if (stock == null) {
+                throw new RuntimeException("Product not found with id: " + productId);
+            }
+            chosen = pick(stock, location, quantity);
+            if (chosen == null) {
+                return null;
+            }
+            Bin bin = stock.bins.get(chosen);
+            bin.available -= quantity;
+            bin.held += quantity;
+        } finally {
+            lock.unlock();
+        }
+        Hold hold = new Hold(holdIds.incrementAndGet(), productId, chosen, quantity, expiresAt, lockWait);
+        holds.put(hold.id, hold);
+        return hold;
+    }
+
+    /**
+     * Holds every line of an order, or nothing if any line can't be covered
+     * (returns null). The stripe locks of all the order's products are taken up
+     * front in ascending stripe order, so two baskets sharing products can't
+     * deadlock, and no other checkout sees the order half reserved.
+     */
+    public List<Hold> reserveAll(List<Long> productIds, List<Integer> quantities, String location) {
+        if (!ready) {
+            throw new RuntimeException("Stock is still loading, try again shortly");
+        }
+        int[] order = new int[productIds.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = stripeIndex(productIds.get(i));
+        }
+        int[] locked = Arrays.stream(order).distinct().sorted().toArray();
+        long lockWait = 0;
+        int taken = 0;
+        String[] chosen = new String[productIds.size()];
+        try {
+            for (; taken < locked.length; taken++) {
+                lockWait += lock(stripes[locked[taken]]);
+            }
+            int line = 0;
+            for (; line < chosen.length; line++) {
+                Stock stock = stocks.get(productIds.get(line));
+                if (stock == null) {
+                    break;
+                }
+                chosen[line] = pick(stock, location, quantities.get(line));
+                if (chosen[line] == null) {
+                    break;
+                }
+                Bin bin = stock.bins.get(chosen[line]);
+                bin.available -= quantities.get(line);
+                bin.held += quantities.get(line);
+            }
+            if (line < chosen.length) {
+                // Put back what the earlier lines took
+                for (int undo = 0; undo < line; undo++) {
+                    Bin bin = stocks.get(productIds.get(undo)).bins.get(chosen[undo]);
+                    bin.available += quantities.get(undo);
+                    bin.held -= quantities.get(undo);
+                }
+                if (!stocks.containsKey(productIds.get(line))) {
+                    throw new RuntimeException("Product not found with id: " + productIds.get(line));
+                }
+                return null;
+            }
+        } finally {
+            for (int i = taken - 1; i >= 0; i--) {
+                stripes[locked[i]].unlock();
+            }
+        }
+        long expiresAt = System.currentTimeMillis() + holdTtlMillis;
+        List<Hold> reserved = new ArrayList<>(chosen.length);
+        for (int line = 0; line < chosen.length; line++) {
+            Hold hold = new Hold(holdIds.incrementAndGet(), productIds.get(line), chosen[line], quantities.get(line),
+                expiresAt, lockWait);
+            holds.put(hold.id, hold);
+            reserved.add(hold);
+        }
+        return reserved;
+    }
+
+    // The requested bin, or the default one when none is given; failing that the bin with the most stock
+    private String pick(Stock stock, String location, int quantity) {
+        String wanted = location != null && !location.isEmpty() ? location : defaultLocation;
+        Bin bin = stock.bins.get(wanted);
+        if (bin != null && bin.available >= quantity) {
+            return wanted;
+        }
+        String fullest = null;
+        int most = quantity - 1;
+        for (Map.Entry<String, Bin> entry : stock.bins.entrySet()) {
+            if (entry.getValue().available > most) {
+                most = entry.getValue().available;
+                fullest = entry.getKey();
+            }
+        }
+        return fullest;
+    }
+
+    /**
+     * The sale row has committed: the quantity is sold and goes out with the next
+     * flush. A hold that expired meanwhile is taken from stock again.
+     */
+    public void confirm(Hold hold, Long saleId) {
+        boolean live = holds.remove(hold.id) != null;
+        ReentrantLock lock = stripe(hold.productId);
+        lock.lock();
+        try {
+            Stock stock = stocks.get(hold.productId);
+            Bin bin = stock != null ? stock.bins.get(hold.location) : null;
+            if (bin == null) {
+                return;
+            }
+            if (live) {
+                bin.held -= hold.quantity;
+            } else {
+                log.warn("⚠️ Sale {} committed after its stock hold expired, product {} may be oversold",
+                    saleId, hold.productId);
+                bin.available -= hold.quantity;
+            }
+            bin.sold += hold.quantity;
+            if (saleId != null) {
+                stock.unflushedSales.add(saleId);
+            } else {
+                bin.soldWithoutSale += hold.quantity;
+            }
+        } finally {
+            lock.unlock();
+        }
+        unflushedUnits.addAndGet(hold.quantity);
+        dirty.add(hold.productId);
+    }
+
+    public void release(Hold hold) {
+        if (holds.remove(hold.id) == null) {
+            return;
+        }
+        ReentrantLock lock = stripe(hold.productId);
+        lock.lock();
+        try {
+            Stock stock = stocks.get(hold.productId);
+            Bin bin = stock != null ? stock.bins.get(hold.location) : null;
+            if (bin != null) {
+                bin.held -= hold.quantity;
+                bin.available += hold.quantity;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Across all bins
+    public int getAvailable(Long productId) {
+        ReentrantLock lock = stripe(productId);
+        lock.lock();
+        try {
+            Stock stock = stocks.get(productId);
+            int available = 0;
+            if (stock != null) {
+                for (Bin bin : stock.bins.values()) {
+                    available += bin.available;
+                }
+            }
+            return available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called around a transaction that writes products.quantity as an absolute
+     * value, so no flush lands between the write and {@link #stockWritten}.
+     */
+    public void pauseFlushing() {
+        flushLock.lock();
+    }
+
+    public void resumeFlushing() {
+        flushLock.unlock();
+    }
+
+    // The default bin row was just set to quantity; sales and moves not flushed yet still apply to it
+    public void stockWritten(Long productId, int quantity) {
+        ReentrantLock lock = stripe(productId);
+        lock.lock();
+        try {
+            Stock stock = stocks.computeIfAbsent(productId, id -> new Stock());
+            for (String location : locations) {
+                stock.bins.computeIfAbsent(location, key -> new Bin());
+            }
+            Bin bin = stock.bins.get(defaultLocation);
+            bin.available = quantity + bin.moved - bin.sold - bin.held;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void productDeleted(Long productId) {
+        ReentrantLock lock = stripe(productId);
+        lock.lock();
+        try {
+            Stock stock = stocks.remove(productId);
+            if (stock != null) {
+                for (Bin bin : stock.bins.values()) {
+                    unflushedUnits.addAndGet(-bin.sold);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush() {
+        flushLock.lock();
+        try {
+            List<Flushed> batch = new ArrayList<>();
+            for (Iterator<Long> iterator = dirty.iterator(); iterator.hasNext(); ) {
+                Long productId = iterator.next();
+                iterator.remove();
+                ReentrantLock lock = stripe(productId);
+                lock.lock();
+                try {
+                    Stock stock = stocks.get(productId);
+                    if (stock != null) {
+                        Flushed flushed = new Flushed(productId, stock.unflushedSales);
+                        for (Map.Entry<String, Bin> entry : stock.bins.entrySet()) {
+                            Bin bin = entry.getValue();
+                            if (bin.sold != 0 || bin.moved != 0) {
+                                flushed.bins.add(new BinChange(entry.getKey(), bin.sold, bin.soldWithoutSale, bin.moved));
+                                flushed.sold += bin.sold;
+                                bin.sold = 0;
+                                bin.soldWithoutSale = 0;
+                                bin.moved = 0;
+                            }
+                            // What products.quantity will be once this batch is written
+                            flushed.quantity += bin.available + bin.held;
+                        }
+                        stock.unflushedSales = new ArrayList<>();
+                        batch.add(flushed);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Could not flush stock of {} products, retrying: {}", batch.size(), e.getMessage());
+                restore(batch);
+            }
+        } catch (RuntimeException e) {
+            // Keep the scheduled task alive whatever happens
+            log.error("❌ Stock ledger flush failed", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<Flushed> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> saleIds = new ArrayList<>();
+            List<StockMovement> movements = new ArrayList<>();
+            for (Flushed flushed : batch) {
+                if (flushed.sold != 0) {
+                    productRepository.decrementStock(flushed.productId, flushed.sold, now);
+                    lowStockMonitor.quantityWritten(flushed.productId, flushed.quantity);
+                }
+                for (BinChange change : flushed.bins) {
+                    if (change.moved != change.sold) {
+                        stockBinRepository.adjustQuantity(flushed.productId, change.location,
+                            change.moved - change.sold, now);
+                    }
+                    if (change.moved != 0) {
+                        movements.add(new StockMovement(flushed.productId, change.location, change.moved,
+                            StockMovement.TRANSFER));
+                    }
+                    if (change.soldWithoutSale != 0) {
+                        movements.add(new StockMovement(flushed.productId, change.location, -change.soldWithoutSale,
+                            StockMovement.SALE));
+                    }
+                }
+                saleIds.addAll(flushed.saleIds);
+            }
+            for (int from = 0; from < saleIds.size(); from += SALE_ID_CHUNK) {
+                List<Long> chunk = saleIds.subList(from, Math.min(from + SALE_ID_CHUNK, saleIds.size()));
+                stockMovementRepository.insertSaleMovements(chunk, defaultLocation, now);
+                saleRepository.clearStockPending(chunk);
+            }
+            stockMovementRepository.saveAll(movements);
+        });
+        long units = 0;
+        for (Flushed flushed : batch) {
+            units += flushed.sold;
+        }
+        unflushedUnits.addAndGet(-units);
+        log.debug("📦 Flushed {} units of stock for {} products", units, batch.size());
+    }
+
+    // Back into the ledger for the next flush, unless the product has gone meanwhile
+    private void restore(List<Flushed> batch) {
+        for (Flushed flushed : batch) {
+            ReentrantLock lock = stripe(flushed.productId);
+            lock.lock();
+            try {
+                Stock stock = stocks.get(flushed.productId);
+                if (stock != null) {
+                    for (BinChange change : flushed.bins) {
+                        Bin bin = stock.bins.computeIfAbsent(change.location, location -> new Bin());
+                        bin.sold += change.sold;
+                        bin.soldWithoutSale += change.soldWithoutSale;
+                        bin.moved += change.moved;
+                    }
+                    stock.unflushedSales.addAll(flushed.saleIds);
+                    dirty.add(flushed.productId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void rebalance() {
+        int units = 0;
+        int products = 0;
+        try {
+            for (Long productId : stocks.keySet()) {
+                ReentrantLock lock = stripe(productId);
+                lock.lock();
+                try {
+                    Stock stock = stocks.get(productId);
+                    int moved = stock != null ? rebalance(stock) : 0;
+                    if (moved > 0) {
+                        units += moved;
+                        products++;
+                        dirty.add(productId);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Stock rebalancing failed", e);
+        }
+        if (units > 0) {
+            log.info("🚚 Rebalanced {} units of stock across {} products", units, products);
+        }
+    }
+
+    // Stores below the minimum are topped up from the warehouse (default) bin. A warehouse bin
+    // that went negative, when an edit lowered the total below what the stores hold, is covered
+    // from the stores first
+    private int rebalance(Stock stock) {
+        Bin warehouse = stock.bins.get(defaultLocation);
+        if (warehouse == null || stock.bins.size() < 2) {
+            return 0;
+        }
+        int units = 0;
+        for (Bin store : stock.bins.values()) {
+            if (store == warehouse) {
+                continue;
+            }
+            if (warehouse.available < 0 && store.available > 0) {
+                int quantity = Math.min(-warehouse.available, store.available);
+                move(store, warehouse, quantity);
+                units += quantity;
+            } else if (store.available < rebalanceMinimum && warehouse.available > 0) {
+                int quantity = Math.min(rebalanceMinimum - store.available, warehouse.available);
+                move(warehouse, store, quantity);
+                units += quantity;
+            }
+        }
+        return units;
+    }
+
+    private static void move(Bin from, Bin to, int quantity) {
+        from.available -= quantity;
+        from.moved -= quantity;
+        to.available += quantity;
+        to.moved += quantity;
+    }
+
+    private void expireHolds() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (Hold hold : holds.values()) {
+            if (hold.expiresAt < now) {
+                release(hold);
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.info("⏱️ Returned {} expired stock holds", expired);
+        }
+    }
+
+    private ReentrantLock stripe(Long productId) {
+        return stripes[stripeIndex(productId)];
+    }
+
+    private int stripeIndex(Long productId) {
+        return Math.floorMod(Long.hashCode(productId), stripes.length);
+    }
+
+    // Nanoseconds spent waiting, 0 when the lock was free
+    private static long lock(ReentrantLock lock) {
+        if (lock.tryLock()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        return System.nanoTime() - start;
+    }
+
+    private static final class Stock {
+        private final Map<String, Bin> bins = new LinkedHashMap<>();
+        private List<Long> unflushedSales = new ArrayList<>();
+    }
+
+    private static final class Bin {
+        private int available;
+        private int held;
+        // Not flushed yet: units sold from the bin (some by sales whose id wasn't known),
+        // and net units moved into it
+        private int sold;
+        private int soldWithoutSale;
+        private int moved;
+    }
+
+    private static final class Flushed {
+
+        private final long productId;
+        private final List<Long> saleIds;
+        private final List<BinChange> bins = new ArrayList<>();
+        private int sold;
+        private int quantity;
+
+        private Flushed(long productId, List<Long> saleIds) {
+            this.productId = productId;
+            this.saleIds = saleIds;
+        }
+    }
+
+    private static final class BinChange {
+
+        private final String location;
+        private final int sold;
+        private final int soldWithoutSale;
+        private final int moved;
+
+        private BinChange(String location, int sold, int soldWithoutSale, int moved) {
+            this.location = location;
+            this.sold = sold;
+            this.soldWithoutSale = soldWithoutSale;
+            this.moved = moved;
+        }
+    }
+
+    public static final class Hold {
+
+        private final long id;
+        private final long productId;
+        private final String location;
+        private final int quantity;
+        private final long expiresAt;
+        private final long lockWaitNanos;
+
+        private Hold(long id, long productId, String location, int quantity, long expiresAt, long lockWaitNanos) {
+            this.id = id;
+            this.productId = productId;
+            this.location = location;
+            this.quantity = quantity;
+            this.expiresAt = expiresAt;
+            this.lockWaitNanos = lockWaitNanos;
+        }
+
+        public long getProductId() { return productId; }
+
+        public String getLocation() { return location; }
+
+        public int getQuantity() { return quantity; }
+
+        public long getLockWaitNanos() { return lockWaitNanos; }
+    }
+}
@@ -0,0 +1,241 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.dto.StockLevel;
+import com.inventory.inventory_system.entity.StockMovement;
+import com.inventory.inventory_system.repository.ProductRepository;
+import com.inventory.inventory_system.repository.StockMovementRepository;
+import com.inventory.inventory_system.repository.StockSnapshotRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * History of stock as append-only stock_movements rows: every write to
+ * products.quantity (ledger flush, product edit, startup import) inserts its
+ * movements in the same transaction, so a product's stock is its latest
+ * snapshot plus the movements after it.
+ *
+ * Snapshots are taken periodically for the products that moved since the last
+ * run, all up to the same movement id, and a reconciliation job checks
+ * products.quantity against the movements in parallel chunks of product ids.
+ * Both run with the StockLedger's flushing paused where they need a fixed
+ * point: every movement writer goes through the ledger's flush lock, so no
+ * movement below the snapshot's id can commit after it.
+ */
+@Component
+public class StockMovementService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockMovementService.class);
+
+    private final ProductRepository productRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final StockLedger stockLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final long snapshotIntervalMillis;
+    private final long reconcileIntervalMillis;
+    private final int reconcileChunkSize;
+    private final int snapshotRetentionDays;
+    private final ExecutorService reconcileExecutor;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-movements");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Products found out of line by the last reconciliation
+    private final AtomicInteger drift = new AtomicInteger();
+
+    public StockMovementService(ProductRepository productRepository, StockMovementRepository stockMovementRepository,
+                                StockSnapshotRepository stockSnapshotRepository, StockLedger stockLedger,
+                                TransactionTemplate transactionTemplate, MeterRegistry registry, DataSource dataSource,
+                                @Value("${inventory.stock-movements.snapshot-interval-ms:300000}") long snapshotIntervalMillis,
+                                @Value("${inventory.stock-movements.reconcile-interval-ms:3600000}") long reconcileIntervalMillis,
+                                @Value("${inventory.stock-movements.reconcile-chunk-size:1000}") int reconcileChunkSize,
+                                @Value("${inventory.stock-movements.reconcile-threads:0}") int reconcileThreads,
+                                @Value("${inventory.stock-movements.snapshot-retention-days:30}") int snapshotRetentionDays) {
+        this.productRepository = productRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockSnapshotRepository = stockSnapshotRepository;
+        this.stockLedger = stockLedger;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+        this.reconcileIntervalMillis = reconcileIntervalMillis;
+        this.reconcileChunkSize = Math.max(1, reconcileChunkSize);
+        this.snapshotRetentionDays = snapshotRetentionDays;
+        // Each chunk reads in its own transaction, the default leaves requests at least half the pool
+        int threads = BatchThreads.of(reconcileThreads, dataSource);
+        AtomicInteger threadIds = new AtomicInteger();
+        this.reconcileExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "stock-reconcile-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("inventory.stock.drift", drift, AtomicInteger::get)
+            .description("Products whose quantity disagreed with their stock movements at the last reconciliation")
+            .register(registry);
+    }
+
+    // Once the StockLedger has recorded the opening movements
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::snapshot, snapshotIntervalMillis, snapshotIntervalMillis,
+            TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::reconcile, reconcileIntervalMillis, reconcileIntervalMillis,
+            TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        reconcileExecutor.shutdownNow();
+    }
+
+    public List<StockMovement> getRecentMovements(Long productId) {
+        return stockMovementRepository.findTop20ByProductIdOrderByIdDesc(productId);
+    }
+
+    // Stock as the movements have it: the latest snapshot plus everything after it
+    public int getLedgerQuantity(Long productId) {
+        return transactionTemplate.execute(status -> {
+            long[] snapshot = {0, 0};
+            stockSnapshotRepository.findFirstByProductIdOrderByLastMovementIdDesc(productId).ifPresent(latest -> {
+                snapshot[0] = latest.getQuantity();
+                snapshot[1] = latest.getLastMovementId();
+            });
+            return Math.toIntExact(snapshot[0] + stockMovementRepository.sumChangesAfter(productId, snapshot[1]));
+        });
+    }
+
+    public void snapshot() {
+        try {
+            stockLedger.pauseFlushing();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Long upTo = stockMovementRepository.findMaxId();
+                    Long after = stockSnapshotRepository.findLastMovementId();
+                    long from = after != null ? after : 0;
+                    if (upTo == null || upTo <= from) {
+                        return;
+                    }
+                    LocalDateTime now = LocalDateTime.now();
+                    int taken = stockSnapshotRepository.insertSnapshots(from, upTo, now);
+                    int pruned = stockSnapshotRepository.deleteSupersededBefore(now.minusDays(snapshotRetentionDays));
+                    log.info("📸 Took {} stock snapshots up to movement {} ({} old ones pruned)", taken, upTo, pruned);
+                });
+            } finally {
+                stockLedger.resumeFlushing();
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Stock snapshot failed", e);
+        }
+    }
+
+    /**
+     * Compares products.quantity with the movements, chunk by chunk in parallel.
+     * The chunks read without stopping the flush, so a product that looks out of
+     * line is checked again with flushing paused before it counts as drift.
+     * Returns the number of products that still disagree.
+     */
+    public int reconcile() {
+        long start = System.nanoTime();
+        try {
+            Long maxId = productRepository.findMaxId();
+            if (maxId == null) {
+                return 0;
+            }
+            // Snapshots run on this same thread, so the watermark can't move during the pass
+            Long watermark = stockSnapshotRepository.findLastMovementId();
+            long after = watermark != null ? watermark : 0;
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (long from = 1; from <= maxId; from += reconcileChunkSize) {
+                long chunkFrom = from;
+                long chunkTo = Math.min(maxId, from + reconcileChunkSize - 1);
+                futures.add(reconcileExecutor.submit(() -> compare(chunkFrom, chunkTo, after)));
+            }
+            List<Long> suspects = new ArrayList<>();
+            for (Future<List<Long>> future : futures) {
+                suspects.addAll(future.get());
+            }
+
+            int outOfLine = 0;
+            for (Long productId : suspects) {
+                if (recheck(productId)) {
+                    outOfLine++;
+                }
+            }
+            drift.set(outOfLine);
+            log.info("🔍 Reconciled stock of products up to id {} in {} ms, {} out of line with their movements",
+                maxId, (System.nanoTime() - start) / 1_000_000, outOfLine);
+            return outOfLine;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return drift.get();
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("❌ Stock reconciliation failed", e);
+            return drift.get();
+        }
+    }
+
+    // Products in [from, to] whose quantity differs from their snapshot plus later movements
+    private List<Long> compare(long from, long to, long after) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, Integer> expected = new HashMap<>();
+            for (StockLevel snapshot : stockSnapshotRepository.findLatestQuantities(from, to)) {
+                expected.put(snapshot.getProductId(), snapshot.getQuantity());
+            }
+            for (StockLevel change : stockMovementRepository.sumChangesAfter(after, from, to)) {
+                expected.merge(change.getProductId(), change.getQuantity(), Integer::sum);
+            }
+            List<Long> suspects = new ArrayList<>();
+            for (StockLevel product : productRepository.findStockLevels(from, to)) {
+                if (expected.getOrDefault(product.getProductId(), 0) != product.getQuantity()) {
+                    suspects.add(product.getProductId());
+                }
+            }
+            return suspects;
+        });
+    }
+
+    private boolean recheck(Long productId) {
+        stockLedger.pauseFlushing();
+        try {
+            List<StockLevel> recorded = productRepository.findStockLevels(productId, productId);
+            if (recorded.isEmpty()) {
+                return false;
+            }
+            int quantity = recorded.get(0).getQuantity();
+            int fromMovements = getLedgerQuantity(productId);
+            if (quantity == fromMovements) {
+                return false;
+            }
+            log.warn("⚠️ Stock of product {} is {} but its movements add up to {}", productId, quantity, fromMovements);
+            return true;
+        } finally {
+            stockLedger.resumeFlushing();
+        }
+    }
+}
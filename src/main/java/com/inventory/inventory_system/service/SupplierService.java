@@ -1,10 +1,15 @@
 package com.inventory.inventory_system.service;
 
 import com.inventory.inventory_system.dto.SupplierDTO;
+import com.inventory.inventory_system.dto.SupplierListItem;
 import com.inventory.inventory_system.entity.Supplier;
 import com.inventory.inventory_system.repository.SupplierRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
@@ -12,7 +17,11 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
+@Timed(value = "inventory.service", description = "Service method latency", histogram = true)
 public class SupplierService {
+
+    private static final Logger log = LoggerFactory.getLogger(SupplierService.class);
     
     @Autowired
     private SupplierRepository supplierRepository;
@@ -25,7 +34,7 @@ public class SupplierService {
         try {
             return supplierRepository.findAll();
         } catch (Exception e) {
-            System.err.println("⚠️ Could not retrieve suppliers from database: " + e.getMessage());
+            log.warn("⚠️ Could not retrieve suppliers from database: {}", e.getMessage());
             return Collections.emptyList();
         }
     }
@@ -34,6 +43,7 @@ public class SupplierService {
         return supplierRepository.findById(id);
     }
     
+    @Transactional
     public Supplier saveSupplier(Supplier supplier) {
         if (supplier.getCreatedAt() == null) {
             supplier.setCreatedAt(java.time.LocalDateTime.now());
@@ -51,6 +61,7 @@ public class SupplierService {
         return supplierRepository.save(supplier);
     }
     
+    @Transactional
     public void deleteSupplier(Long id) {
         try {
             supplierRepository.deleteById(id);
@@ -67,6 +78,22 @@ public class SupplierService {
         return supplierRepository.findByNameContainingIgnoreCase(keyword);
     }
     
+    // List page rows: just the displayed columns, nothing enters the persistence context
+    public List<SupplierListItem> getSupplierListItems() {
+        return supplierRepository.findListItems();
+    }
+    
+    public List<SupplierListItem> searchSupplierListItems(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return getSupplierListItems();
+        }
+        return supplierRepository.findListItemsByNameContaining(keyword);
+    }
+    
+    public List<String> getCountries() {
+        return supplierRepository.findCountries();
+    }
+    
     // DTO methods
     public List<SupplierDTO> getAllSupplierDTOs() {
         List<Supplier> suppliers = getAllSuppliers();
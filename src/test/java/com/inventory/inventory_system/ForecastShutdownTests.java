@@ -0,0 +1,76 @@
+package com.inventory.inventory_system;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the application as shipped, with the demand forecast running at
+ * startup and every interval, and closes it while runs are going on: the
+ * shutdown waits for them instead of closing the database under them.
+ */
+class ForecastShutdownTests {
+
+	@Test
+	void shutdownWaitsForForecastRuns() throws Exception {
+		// Arguments, as properties() would only be defaults under application.properties
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(InventorySystemApplication.class)
+				.run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:forecastshutdown;DB_CLOSE_ON_EXIT=FALSE",
+						"--inventory.forecast.interval-ms=50");
+		// Attached after startup, which resets the logging configuration
+		Logger logger = (Logger) LoggerFactory.getLogger("com.inventory.inventory_system");
+		ListAppender<ILoggingEvent> events = new ListAppender<>();
+		events.start();
+		logger.addAppender(events);
+		try {
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (forecastRuns(events) < 2 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+			}
+			assertTrue(forecastRuns(events) >= 2, "The forecast never ran");
+		} finally {
+			context.close();
+			logger.detachAppender(events);
+		}
+		assertEquals(List.of(), errors(events));
+	}
+
+	private static int forecastRuns(ListAppender<ILoggingEvent> events) {
+		int runs = 0;
+		for (ILoggingEvent event : snapshot(events)) {
+			if (event.getFormattedMessage().startsWith("🛒 Forecast demand")) {
+				runs++;
+			}
+		}
+		return runs;
+	}
+
+	private static List<String> errors(ListAppender<ILoggingEvent> events) {
+		List<String> errors = new ArrayList<>();
+		for (ILoggingEvent event : snapshot(events)) {
+			if (event.getLevel().isGreaterOrEqual(Level.ERROR)) {
+				errors.add(event.getLoggerName() + ": " + event.getFormattedMessage());
+			}
+		}
+		return errors;
+	}
+
+	// Appended to from the forecast threads, under the appender's own lock
+	private static List<ILoggingEvent> snapshot(ListAppender<ILoggingEvent> events) {
+		synchronized (events) {
+			return new ArrayList<>(events.list);
+		}
+	}
+
+}
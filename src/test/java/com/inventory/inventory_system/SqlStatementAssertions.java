@@ -0,0 +1,41 @@
+package com.inventory.inventory_system;
+
+import com.inventory.inventory_system.config.SqlStatementFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MockMvc matchers over the X-Sql-Statements and X-Sql-Connections headers
+ * written by SqlStatementFilter.
+ */
+public final class SqlStatementAssertions {
+
+	private SqlStatementAssertions() {
+	}
+
+	public static ResultMatcher maxStatements(int max) {
+		return result -> {
+			int count = headerValue(result.getResponse().getHeader(SqlStatementFilter.COUNT_HEADER),
+					SqlStatementFilter.COUNT_HEADER);
+			assertTrue(count <= max, result.getRequest().getRequestURI() + " ran " + count
+					+ " SQL statements, budget is " + max);
+		};
+	}
+
+	public static ResultMatcher maxConnections(int max) {
+		return result -> {
+			int count = headerValue(result.getResponse().getHeader(SqlStatementFilter.CONNECTIONS_HEADER),
+					SqlStatementFilter.CONNECTIONS_HEADER);
+			assertTrue(count <= max, result.getRequest().getRequestURI() + " borrowed " + count
+					+ " pooled connections, budget is " + max);
+		};
+	}
+
+	private static int headerValue(String header, String name) {
+		assertNotNull(header, "No " + name + " header, is inventory.sql-stats enabled?");
+		return Integer.parseInt(header);
+	}
+
+}
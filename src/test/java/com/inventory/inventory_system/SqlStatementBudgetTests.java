@@ -0,0 +1,69 @@
+package com.inventory.inventory_system;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.inventory.inventory_system.SqlStatementAssertions.maxConnections;
+import static com.inventory.inventory_system.SqlStatementAssertions.maxStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the main pages against the DataLoader sample data.
+ * Lower a budget when a page gets cheaper; a failure here means a page now
+ * issues more queries than it used to. Each page also runs in a single
+ * read-only transaction, so borrows one pooled connection. The demand
+ * forecast is off so its background run doesn't compete for the pool.
+ */
+@SpringBootTest(properties = { "inventory.sql-stats.enabled=true", "inventory.forecast.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:budgettests;DB_CLOSE_ON_EXIT=FALSE" })
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class SqlStatementBudgetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void dashboard() throws Exception {
+		// Sales charts and count come from the outbox-fed SalesRollup, not three loads of every sale
+		mockMvc.perform(get("/dashboard")).andExpect(status().isOk()).andExpect(maxStatements(7))
+				.andExpect(maxConnections(1));
+	}
+
+	@Test
+	void productList() throws Exception {
+		mockMvc.perform(get("/products")).andExpect(status().isOk()).andExpect(maxStatements(5))
+				.andExpect(maxConnections(1));
+	}
+
+	@Test
+	void saleList() throws Exception {
+		mockMvc.perform(get("/sales")).andExpect(status().isOk()).andExpect(maxStatements(5))
+				.andExpect(maxConnections(1));
+	}
+
+	@Test
+	void supplierList() throws Exception {
+		// Projection, countries and stats: no longer grows with the supplier table
+		mockMvc.perform(get("/suppliers")).andExpect(status().isOk()).andExpect(maxStatements(8))
+				.andExpect(maxConnections(1));
+	}
+
+	@Test
+	void newSaleForm() throws Exception {
+		mockMvc.perform(get("/sales/new")).andExpect(status().isOk()).andExpect(maxStatements(5))
+				.andExpect(maxConnections(1));
+	}
+
+	@Test
+	void newOrderForm() throws Exception {
+		mockMvc.perform(get("/orders/new")).andExpect(status().isOk()).andExpect(maxStatements(5))
+				.andExpect(maxConnections(1));
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.inventory.inventory_system.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Money.toCents has to agree with BigDecimal arithmetic on every stored amount,
+ * on the double fast path and off it.
+ */
+class MoneyTests {
+
+	@Test
+	void storedAmountsConvertExactly() {
+		assertEquals(0, Money.toCents(null));
+		assertEquals(0, Money.toCents(BigDecimal.ZERO));
+		assertEquals(10, Money.toCents(new BigDecimal("0.10")));
+		assertEquals(29, Money.toCents(new BigDecimal("0.29")));
+		assertEquals(-1999, Money.toCents(new BigDecimal("-19.99")));
+		assertEquals(1200, Money.toCents(new BigDecimal("12")));
+		// DECIMAL(10,2) maximum
+		assertEquals(9_999_999_999L, Money.toCents(new BigDecimal("99999999.99")));
+	}
+
+	@Test
+	void everyTwoDecimalAmountMatchesBigDecimal() {
+		for (long cents = -100_000; cents <= 100_000; cents += 7) {
+			BigDecimal amount = BigDecimal.valueOf(cents, 2);
+			assertEquals(cents, Money.toCents(amount), amount::toPlainString);
+		}
+	}
+
+	@Test
+	void amountsPastTheDoubleFastPathStayExact() {
+		long cents = (1L << 53) + 1;
+		assertEquals(cents, Money.toCents(BigDecimal.valueOf(cents, 2)));
+		assertEquals(100_000, Money.toCents(new BigDecimal("1E+3")));
+	}
+
+	@Test
+	void thirdDecimalIsRefusedUnlessItIsZero() {
+		assertEquals(150, Money.toCents(new BigDecimal("1.500")));
+		assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("1.005")));
+		assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("0.001")));
+		assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("2.999")));
+	}
+
+	@Test
+	void amountsThatDontFitInALongAreRefused() {
+		assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("1E+17")));
+		assertThrows(ArithmeticException.class,
+				() -> new Money.Total().addCents(Long.MAX_VALUE).add(new BigDecimal("0.01")));
+	}
+
+	@Test
+	void roundBringsEnteredPricesToCentsHalfUp() {
+		assertNull(Money.round(null));
+		assertEquals(new BigDecimal("2.35"), Money.round(new BigDecimal("2.345")));
+		assertEquals(new BigDecimal("2.34"), Money.round(new BigDecimal("2.3449")));
+		assertEquals(new BigDecimal("-2.35"), Money.round(new BigDecimal("-2.345")));
+		assertEquals(new BigDecimal("5.00"), Money.round(new BigDecimal("5")));
+		assertEquals(235, Money.toCents(Money.round(new BigDecimal("2.345"))));
+	}
+
+	@Test
+	void totalsAddWithoutDrift() {
+		Money.Total total = new Money.Total();
+		for (int i = 0; i < 1000; i++) {
+			total.add(new BigDecimal("0.10"));
+		}
+		total.add(new BigDecimal("19.99"), 3);
+		assertEquals(15_997, total.getCents());
+		assertEquals(new BigDecimal("159.97"), total.toBigDecimal());
+		assertEquals(159.97, total.doubleValue());
+		assertEquals(Money.ofCents(15_997), total.toMoney());
+	}
+
+}
@@ -0,0 +1,193 @@
+package com.inventory.inventory_system.journal;
+
+import com.inventory.inventory_system.entity.Sale;
+import com.inventory.inventory_system.service.InventoryMetrics;
+import com.inventory.inventory_system.service.SaleService;
+import com.inventory.inventory_system.service.StockLedger;
+import com.inventory.inventory_system.service.StockLedgerFixture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sales appended to the journal reach the database once each: applied in the
+ * background while running, and after a restart only the sequences the
+ * database doesn't have yet are replayed.
+ */
+class SaleJournalTests {
+
+	private static final long PRODUCT = 1L;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void appendedSalesAreAppliedAndTakenOffStock() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().bin(PRODUCT, StockLedgerFixture.MAIN, 100);
+		StockLedger ledger = fixture.start();
+		SalesTable table = new SalesTable();
+		SaleJournal journal = journal(table.service(), ledger);
+		journal.recover();
+
+		for (int i = 0; i < 3; i++) {
+			journal.record(sale(2), "key-" + i);
+		}
+		// Held as soon as the journal acknowledged each sale
+		assertEquals(94, ledger.getAvailable(PRODUCT));
+
+		table.awaitRows(3);
+		journal.shutdown();
+		fixture.flush();
+		assertEquals(List.of(1L, 2L, 3L), table.sequences());
+		verify(fixture.productRepository).decrementStock(eq(PRODUCT), eq(6), any());
+		verify(fixture.stockMovementRepository).insertSaleMovements(eq(table.ids()), eq(StockLedgerFixture.MAIN),
+				any());
+	}
+
+	@Test
+	void recoveryReplaysOnlyWhatTheDatabaseIsMissing() throws Exception {
+		StockLedgerFixture first = new StockLedgerFixture().bin(PRODUCT, StockLedgerFixture.MAIN, 100);
+		SaleService failing = mock(SaleService.class);
+		when(failing.applyJournaledSales(any())).thenThrow(new RuntimeException("Database is down"));
+		SaleJournal down = journal(failing, first.start());
+		down.recover();
+		for (int i = 0; i < 3; i++) {
+			down.record(sale(1), null);
+		}
+		down.shutdown();
+
+		// The first sale made it to the database before the crash
+		SalesTable table = new SalesTable();
+		table.insert(1);
+		StockLedgerFixture second = new StockLedgerFixture().bin(PRODUCT, StockLedgerFixture.MAIN, 100);
+		SaleJournal restarted = journal(table.service(), second.start());
+		restarted.recover();
+		assertEquals(List.of(1L, 2L, 3L), table.sequences());
+
+		restarted.record(sale(1), null);
+		table.awaitRows(4);
+		restarted.shutdown();
+		assertEquals(List.of(1L, 2L, 3L, 4L), table.sequences());
+
+		// Nothing left to replay on the next start
+		SaleJournal again = journal(table.service(), new StockLedgerFixture()
+				.bin(PRODUCT, StockLedgerFixture.MAIN, 100).start());
+		again.recover();
+		again.shutdown();
+		assertEquals(List.of(1L, 2L, 3L, 4L), table.sequences());
+		assertEquals(4, table.inserts());
+	}
+
+	@Test
+	void saleThatCantBeEncodedGivesItsStockBack() throws Exception {
+		StockLedger ledger = new StockLedgerFixture().bin(PRODUCT, StockLedgerFixture.MAIN, 10).start();
+		SaleJournal journal = journal(new SalesTable().service(), ledger);
+		journal.recover();
+		Sale sale = sale(4);
+		sale.setUnitPrice(new BigDecimal("1.005"));
+
+		assertThrows(ArithmeticException.class, () -> journal.record(sale, null));
+		journal.shutdown();
+		assertEquals(10, ledger.getAvailable(PRODUCT));
+	}
+
+	private SaleJournal journal(SaleService saleService, StockLedger ledger) {
+		return new SaleJournal(saleService, ledger, mock(InventoryMetrics.class), new SimpleMeterRegistry(),
+				directory.toString(), 64 * 1024, 100, 5000);
+	}
+
+	private static Sale sale(int quantity) {
+		Sale sale = new Sale();
+		sale.setProductId(PRODUCT);
+		sale.setProductName("Widget");
+		sale.setQuantity(quantity);
+		sale.setUnitPrice(new BigDecimal("2.50"));
+		sale.setTotalAmount(new BigDecimal("2.50").multiply(BigDecimal.valueOf(quantity)));
+		return sale;
+	}
+
+	/**
+	 * The sales table as SaleService sees it: rows keyed by journal sequence,
+	 * applying a batch skips the sequences already present.
+	 */
+	private static final class SalesTable {
+
+		private final TreeMap<Long, Long> rows = new TreeMap<>();
+		private int inserts;
+
+		synchronized void insert(long sequence) {
+			rows.put(sequence, 1000 + sequence);
+			inserts++;
+		}
+
+		// A sequence inserted twice would show here but not in sequences()
+		synchronized int inserts() {
+			return inserts;
+		}
+
+		synchronized List<Long> sequences() {
+			return new ArrayList<>(rows.keySet());
+		}
+
+		synchronized List<Long> ids() {
+			return new ArrayList<>(rows.values());
+		}
+
+		synchronized void awaitRows(int count) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + 5000;
+			while (rows.size() < count && System.currentTimeMillis() < deadline) {
+				wait(50);
+			}
+			assertTrue(rows.size() >= count, "Only " + rows.size() + " of " + count + " sales applied");
+		}
+
+		SaleService service() {
+			SaleService service = mock(SaleService.class);
+			when(service.getLastJournalSequence()).thenAnswer(invocation -> last());
+			when(service.getSaleIdByJournalSequence(anyLong())).thenAnswer(invocation -> id(invocation.getArgument(0)));
+			when(service.applyJournaledSales(any())).thenAnswer(invocation -> apply(invocation.getArgument(0)));
+			return service;
+		}
+
+		private synchronized long last() {
+			return rows.isEmpty() ? 0 : rows.lastKey();
+		}
+
+		private synchronized Long id(long sequence) {
+			return rows.get(sequence);
+		}
+
+		private synchronized List<Sale> apply(List<JournaledSale> entries) {
+			long last = last();
+			List<Sale> applied = new ArrayList<>();
+			for (JournaledSale entry : entries) {
+				if (entry.getSequence() <= last) {
+					continue;
+				}
+				insert(entry.getSequence());
+				Sale sale = entry.toSale();
+				sale.setId(rows.get(entry.getSequence()));
+				applied.add(sale);
+			}
+			notifyAll();
+			return applied;
+		}
+	}
+
+}
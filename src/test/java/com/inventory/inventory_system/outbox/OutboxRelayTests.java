@@ -0,0 +1,237 @@
+package com.inventory.inventory_system.outbox;
+
+import com.inventory.inventory_system.entity.OutboxCursor;
+import com.inventory.inventory_system.entity.OutboxEvent;
+import com.inventory.inventory_system.repository.OutboxCursorRepository;
+import com.inventory.inventory_system.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The relay over an in-memory outbox table: events reach subscribers in id
+ * order, a gap holds delivery until it times out and the skipped event is
+ * still delivered if it commits late, and an event that keeps failing is
+ * dead-lettered without holding up the ones after it.
+ */
+class OutboxRelayTests {
+
+	private final OutboxTable table = new OutboxTable();
+	private final RecordingSubscriber subscriber = new RecordingSubscriber();
+	private OutboxRelay relay;
+
+	@AfterEach
+	void stop() throws InterruptedException {
+		if (relay != null) {
+			relay.shutdown();
+		}
+	}
+
+	@Test
+	void eventsAreDeliveredInIdOrderAcrossBatches() throws Exception {
+		table.add(1, 2, 3, 4, 5);
+		relay = start(10_000, 600_000, 5);
+
+		await(() -> relay.getWatermark() == 5);
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L), subscriber.delivered());
+		assertEquals(5L, table.cursor());
+		assertEquals(0, relay.getLagMillis());
+	}
+
+	@Test
+	void gapHoldsDeliveryUntilSkippedAndTheEventIsDeliveredIfItCommitsLate() throws Exception {
+		table.add(1, 3);
+		relay = start(500, 600_000, 5);
+
+		await(() -> relay.getWatermark() == 1);
+		// Event 3 waits behind the uncommitted 2
+		Thread.sleep(100);
+		assertEquals(List.of(1L), subscriber.delivered());
+		assertTrue(relay.getLagMillis() > 0);
+
+		await(() -> relay.getWatermark() == 3);
+		assertEquals(List.of(1L, 3L), subscriber.delivered());
+		assertEquals(List.of(2L), subscriber.skipped());
+		assertEquals(1, relay.getSkippedCount());
+
+		table.add(2);
+		await(() -> relay.getSkippedCount() == 0);
+		assertEquals(List.of(1L, 3L, 2L), subscriber.delivered());
+		assertEquals(List.of(), subscriber.abandoned());
+	}
+
+	@Test
+	void skippedIdsAreAbandonedAfterTheLateCommitPeriod() throws Exception {
+		table.add(1, 3);
+		relay = start(50, 200, 5);
+
+		await(() -> !subscriber.abandoned().isEmpty());
+		assertEquals(List.of(2L), subscriber.abandoned());
+		assertEquals(0, relay.getSkippedCount());
+		assertEquals(List.of(1L, 3L), subscriber.delivered());
+	}
+
+	@Test
+	void eventThatKeepsFailingIsDeadLetteredAndPassedOver() throws Exception {
+		table.add(1, 2, 3);
+		subscriber.failOn(2);
+		relay = start(10_000, 600_000, 3);
+
+		await(() -> relay.getWatermark() == 3);
+		assertEquals(List.of(1L, 3L), subscriber.delivered());
+		assertEquals(1.0, relay.getDeadLetteredCount());
+		verify(table.events).markDeadLettered(eq(2L), any(), eq(3), argThat(error -> error.contains("Event 2 is bad")));
+		verify(table.events, never()).markDeadLettered(eq(1L), any(), anyInt(), anyString());
+		verify(table.events, never()).markDeadLettered(eq(3L), any(), anyInt(), anyString());
+	}
+
+	private OutboxRelay start(long gapTimeoutMillis, long lateCommitMillis, int maxAttempts) {
+		OutboxRelay relay = new OutboxRelay(table.events, table.cursors,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), List.of(subscriber),
+				new SimpleMeterRegistry(), 2, 20, gapTimeoutMillis, lateCommitMillis, maxAttempts, 24);
+		relay.start();
+		return relay;
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new AssertionError("Timed out waiting for the relay");
+			}
+			Thread.sleep(20);
+		}
+	}
+
+	/**
+	 * outbox_events and outbox_cursors as the relay queries them. Ids are
+	 * given explicitly, so a test can leave one out and commit it later.
+	 */
+	private static final class OutboxTable {
+
+		final OutboxEventRepository events = mock(OutboxEventRepository.class);
+		final OutboxCursorRepository cursors = mock(OutboxCursorRepository.class);
+		private final TreeMap<Long, OutboxEvent> rows = new TreeMap<>();
+		private volatile long cursor;
+
+		OutboxTable() {
+			when(events.findByIdGreaterThanOrderByIdAsc(anyLong(), any()))
+					.thenAnswer(invocation -> after(invocation.getArgument(0), invocation.getArgument(1)));
+			when(events.findByIdInOrderByIdAsc(any())).thenAnswer(invocation -> in(invocation.getArgument(0)));
+			when(cursors.findById(anyString())).thenAnswer(invocation -> Optional.empty());
+			when(cursors.save(any())).thenAnswer(invocation -> {
+				OutboxCursor saved = invocation.getArgument(0);
+				cursor = saved.getLastEventId();
+				return saved;
+			});
+		}
+
+		synchronized void add(long... ids) {
+			for (long id : ids) {
+				OutboxEvent event = new OutboxEvent(OutboxEvent.SALE_CREATED, id, "{}");
+				event.setId(id);
+				rows.put(id, event);
+			}
+		}
+
+		long cursor() {
+			return cursor;
+		}
+
+		private synchronized List<OutboxEvent> after(long id, Pageable page) {
+			List<OutboxEvent> found = new ArrayList<>();
+			for (OutboxEvent event : rows.tailMap(id, false).values()) {
+				if (found.size() == page.getPageSize()) {
+					break;
+				}
+				found.add(event);
+			}
+			return found;
+		}
+
+		private synchronized List<OutboxEvent> in(Collection<Long> ids) {
+			List<OutboxEvent> found = new ArrayList<>();
+			for (OutboxEvent event : rows.values()) {
+				if (ids.contains(event.getId())) {
+					found.add(event);
+				}
+			}
+			return found;
+		}
+	}
+
+	private static final class RecordingSubscriber implements OutboxSubscriber {
+
+		private final List<Long> delivered = new ArrayList<>();
+		private final List<Long> skipped = new ArrayList<>();
+		private final List<Long> abandoned = new ArrayList<>();
+		private final Set<Long> failing = new HashSet<>();
+
+		synchronized void failOn(long id) {
+			failing.add(id);
+		}
+
+		@Override
+		public synchronized void handle(List<OutboxEvent> events) {
+			for (OutboxEvent event : events) {
+				if (failing.contains(event.getId())) {
+					throw new IllegalStateException("Event " + event.getId() + " is bad");
+				}
+			}
+			for (OutboxEvent event : events) {
+				// Repeats after a failed batch are expected, each event is counted once
+				if (!delivered.contains(event.getId())) {
+					delivered.add(event.getId());
+				}
+			}
+		}
+
+		@Override
+		public synchronized void skipped(List<Long> ids) {
+			skipped.addAll(ids);
+		}
+
+		@Override
+		public synchronized void abandoned(List<Long> ids) {
+			abandoned.addAll(ids);
+		}
+
+		synchronized List<Long> delivered() {
+			return new ArrayList<>(delivered);
+		}
+
+		synchronized List<Long> skipped() {
+			return new ArrayList<>(skipped);
+		}
+
+		synchronized List<Long> abandoned() {
+			return new ArrayList<>(abandoned);
+		}
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.inventory.inventory_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Holt-Winters forecasts on histories whose answer is known: a repeating week,
+ * steady growth, a product that stopped selling, and too little history for a
+ * season.
+ */
+class DemandForecastTests {
+
+	@Test
+	void repeatingWeekIsForecastAsThatWeek() {
+		int[] week = { 10, 10, 10, 10, 10, 30, 30 };
+		double[] forecast = DemandForecast.forecast(weeks(week, 8), 14);
+
+		// The history ends on the week's last day, so the forecast starts on its first
+		for (int day = 0; day < forecast.length; day++) {
+			assertEquals(week[day % DemandForecast.SEASON_DAYS], forecast[day], 0.01, "day " + day);
+		}
+	}
+
+	@Test
+	void steadyGrowthKeepsGrowing() {
+		int[] daily = new int[56];
+		for (int t = 0; t < daily.length; t++) {
+			daily[t] = 10 + t;
+		}
+		double[] forecast = DemandForecast.forecast(daily, 7);
+
+		assertEquals(66, forecast[0], 2);
+		for (int day = 1; day < forecast.length; day++) {
+			assertTrue(forecast[day] > forecast[day - 1], "day " + day);
+		}
+	}
+
+	@Test
+	void forecastIsNeverNegative() {
+		// A busy product that sold nothing last week: level and trend both fall through zero
+		int[] daily = weeks(new int[] { 20, 20, 20, 20, 20, 40, 40 }, 8);
+		for (int t = 49; t < 56; t++) {
+			daily[t] = 0;
+		}
+		for (double units : DemandForecast.forecast(daily, 28)) {
+			assertEquals(0, units);
+		}
+	}
+
+	@Test
+	void shortHistoryGetsAFlatForecast() {
+		assertArrayEquals(new double[] { 4, 4, 4 }, DemandForecast.forecast(new int[] { 4, 4, 4, 4 }, 3));
+		// Exponentially smoothed towards the latest days
+		assertArrayEquals(new double[] { 3, 3 }, DemandForecast.forecast(new int[] { 0, 10 }, 2), 1e-9);
+		assertArrayEquals(new double[] { 0, 0 }, DemandForecast.forecast(new int[0], 2));
+	}
+
+	private static int[] weeks(int[] week, int count) {
+		int[] daily = new int[week.length * count];
+		for (int t = 0; t < daily.length; t++) {
+			daily[t] = week[t % week.length];
+		}
+		return daily;
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A sale submitted several times with one idempotency key, at once or one
+ * after another, is recorded once and every submission gets its id.
+ */
+class IdempotencyKeysTests {
+
+	private final IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+	private final IdempotencyKeys keys = new IdempotencyKeys(repository,
+			new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(), 100, 60_000,
+			5_000, 72);
+
+	@AfterEach
+	void stop() {
+		keys.shutdown();
+	}
+
+	@Test
+	void concurrentDuplicatesRecordOneSale() throws Exception {
+		int submissions = 8;
+		AtomicInteger sales = new AtomicInteger();
+		CountDownLatch ready = new CountDownLatch(submissions);
+		Supplier<Long> sale = () -> {
+			sales.incrementAndGet();
+			sleep(200);
+			return 42L;
+		};
+		ExecutorService pool = Executors.newFixedThreadPool(submissions);
+		try {
+			List<Future<Long>> results = new ArrayList<>();
+			for (int i = 0; i < submissions; i++) {
+				results.add(pool.submit(() -> {
+					ready.countDown();
+					ready.await();
+					return keys.execute("terminal-7:1001", sale);
+				}));
+			}
+			for (Future<Long> result : results) {
+				assertEquals(42L, result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertEquals(1, sales.get());
+		// Later retries are answered from the cache
+		assertEquals(42L, keys.execute("terminal-7:1001", sale));
+		assertEquals(1, sales.get());
+	}
+
+	@Test
+	void failedAttemptLeavesTheKeyFreeForTheRetry() {
+		when(repository.findSaleId("key")).thenReturn(null);
+		AtomicInteger attempts = new AtomicInteger();
+		Supplier<Long> sale = () -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw new RuntimeException("Insufficient stock for product: Widget");
+			}
+			return 43L;
+		};
+
+		assertThrows(RuntimeException.class, () -> keys.execute("key", sale));
+		assertEquals(43L, keys.execute("key", sale));
+		assertEquals(2, attempts.get());
+	}
+
+	@Test
+	void keyRecordedByAnEarlierRunAnswersWithThatSale() {
+		// Not in the cache, the sale's second insert fails on the key's primary key
+		when(repository.findSaleId("key")).thenReturn(44L);
+		Supplier<Long> sale = () -> {
+			throw new RuntimeException("Unique index or primary key violation");
+		};
+
+		assertEquals(44L, keys.execute("key", sale));
+	}
+
+	@Test
+	void keysAreTrimmedAndBlankMeansNone() {
+		assertNull(IdempotencyKeys.normalize("  "));
+		assertEquals("abc", IdempotencyKeys.normalize(" abc "));
+		String tooLong = new String(new char[IdempotencyKeys.MAX_LENGTH + 1]).replace('\0', 'k');
+		assertThrows(RuntimeException.class, () -> IdempotencyKeys.normalize(tooLong));
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
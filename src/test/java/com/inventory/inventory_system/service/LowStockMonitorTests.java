@@ -0,0 +1,131 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.dto.StockThreshold;
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.outbox.Outbox;
+import com.inventory.inventory_system.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Status changes as the stock ledger's flush writes new quantities: the
+ * low_stock column and an outbox event in the flush's transaction, the
+ * low stock count once it commits.
+ */
+class LowStockMonitorTests {
+
+	private static final long PRODUCT = 1L;
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final Outbox outbox = mock(Outbox.class);
+	private final TransactionTemplate transactionTemplate = new TransactionTemplate(new Transactions());
+	private final LowStockMonitor monitor = new LowStockMonitor(productRepository, outbox, transactionTemplate,
+			new SimpleMeterRegistry());
+
+	@Test
+	void statusChangesAreWrittenOncePerTransition() {
+		load(20, 5);
+
+		flushed(5);
+		verify(productRepository).setLowStock(PRODUCT, true);
+		verify(outbox).stockLevelChanged(PRODUCT, 5, 5, Product.LOW_STOCK, Product.IN_STOCK);
+		assertEquals(1, monitor.getLowStockCount());
+
+		// Still low, nothing to write
+		flushed(4);
+		verify(outbox, times(1)).stockLevelChanged(anyLong(), anyInt(), any(), anyString(), anyString());
+
+		flushed(0);
+		verify(productRepository).setLowStock(PRODUCT, false);
+		verify(outbox).stockLevelChanged(PRODUCT, 0, 5, Product.OUT_OF_STOCK, Product.LOW_STOCK);
+		assertEquals(0, monitor.getLowStockCount());
+
+		// Out of stock and in stock both leave the column false
+		flushed(30);
+		verify(outbox).stockLevelChanged(PRODUCT, 30, 5, Product.IN_STOCK, Product.OUT_OF_STOCK);
+		verify(productRepository, times(2)).setLowStock(anyLong(), anyBoolean());
+	}
+
+	@Test
+	void rolledBackFlushLeavesTheStatusAlone() {
+		load(20, 5);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			monitor.quantityWritten(PRODUCT, 3);
+			status.setRollbackOnly();
+		});
+		assertEquals(0, monitor.getLowStockCount());
+
+		// The retried flush sees the same transition again
+		flushed(3);
+		verify(productRepository, times(2)).setLowStock(PRODUCT, true);
+		verify(outbox, times(2)).stockLevelChanged(PRODUCT, 3, 5, Product.LOW_STOCK, Product.IN_STOCK);
+		assertEquals(1, monitor.getLowStockCount());
+	}
+
+	@Test
+	void nothingIsReportedBeforeLoading() {
+		flushed(0);
+		verify(productRepository, never()).setLowStock(anyLong(), anyBoolean());
+		verify(outbox, never()).stockLevelChanged(anyLong(), anyInt(), any(), anyString(), any());
+	}
+
+	@Test
+	void loadCountsProductsAlreadyLow() {
+		when(productRepository.findStockThresholds()).thenReturn(List.of(new StockThreshold(PRODUCT, 2, 5),
+				new StockThreshold(2L, 0, 5), new StockThreshold(3L, 50, null)));
+		monitor.load();
+		verify(productRepository).recomputeLowStock();
+		assertEquals(1, monitor.getLowStockCount());
+	}
+
+	private void load(int quantity, int reorderLevel) {
+		when(productRepository.findStockThresholds())
+				.thenReturn(List.of(new StockThreshold(PRODUCT, quantity, reorderLevel)));
+		monitor.load();
+	}
+
+	private void flushed(int quantity) {
+		transactionTemplate.executeWithoutResult(status -> monitor.quantityWritten(PRODUCT, quantity));
+	}
+
+	// Runs synchronizations the way a real transaction would, without a database behind it
+	private static final class Transactions extends AbstractPlatformTransactionManager {
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+
+}
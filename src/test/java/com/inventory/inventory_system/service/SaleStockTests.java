@@ -0,0 +1,110 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.entity.Product;
+import com.inventory.inventory_system.entity.Sale;
+import com.inventory.inventory_system.entity.StockMovement;
+import com.inventory.inventory_system.repository.ProductRepository;
+import com.inventory.inventory_system.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sales against the DataLoader sample data: each one leaves a movement the
+ * product's quantity can be rebuilt from, and its row stays put until the
+ * stock ledger's flush has taken it off stock.
+ */
+@SpringBootTest(properties = { "inventory.forecast.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:saletests;DB_CLOSE_ON_EXIT=FALSE" })
+class SaleStockTests {
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private StockLedger stockLedger;
+
+	@Autowired
+	private StockMovementService stockMovementService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private SaleRepository saleRepository;
+
+	@Test
+	void soldStockIsRecordedAsMovements() throws Exception {
+		Product product = productInStock();
+		int before = product.getQuantity();
+
+		Sale sale = saleService.saveSale(sale(product, 2), null);
+		awaitFlushed(sale.getId());
+
+		int after = productRepository.findById(product.getId()).orElseThrow().getQuantity();
+		assertEquals(before - 2, after);
+		assertEquals(after, stockMovementService.getLedgerQuantity(product.getId()));
+		StockMovement movement = stockMovementService.getRecentMovements(product.getId()).get(0);
+		assertEquals(StockMovement.SALE, movement.getMovementType());
+		assertEquals(-2, movement.getQuantityChange());
+		assertEquals(sale.getId(), movement.getSaleId());
+		assertEquals(0, stockMovementService.reconcile());
+	}
+
+	@Test
+	void saleCantBeDeletedUntilItsStockIsFlushed() throws Exception {
+		Product product = productInStock();
+		Sale sale;
+		stockLedger.pauseFlushing();
+		try {
+			sale = saleService.saveSale(sale(product, 1), null);
+			assertTrue(saleRepository.findById(sale.getId()).orElseThrow().getStockPending());
+			assertThrows(RuntimeException.class, () -> saleService.deleteSale(sale.getId()));
+		} finally {
+			stockLedger.resumeFlushing();
+		}
+
+		awaitFlushed(sale.getId());
+		saleService.deleteSale(sale.getId());
+		assertFalse(saleRepository.existsById(sale.getId()));
+		// The sale's movement outlives it, so the stock still adds up
+		assertEquals(0, stockMovementService.reconcile());
+	}
+
+	private Product productInStock() {
+		for (Product product : productRepository.findAll()) {
+			if (stockLedger.getAvailable(product.getId()) >= 10) {
+				return product;
+			}
+		}
+		throw new AssertionError("No sample product with stock to sell");
+	}
+
+	private void awaitFlushed(Long saleId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < deadline) {
+			if (!Boolean.TRUE.equals(saleRepository.findById(saleId).orElseThrow().getStockPending())) {
+				return;
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Sale " + saleId + " was never taken off stock");
+	}
+
+	private static Sale sale(Product product, int quantity) {
+		Sale sale = new Sale();
+		sale.setProductId(product.getId());
+		sale.setQuantity(quantity);
+		sale.setUnitPrice(product.getPrice() != null ? product.getPrice() : BigDecimal.ONE);
+		sale.setCustomerName("Walk-in");
+		return sale;
+	}
+
+}
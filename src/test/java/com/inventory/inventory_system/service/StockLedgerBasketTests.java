@@ -0,0 +1,95 @@
+package com.inventory.inventory_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.inventory.inventory_system.service.StockLedgerFixture.MAIN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Orders reserved with reserveAll: every line is held or none is, and baskets
+ * taking the same products in opposite orders don't deadlock.
+ */
+class StockLedgerBasketTests {
+
+	@Test
+	void orderIsHeldWholeOrNotAtAll() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().bin(1L, MAIN, 10).bin(2L, MAIN, 1);
+		StockLedger ledger = fixture.start();
+
+		assertNull(ledger.reserveAll(List.of(1L, 2L), List.of(5, 2), null));
+		assertEquals(10, ledger.getAvailable(1L));
+		assertEquals(1, ledger.getAvailable(2L));
+
+		List<StockLedger.Hold> holds = ledger.reserveAll(List.of(1L, 2L), List.of(5, 1), null);
+		assertNotNull(holds);
+		assertEquals(2, holds.size());
+		assertEquals(5, ledger.getAvailable(1L));
+		assertEquals(0, ledger.getAvailable(2L));
+		holds.forEach(ledger::release);
+		assertEquals(10, ledger.getAvailable(1L));
+		fixture.flush();
+	}
+
+	@Test
+	void linesForTheSameProductAddUp() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().bin(1L, MAIN, 10);
+		StockLedger ledger = fixture.start();
+
+		assertNull(ledger.reserveAll(List.of(1L, 1L), List.of(6, 6), null));
+		assertEquals(10, ledger.getAvailable(1L));
+		assertNotNull(ledger.reserveAll(List.of(1L, 1L), List.of(6, 4), null));
+		assertEquals(0, ledger.getAvailable(1L));
+		fixture.flush();
+	}
+
+	@Test
+	void unknownProductRefusesTheOrderAndPutsBackEarlierLines() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().bin(1L, MAIN, 10);
+		StockLedger ledger = fixture.start();
+
+		assertThrows(RuntimeException.class, () -> ledger.reserveAll(List.of(1L, 99L), List.of(3, 1), null));
+		assertEquals(10, ledger.getAvailable(1L));
+		fixture.flush();
+	}
+
+	@Test
+	void basketsInOppositeOrderDontDeadlock() throws Exception {
+		// One product per stripe, so each basket takes four locks
+		StockLedgerFixture fixture = new StockLedgerFixture().stripes(4)
+				.bin(1L, MAIN, 100).bin(2L, MAIN, 100).bin(3L, MAIN, 100).bin(4L, MAIN, 100);
+		StockLedger ledger = fixture.start();
+		List<Integer> quantities = List.of(1, 1, 1, 1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> forward = pool.submit(() -> checkouts(ledger, List.of(1L, 2L, 3L, 4L), quantities));
+			Future<?> backward = pool.submit(() -> checkouts(ledger, List.of(4L, 3L, 2L, 1L), quantities));
+			forward.get(10, TimeUnit.SECONDS);
+			backward.get(10, TimeUnit.SECONDS);
+		} finally {
+			pool.shutdownNow();
+		}
+		for (long productId = 1; productId <= 4; productId++) {
+			assertEquals(100, ledger.getAvailable(productId));
+		}
+		fixture.flush();
+	}
+
+	private static void checkouts(StockLedger ledger, List<Long> productIds, List<Integer> quantities) {
+		for (int i = 0; i < 5000; i++) {
+			List<StockLedger.Hold> holds = ledger.reserveAll(productIds, quantities, null);
+			assertNotNull(holds);
+			holds.forEach(ledger::release);
+		}
+	}
+
+}
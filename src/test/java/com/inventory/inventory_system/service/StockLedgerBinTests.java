@@ -0,0 +1,109 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.entity.StockMovement;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.inventory.inventory_system.service.StockLedgerFixture.MAIN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Stock per location bin: which bin a checkout takes from, stores topped up
+ * from the warehouse, and how the flush writes sales and moves per bin.
+ */
+class StockLedgerBinTests {
+
+	private static final long PRODUCT = 1L;
+	private static final String STORE = "STORE-1";
+
+	@Test
+	void checkoutsTakeFromTheChosenBinThenTheDefaultThenTheFullest() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().locations(MAIN, STORE)
+				.bin(PRODUCT, MAIN, 5).bin(PRODUCT, STORE, 8);
+		StockLedger ledger = fixture.start();
+
+		assertEquals(STORE, ledger.reserve(PRODUCT, 3, STORE).getLocation());
+		assertEquals(MAIN, ledger.reserve(PRODUCT, 5, null).getLocation());
+		assertEquals(STORE, ledger.reserve(PRODUCT, 4, MAIN).getLocation());
+		// One unit left in each bin, a sale never spans bins
+		assertEquals(1, ledger.getAvailable(PRODUCT));
+		assertNull(ledger.reserve(PRODUCT, 2, null));
+		fixture.flush();
+	}
+
+	@Test
+	void storesBelowTheMinimumAreToppedUpFromTheWarehouse() throws Exception {
+		// Exactly enough in the warehouse, so the store ends at the minimum and nothing moves after that
+		StockLedgerFixture fixture = new StockLedgerFixture().locations(MAIN, STORE)
+				.bin(PRODUCT, MAIN, 8).bin(PRODUCT, STORE, 2).rebalance(50, 10);
+		StockLedger ledger = fixture.start();
+
+		awaitBin(ledger, STORE, 10);
+		assertEquals(10, ledger.getAvailable(PRODUCT));
+		fixture.flush();
+
+		verify(fixture.stockBinRepository).adjustQuantity(eq(PRODUCT), eq(MAIN), eq(-8), any());
+		verify(fixture.stockBinRepository).adjustQuantity(eq(PRODUCT), eq(STORE), eq(8), any());
+		// A move leaves the product total alone
+		verify(fixture.productRepository, never()).decrementStock(anyLong(), anyInt(), any());
+		assertEquals(List.of(MAIN + " " + StockMovement.TRANSFER + " -8", STORE + " " + StockMovement.TRANSFER + " 8"),
+				savedMovements(fixture));
+	}
+
+	@Test
+	void flushWritesEachBinsSales() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().locations(MAIN, STORE)
+				.bin(PRODUCT, MAIN, 20).bin(PRODUCT, STORE, 10);
+		StockLedger ledger = fixture.start();
+
+		ledger.confirm(ledger.reserve(PRODUCT, 3, MAIN), 9L);
+		// Not tied to a sale row, so the flush writes its movement itself
+		ledger.confirm(ledger.reserve(PRODUCT, 4, STORE), null);
+		fixture.flush();
+
+		verify(fixture.productRepository).decrementStock(eq(PRODUCT), eq(7), any());
+		verify(fixture.stockBinRepository).adjustQuantity(eq(PRODUCT), eq(MAIN), eq(-3), any());
+		verify(fixture.stockBinRepository).adjustQuantity(eq(PRODUCT), eq(STORE), eq(-4), any());
+		verify(fixture.stockMovementRepository).insertSaleMovements(eq(List.of(9L)), eq(MAIN), any());
+		assertEquals(List.of(STORE + " " + StockMovement.SALE + " -4"), savedMovements(fixture));
+	}
+
+	// Waits for the rebalancer: a hold of the wanted quantity only comes from the bin once it has that much
+	private static void awaitBin(StockLedger ledger, String location, int quantity) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < deadline) {
+			StockLedger.Hold hold = ledger.reserve(PRODUCT, quantity, location);
+			if (hold != null) {
+				ledger.release(hold);
+				if (location.equals(hold.getLocation())) {
+					return;
+				}
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError(location + " never reached " + quantity);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> savedMovements(StockLedgerFixture fixture) {
+		ArgumentCaptor<Iterable<StockMovement>> saved = ArgumentCaptor.forClass(Iterable.class);
+		verify(fixture.stockMovementRepository).saveAll(saved.capture());
+		List<String> movements = new ArrayList<>();
+		for (StockMovement movement : saved.getValue()) {
+			movements.add(movement.getLocation() + " " + movement.getMovementType() + " "
+					+ movement.getQuantityChange());
+		}
+		return movements;
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.entity.StockBin;
+import com.inventory.inventory_system.repository.ProductRepository;
+import com.inventory.inventory_system.repository.SaleRepository;
+import com.inventory.inventory_system.repository.StockBinRepository;
+import com.inventory.inventory_system.repository.StockMovementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A real StockLedger over mocked repositories, loaded from the bins given to
+ * {@link #bin}. The scheduled flush is pushed out of the way, so nothing is
+ * written until {@link #flush()} (the ledger's own shutdown flush).
+ */
+public final class StockLedgerFixture {
+
+	public static final String MAIN = "MAIN";
+
+	public final ProductRepository productRepository = mock(ProductRepository.class);
+	public final SaleRepository saleRepository = mock(SaleRepository.class);
+	public final StockBinRepository stockBinRepository = mock(StockBinRepository.class);
+	public final StockMovementRepository stockMovementRepository = mock(StockMovementRepository.class);
+	public final LowStockMonitor lowStockMonitor = mock(LowStockMonitor.class);
+	public final TransactionTemplate transactionTemplate = new TransactionTemplate(
+			mock(PlatformTransactionManager.class));
+
+	private final List<StockBin> bins = new ArrayList<>();
+	private String[] locations = { MAIN };
+	private long holdTtlMillis = 30_000;
+	private long rebalanceIntervalMillis = 3_600_000;
+	private int stripes = 64;
+	private int rebalanceMinimum = 10;
+	private StockLedger ledger;
+
+	public StockLedgerFixture bin(long productId, String location, int quantity) {
+		bins.add(new StockBin(productId, location, quantity));
+		return this;
+	}
+
+	public StockLedgerFixture locations(String... locations) {
+		this.locations = locations;
+		return this;
+	}
+
+	public StockLedgerFixture holdTtlMillis(long holdTtlMillis) {
+		this.holdTtlMillis = holdTtlMillis;
+		return this;
+	}
+
+	public StockLedgerFixture stripes(int stripes) {
+		this.stripes = stripes;
+		return this;
+	}
+
+	// Stores below the minimum are topped up every interval, once there is more than one location
+	public StockLedgerFixture rebalance(long intervalMillis, int minimum) {
+		this.rebalanceIntervalMillis = intervalMillis;
+		this.rebalanceMinimum = minimum;
+		return this;
+	}
+
+	// Rebuilt as on startup, from the bins and whatever the repository mocks return
+	public StockLedger start() {
+		when(stockBinRepository.findAll()).thenReturn(bins);
+		StockLedger ledger = new StockLedger(productRepository, saleRepository, stockBinRepository,
+				stockMovementRepository, lowStockMonitor, transactionTemplate, new SimpleMeterRegistry(), stripes,
+				locations, "", holdTtlMillis, 3_600_000, rebalanceIntervalMillis, rebalanceMinimum);
+		ledger.rebuild();
+		this.ledger = ledger;
+		return ledger;
+	}
+
+	// Runs the final flush, the ledger takes no more checkouts afterwards
+	public void flush() throws InterruptedException {
+		ledger.shutdown();
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.inventory.inventory_system.service;
+
+import com.inventory.inventory_system.dto.StockLevel;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+
+import static com.inventory.inventory_system.service.StockLedgerFixture.MAIN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Holds, confirmations and the batched flush of the in-memory stock ledger,
+ * and the startup pass that takes sales still flagged stock_pending off stock.
+ */
+class StockLedgerTests {
+
+	private static final long PRODUCT = 1L;
+
+	@Test
+	void holdsComeOffAvailableStockUntilReleased() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().bin(PRODUCT, MAIN, 10);
+		StockLedger ledger = fixture.start();
+
+		StockLedger.Hold hold = ledger.reserve(PRODUCT, 4, null);
+		assertNotNull(hold);
+		assertEquals(MAIN, hold.getLocation());
+		assertEquals(6, ledger.getAvailable(PRODUCT));
+		assertNull(ledger.reserve(PRODUCT, 7, null));
+
+		ledger.release(hold);
+		ledger.release(hold);
+		assertEquals(10, ledger.getAvailable(PRODUCT));
+
+		fixture.flush();
+		verify(fixture.productRepository, never()).decrementStock(anyLong(), anyInt(), any());
+	}
+
+	@Test
+	void confirmedHoldsAreFlushedWithTheirSales() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().bin(PRODUCT, MAIN, 10);
+		StockLedger ledger = fixture.start();
+
+		ledger.confirm(ledger.reserve(PRODUCT, 3, null), 41L);
+		ledger.confirm(ledger.reserve(PRODUCT, 7, null), 42L);
+		assertEquals(0, ledger.getAvailable(PRODUCT));
+		assertNull(ledger.reserve(PRODUCT, 1, null));
+
+		fixture.flush();
+		verify(fixture.productRepository).decrementStock(eq(PRODUCT), eq(10), any());
+		verify(fixture.stockBinRepository).adjustQuantity(eq(PRODUCT), eq(MAIN), eq(-10), any());
+		verify(fixture.stockMovementRepository).insertSaleMovements(eq(List.of(41L, 42L)), eq(MAIN), any());
+		verify(fixture.saleRepository).clearStockPending(List.of(41L, 42L));
+		verify(fixture.lowStockMonitor).quantityWritten(PRODUCT, 0);
+	}
+
+	@Test
+	void failedFlushIsRetriedWithNothingLost() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().bin(PRODUCT, MAIN, 10);
+		StockLedger ledger = fixture.start();
+		when(fixture.productRepository.decrementStock(anyLong(), anyInt(), any()))
+				.thenThrow(new RuntimeException("Lock timeout"))
+				.thenReturn(1);
+
+		ledger.confirm(ledger.reserve(PRODUCT, 2, null), 7L);
+		fixture.flush();
+		fixture.flush();
+
+		verify(fixture.productRepository, times(2)).decrementStock(eq(PRODUCT), eq(2), any());
+		verify(fixture.saleRepository, times(1)).clearStockPending(List.of(7L));
+		assertEquals(8, ledger.getAvailable(PRODUCT));
+	}
+
+	@Test
+	void unconfirmedHoldsExpire() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().bin(PRODUCT, MAIN, 10).holdTtlMillis(100);
+		StockLedger ledger = fixture.start();
+
+		StockLedger.Hold hold = ledger.reserve(PRODUCT, 5, null);
+		StockLedger.Hold durable = ledger.reserveUntilConfirmed(PRODUCT, 2, null);
+		assertEquals(3, ledger.getAvailable(PRODUCT));
+		long deadline = System.currentTimeMillis() + 5000;
+		while (ledger.getAvailable(PRODUCT) != 8 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertEquals(8, ledger.getAvailable(PRODUCT));
+
+		// A sale that commits after its hold expired still takes its stock
+		ledger.confirm(hold, 50L);
+		ledger.confirm(durable, 51L);
+		assertEquals(3, ledger.getAvailable(PRODUCT));
+		fixture.flush();
+		verify(fixture.productRepository).decrementStock(eq(PRODUCT), eq(7), any());
+	}
+
+	@Test
+	void unknownProductsAreRefused() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().bin(PRODUCT, MAIN, 10);
+		StockLedger ledger = fixture.start();
+
+		assertThrows(RuntimeException.class, () -> ledger.reserve(99L, 1, null));
+		fixture.flush();
+	}
+
+	@Test
+	void rebuildTakesPendingSalesOffStockBeforeLoading() throws Exception {
+		StockLedgerFixture fixture = new StockLedgerFixture().bin(PRODUCT, MAIN, 7);
+		when(fixture.saleRepository.sumPendingStockByBin()).thenReturn(List.of(new StockLevel(PRODUCT, null, 3L)));
+		StockLedger ledger = fixture.start();
+
+		InOrder order = inOrder(fixture.productRepository, fixture.stockBinRepository,
+				fixture.stockMovementRepository, fixture.saleRepository, fixture.lowStockMonitor);
+		order.verify(fixture.productRepository).decrementStock(eq(PRODUCT), eq(3), any());
+		order.verify(fixture.stockBinRepository).adjustQuantity(eq(PRODUCT), eq(MAIN), eq(-3), any());
+		order.verify(fixture.stockMovementRepository).insertPendingSaleMovements(eq(MAIN), any());
+		order.verify(fixture.saleRepository).clearAllStockPending();
+		order.verify(fixture.stockBinRepository).findAll();
+		order.verify(fixture.lowStockMonitor).load();
+		assertEquals(7, ledger.getAvailable(PRODUCT));
+		fixture.flush();
+	}
+
+}